@@ -0,0 +1,78 @@
+package vinodKPCBChallenge;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Compares loading a fresh map with one setAll call, with the parallel
+ * FixedSizeHashMap.build, and with calling set once per entry, for input that
+ * arrives sorted or shuffled.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class BulkLoadBenchmark {
+    @Param({"100000", "1000000", "10000000"})
+    private int size;
+
+    // "hashed" uses one bucket per slot, "tree" uses a single bucket
+    @Param({"hashed", "tree"})
+    private String layout;
+
+    @Param({"sorted", "shuffled"})
+    private String input;
+
+    private String[] keys;
+    private Integer[] values;
+
+    @Setup
+    public void setup() {
+        this.keys = new String[this.size];
+        this.values = new Integer[this.size];
+        for (int i = 0; i < this.size; i++) {
+            this.keys[i] = "bulk_key_" + i;
+            this.values[i] = i;
+        }
+        Arrays.sort(this.keys);
+        if (this.input.equals("shuffled")) {
+            Random rand = new Random(42);
+            for (int i = this.size - 1; i > 0; i--) {
+                int j = rand.nextInt(i + 1);
+                String key = this.keys[i];
+                this.keys[i] = this.keys[j];
+                this.keys[j] = key;
+            }
+        }
+    }
+
+    // creates an empty map in the chosen layout
+    private FixedSizeHashMap<Integer> createMap() {
+        return new FixedSizeHashMap<Integer>(this.size, this.layout.equals("tree") ? 1 : this.size);
+    }
+
+    @Benchmark
+    public FixedSizeHashMap<Integer> setAll() {
+        FixedSizeHashMap<Integer> map = this.createMap();
+        map.setAll(this.keys, this.values);
+        return map;
+    }
+
+    @Benchmark
+    public FixedSizeHashMap<Integer> build() {
+        return FixedSizeHashMap.build(this.size, this.layout.equals("tree") ? 1 : this.size, this.keys, this.values);
+    }
+
+    @Benchmark
+    public FixedSizeHashMap<Integer> setEach() {
+        FixedSizeHashMap<Integer> map = this.createMap();
+        for (int i = 0; i < this.size; i++) {
+            map.set(this.keys[i], this.values[i]);
+        }
+        return map;
+    }
+}
@@ -0,0 +1,84 @@
+package vinodKPCBChallenge;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Compares looking up keys that arrive as UTF-8 bytes by building a String for
+ * each one with the byte[], ByteBuffer, and CharSequence overloads of get, which
+ * decode into a reused scratch buffer. Run with "-prof gc" to see the allocation
+ * rate of each: only "string" should allocate per lookup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ByteKeyBenchmark {
+    private static final int SIZE = 100000;
+
+    // "ascii" keys are plain, "utf8" keys have multi-byte chars
+    @Param({"ascii", "utf8"})
+    private String charset;
+
+    private FixedSizeHashMap<Integer> map;
+    private String[] strings;
+    private byte[][] keys;
+    private ByteBuffer[] buffers;
+    private StringBuilder builder;
+    private int next;
+
+    @Setup
+    public void setup() {
+        String prefix = this.charset.equals("ascii") ? "session_key_" : "s\u00e9ssion_\u952e_";
+        this.map = new FixedSizeHashMap<Integer>(SIZE);
+        this.strings = new String[SIZE];
+        this.keys = new byte[SIZE][];
+        this.buffers = new ByteBuffer[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            String key = prefix + i;
+            this.map.set(key, i);
+            this.strings[i] = key;
+            this.keys[i] = key.getBytes(StandardCharsets.UTF_8);
+            this.buffers[i] = ByteBuffer.allocateDirect(this.keys[i].length);
+            this.buffers[i].put(this.keys[i]).flip();
+        }
+        this.builder = new StringBuilder();
+        this.next = 0;
+    }
+
+    // returns the index of the next key to use, wrapping around at the end
+    private int nextIndex() {
+        int i = this.next;
+        this.next = (i + 1 == SIZE) ? 0 : i + 1;
+        return i;
+    }
+
+    @Benchmark
+    public Integer string() {
+        byte[] key = this.keys[this.nextIndex()];
+        return this.map.get(new String(key, StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public Integer bytes() {
+        byte[] key = this.keys[this.nextIndex()];
+        return this.map.get(key, 0, key.length);
+    }
+
+    @Benchmark
+    public Integer directBuffer() {
+        return this.map.get(this.buffers[this.nextIndex()]);
+    }
+
+    // reuses one StringBuilder, as a parser that assembles keys would
+    @Benchmark
+    public Integer charSequence() {
+        this.builder.setLength(0);
+        this.builder.append(this.strings[this.nextIndex()]);
+        return this.map.get(this.builder);
+    }
+}
@@ -0,0 +1,84 @@
+package vinodKPCBChallenge;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures how long it takes to create a FixedSizeHashMap of a given capacity and
+ * fill a fraction of it, and how much memory the map then holds. The node arrays
+ * and table grow with use, so a huge map that stays mostly empty should be quick
+ * to create and small.
+ *
+ * After each run, "heapMb" reports the heap in use after a full collection and
+ * "rssMb" the resident set size of the JVM (read from /proc, so 0 off Linux).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+public class CapacityBenchmark {
+    @Param({"1000000", "10000000", "100000000"})
+    private int capacity;
+
+    // the fraction of the capacity that is filled after creating the map
+    @Param({"0", "0.05"})
+    private double fill;
+
+    private String[] keys;
+    private FixedSizeHashMap<Integer> map;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.keys = new String[(int)(this.capacity*this.fill)];
+        for (int i = 0; i < this.keys.length; i++) this.keys[i] = "key_" + i;
+    }
+
+    // drops the map of the last run, so each run starts from the same heap
+    @Setup(Level.Iteration)
+    public void clear() {
+        this.map = null;
+        System.gc();
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Memory {
+        public long heapMb;
+        public long rssMb;
+
+        @TearDown(Level.Iteration)
+        public void measure() throws IOException {
+            System.gc();
+            this.heapMb = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() >> 20;
+            this.rssMb = residentKb() >> 10;
+        }
+    }
+
+    // returns the resident set size of this process in kilobytes, or 0 if unknown
+    private static long residentKb() throws IOException {
+        if (!Files.isReadable(Paths.get("/proc/self/status"))) {
+            return 0;
+        }
+        for (String line : Files.readAllLines(Paths.get("/proc/self/status"), StandardCharsets.UTF_8)) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("[^0-9]", ""));
+            }
+        }
+        return 0;
+    }
+
+    @Benchmark
+    public FixedSizeHashMap<Integer> create(Memory memory) {
+        this.map = new FixedSizeHashMap<Integer>(this.capacity);
+        Integer value = 1;
+        for (String key : this.keys) this.map.set(key, value);
+        return this.map;
+    }
+}
@@ -0,0 +1,52 @@
+package vinodKPCBChallenge;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Fills the map to 99% of its capacity and then churns it: each operation
+ * deletes a random key and sets a new one, so every set has to find one of the
+ * few free slots.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChurnBenchmark {
+    @Param({"1000", "100000", "10000000"})
+    private int size;
+
+    private FixedSizeHashMap<Integer> map;
+    // keys[0, live) are in the map, keys[live, size) are not
+    private String[] keys;
+    private int live;
+    private Random rand;
+
+    @Setup
+    public void setup() {
+        this.map = new FixedSizeHashMap<Integer>(this.size);
+        this.keys = new String[this.size];
+        this.live = this.size - this.size/100;
+        for (int i = 0; i < this.size; i++) {
+            this.keys[i] = "churn_key_" + i;
+            if (i < this.live) this.map.set(this.keys[i], i);
+        }
+        this.rand = new Random(42);
+    }
+
+    // deletes a random live key, then sets a random absent key in its place
+    @Benchmark
+    public boolean deleteThenSet() {
+        int victim = this.rand.nextInt(this.live);
+        int replacement = this.live + this.rand.nextInt(this.size - this.live);
+        this.map.delete(this.keys[victim]);
+        boolean result = this.map.set(this.keys[replacement], replacement);
+        String temp = this.keys[victim];
+        this.keys[victim] = this.keys[replacement];
+        this.keys[replacement] = temp;
+        return result;
+    }
+}
@@ -0,0 +1,65 @@
+package vinodKPCBChallenge;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures the cost of comparing full keys when hash codes collide. The
+ * "distinct" key set has unique hash codes, so lookups never call
+ * String.compareTo. Every key in the "colliding" set has the same hash code,
+ * so every node on the path is compared by key.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionBenchmark {
+    // keys made of "Aa" and "BB" blocks, so there are 2^blocks of them
+    private static final int BLOCKS = 12;
+    private static final int SIZE = 1 << BLOCKS;
+
+    @Param({"distinct", "colliding"})
+    private String keys;
+
+    private FixedSizeHashMap<Integer> map;
+    private String[] present;
+    private int next;
+
+    // fill the map to capacity before each trial
+    @Setup
+    public void setup() {
+        this.map = new FixedSizeHashMap<Integer>(SIZE);
+        this.present = new String[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            this.present[i] = this.keys.equals("colliding") ? collidingKey(i) : "key_" + i;
+            this.map.set(this.present[i], i);
+        }
+        this.next = 0;
+    }
+
+    // returns the ith key made of "Aa" or "BB" blocks
+    private static String collidingKey(int i) {
+        StringBuilder key = new StringBuilder();
+        for (int bit = 0; bit < BLOCKS; bit++) {
+            key.append(((i >> bit) & 1) == 0 ? "Aa" : "BB");
+        }
+        return key.toString();
+    }
+
+    @Benchmark
+    public Integer getHit() {
+        String key = this.present[this.next];
+        this.next = (this.next + 1) & (SIZE - 1);
+        return this.map.get(key);
+    }
+
+    // a rejected duplicate still walks the whole path comparing keys
+    @Benchmark
+    public boolean setDuplicate() {
+        String key = this.present[this.next];
+        this.next = (this.next + 1) & (SIZE - 1);
+        return this.map.set(key, 0);
+    }
+}
@@ -0,0 +1,70 @@
+package vinodKPCBChallenge;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Compares lookups spread over many small maps in CompactFixedSizeHashMap and
+ * FixedSizeHashMap. Each lookup picks a random map and a random key, so the
+ * benchmark is bound by how much of the maps the caches hold, which is where the
+ * compact node encoding should pay off.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompactBenchmark {
+    private static final int LOOKUPS = 1 << 16;
+
+    @Param({"10", "1000"})
+    private int maps;
+
+    @Param({"1000"})
+    private int entries;
+
+    private CompactFixedSizeHashMap<Integer>[] compact_maps;
+    private FixedSizeHashMap<Integer>[] fixed_maps;
+    private int[] map_trace;
+    private String[] key_trace;
+    private int next;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        this.compact_maps = new CompactFixedSizeHashMap[this.maps];
+        this.fixed_maps = new FixedSizeHashMap[this.maps];
+        for (int m = 0; m < this.maps; m++) {
+            this.compact_maps[m] = new CompactFixedSizeHashMap<Integer>(this.entries);
+            this.fixed_maps[m] = new FixedSizeHashMap<Integer>(this.entries);
+            for (int i = 0; i < this.entries; i++) {
+                this.compact_maps[m].set("key_" + i, i);
+                this.fixed_maps[m].set("key_" + i, i);
+            }
+        }
+        Random rand = new Random(42);
+        this.map_trace = new int[LOOKUPS];
+        this.key_trace = new String[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            this.map_trace[i] = rand.nextInt(this.maps);
+            this.key_trace[i] = "key_" + rand.nextInt(this.entries);
+        }
+        this.next = 0;
+    }
+
+    @Benchmark
+    public Integer compact() {
+        int i = this.next;
+        this.next = (i + 1) & (LOOKUPS - 1);
+        return this.compact_maps[this.map_trace[i]].get(this.key_trace[i]);
+    }
+
+    @Benchmark
+    public Integer fixed() {
+        int i = this.next;
+        this.next = (i + 1) & (LOOKUPS - 1);
+        return this.fixed_maps[this.map_trace[i]].get(this.key_trace[i]);
+    }
+}
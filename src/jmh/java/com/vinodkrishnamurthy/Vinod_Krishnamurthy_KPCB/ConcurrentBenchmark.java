@@ -0,0 +1,64 @@
+package vinodKPCBChallenge;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures multi-threaded throughput of ConcurrentFixedSizeHashMap against a
+ * FixedSizeHashMap behind one lock. Run it at each thread count, for example
+ * "./gradlew jmh -Pjmh='ConcurrentBenchmark -t 1'" up to "-t 32".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentBenchmark {
+    private static final int SIZE = 1 << 20;
+
+    // "striped" is ConcurrentFixedSizeHashMap, "locked" is one global lock
+    @Param({"striped", "locked"})
+    private String map;
+
+    // percentage of operations that are gets, the rest are set/delete pairs
+    @Param({"100", "90", "50"})
+    private int reads;
+
+    private ConcurrentFixedSizeHashMap<Integer> striped_map;
+    private FixedSizeHashMap<Integer> locked_map;
+    private String[] keys;
+
+    // fill half of the map, the other half of the keys are set and deleted
+    @Setup
+    public void setup() {
+        this.striped_map = new ConcurrentFixedSizeHashMap<Integer>(SIZE);
+        this.locked_map = new FixedSizeHashMap<Integer>(SIZE);
+        this.keys = new String[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            this.keys[i] = "key_" + i;
+            if (i % 2 == 0) {
+                this.striped_map.set(this.keys[i], i);
+                this.locked_map.set(this.keys[i], i);
+            }
+        }
+    }
+
+    @Benchmark
+    public Object operation() {
+        ThreadLocalRandom rand = ThreadLocalRandom.current();
+        int i = rand.nextInt(SIZE);
+        boolean read = rand.nextInt(100) < this.reads;
+        if (this.map.equals("striped")) {
+            if (read) return this.striped_map.get(this.keys[i & ~1]);
+            this.striped_map.set(this.keys[i | 1], i);
+            return this.striped_map.delete(this.keys[i | 1]);
+        }
+        synchronized (this.locked_map) {
+            if (read) return this.locked_map.get(this.keys[i & ~1]);
+            this.locked_map.set(this.keys[i | 1], i);
+            return this.locked_map.delete(this.keys[i | 1]);
+        }
+    }
+}
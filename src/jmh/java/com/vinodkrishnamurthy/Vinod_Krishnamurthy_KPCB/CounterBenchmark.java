@@ -0,0 +1,96 @@
+package vinodKPCBChallenge;
+
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures counter increments over a Zipfian key trace: the old get, delete, and
+ * set sequence against merge and compute, which find the node once and update it
+ * in place, and against LongFixedSizeHashMap.addAndGet, which also never boxes.
+ * java.util.HashMap.merge is the reference.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CounterBenchmark {
+    private static final int TRACE_LENGTH = 1 << 20;
+
+    private static final BiFunction<Long, Long, Long> SUM = new BiFunction<Long, Long, Long>() {
+        public Long apply(Long a, Long b) {
+            return a + b;
+        }
+    };
+
+    private static final BiFunction<String, Long, Long> INCREMENT = new BiFunction<String, Long, Long>() {
+        public Long apply(String key, Long count) {
+            return (count == null) ? 1L : count + 1;
+        }
+    };
+
+    // number of distinct counters
+    @Param({"1000", "1000000"})
+    private int keys;
+
+    private FixedSizeHashMap<Long> map;
+    private LongFixedSizeHashMap long_map;
+    private HashMap<String, Long> hash_map;
+    private String[] trace;
+    private int next;
+
+    @Setup
+    public void setup() {
+        this.map = new FixedSizeHashMap<Long>(this.keys);
+        this.long_map = new LongFixedSizeHashMap(this.keys);
+        this.hash_map = new HashMap<String, Long>();
+        String[] names = new String[this.keys];
+        for (int i = 0; i < this.keys; i++) names[i] = "counter_" + i;
+        int[] ranks = KeyTraces.zipf(this.keys, TRACE_LENGTH, 0.99, new Random(25));
+        this.trace = new String[TRACE_LENGTH];
+        for (int i = 0; i < TRACE_LENGTH; i++) this.trace[i] = names[ranks[i]];
+        this.next = 0;
+    }
+
+    // returns the next key of the trace, wrapping around at the end
+    private String nextKey() {
+        String key = this.trace[this.next];
+        this.next = (this.next + 1) & (TRACE_LENGTH - 1);
+        return key;
+    }
+
+    @Benchmark
+    public boolean getDeleteSet() {
+        String key = this.nextKey();
+        Long count = this.map.get(key);
+        if (count == null) {
+            return this.map.set(key, 1L);
+        }
+        this.map.delete(key);
+        return this.map.set(key, count + 1);
+    }
+
+    @Benchmark
+    public Long merge() {
+        return this.map.merge(this.nextKey(), 1L, SUM);
+    }
+
+    @Benchmark
+    public Long compute() {
+        return this.map.compute(this.nextKey(), INCREMENT);
+    }
+
+    @Benchmark
+    public long addAndGet() {
+        return this.long_map.addAndGet(this.nextKey(), 1);
+    }
+
+    @Benchmark
+    public Long hashMap() {
+        return this.hash_map.merge(this.nextKey(), 1L, SUM);
+    }
+}
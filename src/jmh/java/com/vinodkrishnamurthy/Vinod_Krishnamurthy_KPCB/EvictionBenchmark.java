@@ -0,0 +1,67 @@
+package vinodKPCBChallenge;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Replays a Zipfian trace against a FixedSizeHashMap used as a cache. Each
+ * operation gets a key and sets it on a miss, which evicts once the cache is
+ * full. The hit ratio of each policy is printed at the end of the trial.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvictionBenchmark {
+    private static final int KEYS = 1 << 20;
+    private static final int TRACE = 1 << 22;
+
+    @Param({"lru", "clock"})
+    private String policy;
+
+    // cache capacity as a fraction of the distinct keys, in percent
+    @Param({"1", "10"})
+    private int capacity;
+
+    // Zipfian skew, 0.99 is the usual YCSB setting
+    @Param({"0.99"})
+    private double skew;
+
+    private FixedSizeHashMap<Integer> map;
+    private String[] keys;
+    private int[] trace;
+    private int next;
+
+    @Setup
+    public void setup() {
+        int size = KEYS/100 * this.capacity;
+        this.map = new FixedSizeHashMap<Integer>(size, size,
+            this.policy.equals("lru") ? new LruEviction() : new ClockEviction());
+        this.keys = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) this.keys[i] = "key_" + i;
+        this.trace = KeyTraces.zipf(KEYS, TRACE, this.skew, new Random(42));
+        this.next = 0;
+    }
+
+    @TearDown
+    public void report() {
+        long hits = this.map.getHits();
+        long total = hits + this.map.getMisses();
+        System.out.printf("%n%s hit ratio %.4f, %d evictions%n", this.policy,
+            (double)hits/total, this.map.getEvictions());
+    }
+
+    @Benchmark
+    public Integer getOrSet() {
+        int k = this.trace[this.next];
+        this.next = (this.next + 1) & (TRACE - 1);
+        Integer value = this.map.get(this.keys[k]);
+        if (value == null) {
+            this.map.set(this.keys[k], k);
+        }
+        return value;
+    }
+}
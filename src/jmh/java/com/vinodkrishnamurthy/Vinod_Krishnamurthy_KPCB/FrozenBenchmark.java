@@ -0,0 +1,70 @@
+package vinodKPCBChallenge;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Compares lookups (hits and misses) in a FrozenFixedSizeHashMap with lookups in
+ * the FixedSizeHashMap it was frozen from, in the default layout and in tree mode.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FrozenBenchmark {
+    @Param({"10000", "1000000"})
+    private int size;
+
+    // "hashed" uses one bucket per slot, "tree" uses a single bucket
+    @Param({"hashed", "tree"})
+    private String layout;
+
+    private FixedSizeHashMap<Integer> map;
+    private FrozenFixedSizeHashMap<Integer> frozen;
+    private String[] keys;
+    private String[] missing;
+    private int next;
+
+    @Setup
+    public void setup() {
+        this.map = new FixedSizeHashMap<Integer>(this.size, this.layout.equals("tree") ? 1 : this.size);
+        this.keys = new String[this.size];
+        this.missing = new String[this.size];
+        for (int i = 0; i < this.size; i++) {
+            this.keys[i] = "key_" + i;
+            this.missing[i] = "missing_" + i;
+            this.map.set(this.keys[i], i);
+        }
+        this.frozen = this.map.freeze();
+        this.next = 0;
+    }
+
+    // returns the index of the next key to use, wrapping around at the end
+    private int nextIndex() {
+        int i = this.next;
+        this.next = (i + 1 == this.size) ? 0 : i + 1;
+        return i;
+    }
+
+    @Benchmark
+    public Integer mutableHit() {
+        return this.map.get(this.keys[this.nextIndex()]);
+    }
+
+    @Benchmark
+    public Integer frozenHit() {
+        return this.frozen.get(this.keys[this.nextIndex()]);
+    }
+
+    @Benchmark
+    public Integer mutableMiss() {
+        return this.map.get(this.missing[this.nextIndex()]);
+    }
+
+    @Benchmark
+    public Integer frozenMiss() {
+        return this.frozen.get(this.missing[this.nextIndex()]);
+    }
+}
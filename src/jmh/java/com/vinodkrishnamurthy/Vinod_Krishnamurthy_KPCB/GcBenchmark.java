@@ -0,0 +1,103 @@
+package vinodKPCBChallenge;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Compares the garbage collection cost of FixedSizeHashMap with
+ * OffHeapFixedSizeHashMap at the same capacity.
+ *
+ * Both maps are filled to 90% of their size and stay reachable for the whole
+ * trial. "fullGc" times a System.gc(), which has to mark every object reachable
+ * from the map, so it measures the pause a full collection takes. "churn"
+ * measures throughput under a workload that keeps allocating keys, and reports
+ * the time spent in every collector per operation as the "gcMillis" counter.
+ * Run with "-prof gc" to see the allocation rates as well.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g", "-XX:MaxDirectMemorySize=8g"})
+public class GcBenchmark {
+    @Param({"1000000", "10000000"})
+    private int size;
+
+    // "heap" is FixedSizeHashMap, "offheap" is OffHeapFixedSizeHashMap
+    @Param({"heap", "offheap"})
+    private String map;
+
+    private FixedSizeHashMap<Long> heap_map;
+    private OffHeapFixedSizeHashMap<Long> off_heap_map;
+    private int count;
+    private int next;
+
+    @Setup
+    public void setup() {
+        this.count = this.size/10*9;
+        if (this.map.equals("heap")) {
+            this.heap_map = new FixedSizeHashMap<Long>(this.size);
+            for (int i = 0; i < this.count; i++) this.heap_map.set("key_" + i, (long)i);
+        } else {
+            this.off_heap_map = new OffHeapFixedSizeHashMap<Long>(this.size, 16, ValueCodec.longs());
+            for (int i = 0; i < this.count; i++) this.off_heap_map.set("key_" + i, (long)i);
+        }
+        this.next = 0;
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class GcTime {
+        public long gcMillis;
+        private long start;
+
+        @Setup(Level.Iteration)
+        public void start() {
+            this.start = collectionMillis();
+            this.gcMillis = 0;
+        }
+
+        @TearDown(Level.Iteration)
+        public void stop() {
+            this.gcMillis = collectionMillis() - this.start;
+        }
+    }
+
+    // returns the total time spent in every collector so far
+    private static long collectionMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(gc.getCollectionTime(), 0);
+        }
+        return millis;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public void fullGc() {
+        System.gc();
+    }
+
+    // gets a freshly built key, then deletes and sets a key so the map keeps its load
+    @Benchmark
+    public Long churn(GcTime gc_time) {
+        int i = this.next;
+        this.next = (i + 1 == this.count) ? 0 : i + 1;
+        String key = "key_" + i;
+        if (this.heap_map != null) {
+            Long value = this.heap_map.get(key);
+            this.heap_map.delete(key);
+            this.heap_map.set(key, value);
+            return value;
+        }
+        Long value = this.off_heap_map.get(key);
+        this.off_heap_map.delete(key);
+        this.off_heap_map.set(key, value);
+        return value;
+    }
+}
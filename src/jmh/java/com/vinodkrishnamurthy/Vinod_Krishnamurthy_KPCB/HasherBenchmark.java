@@ -0,0 +1,93 @@
+package vinodKPCBChallenge;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Compares the built-in KeyHashers on a few shapes of key: sequential ids, URLs
+ * with long shared prefixes, UUIDs, and "Aa"/"BB" strings that all share one JDK
+ * hash code, as an attacker would send. "hash" times the hasher alone and "get"
+ * a lookup in a full FixedSizeHashMap using it. Each trial also prints the
+ * collision rate of the hasher on the key set: the share of keys whose 32-bit hash
+ * code another key already has, and the largest number of keys in one bucket.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HasherBenchmark {
+    private static final int SIZE = 1 << 16;
+
+    @Param({"jdk", "sip", "fast"})
+    private String hasher;
+
+    @Param({"ids", "urls", "uuids", "colliding"})
+    private String keySet;
+
+    private KeyHasher key_hasher;
+    private FixedSizeHashMap<Integer> map;
+    private String[] keys;
+    private int next;
+
+    @Setup
+    public void setup() {
+        this.key_hasher = this.hasher.equals("jdk") ? KeyHasher.jdk()
+            : this.hasher.equals("sip") ? KeyHasher.sipHash() : KeyHasher.fast(42);
+        this.keys = new String[SIZE];
+        Random rand = new Random(42);
+        for (int i = 0; i < SIZE; i++) {
+            if (this.keySet.equals("ids")) {
+                this.keys[i] = "user_" + i;
+            } else if (this.keySet.equals("urls")) {
+                this.keys[i] = "https://www.example.com/catalog/products/" + rand.nextInt(1000) + "/items/" + i;
+            } else if (this.keySet.equals("uuids")) {
+                this.keys[i] = new UUID(rand.nextLong(), rand.nextLong()).toString();
+            } else {
+                StringBuilder key = new StringBuilder();
+                for (int bit = 0; bit < 16; bit++) key.append(((i >> bit) & 1) == 0 ? "Aa" : "BB");
+                this.keys[i] = key.toString();
+            }
+        }
+        this.map = new FixedSizeHashMap<Integer>(SIZE, SIZE, null, this.key_hasher);
+        for (int i = 0; i < SIZE; i++) this.map.set(this.keys[i], i);
+        this.printCollisions();
+        this.next = 0;
+    }
+
+    // prints the collision rate of the hasher on the key set
+    private void printCollisions() {
+        HashSet<Integer> codes = new HashSet<Integer>();
+        int[] bucket_loads = new int[SIZE];
+        int largest = 0;
+        for (String key : this.keys) {
+            int hash = this.key_hasher.hash(key);
+            codes.add(hash);
+            int bucket = (hash ^ (hash >>> 16)) & (SIZE - 1);
+            largest = Math.max(largest, ++bucket_loads[bucket]);
+        }
+        System.out.printf("%n%s on %s: %.2f%% of keys collide, largest bucket holds %d keys%n",
+            this.hasher, this.keySet, 100.0*(SIZE - codes.size())/SIZE, largest);
+    }
+
+    // returns the index of the next key to use, wrapping around at the end
+    private int nextIndex() {
+        int i = this.next;
+        this.next = (i + 1 == SIZE) ? 0 : i + 1;
+        return i;
+    }
+
+    @Benchmark
+    public int hash() {
+        return this.key_hasher.hash(this.keys[this.nextIndex()]);
+    }
+
+    @Benchmark
+    public Integer get() {
+        return this.map.get(this.keys[this.nextIndex()]);
+    }
+}
@@ -0,0 +1,44 @@
+package vinodKPCBChallenge;
+
+import java.util.Random;
+
+/**
+ * Key traces shared by the benchmarks.
+ */
+final class KeyTraces {
+    private KeyTraces() {}
+
+    /**
+     * Returns length key ranks drawn uniformly from n keys
+     */
+    static int[] uniform(int n, int length, Random rand) {
+        int[] trace = new int[length];
+        for (int i = 0; i < length; i++) trace[i] = rand.nextInt(n);
+        return trace;
+    }
+
+    /**
+     * Returns length key ranks drawn from a Zipfian distribution over n keys
+     * by inverting the cumulative distribution with a binary search
+     */
+    static int[] zipf(int n, int length, double skew, Random rand) {
+        double[] cumulative = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += 1.0/Math.pow(i + 1, skew);
+            cumulative[i] = sum;
+        }
+        int[] trace = new int[length];
+        for (int i = 0; i < length; i++) {
+            double u = rand.nextDouble() * sum;
+            int lo = 0;
+            int hi = n - 1;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (cumulative[mid] < u) lo = mid + 1; else hi = mid;
+            }
+            trace[i] = lo;
+        }
+        return trace;
+    }
+}
@@ -0,0 +1,67 @@
+package vinodKPCBChallenge;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Compares the hashed bucket layout of FixedSizeHashMap with the original
+ * tree mode, in which a single bucket holds every node in one AVL tree.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LayoutBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    // "hashed" uses one bucket per slot, "tree" uses a single bucket
+    @Param({"hashed", "tree"})
+    private String layout;
+
+    private FixedSizeHashMap<Integer> map;
+    private String[] keys;
+    private String[] missing;
+    private int next;
+
+    // fill the map to capacity before each trial
+    @Setup
+    public void setup() {
+        this.map = new FixedSizeHashMap<Integer>(this.size, this.layout.equals("tree") ? 1 : this.size);
+        this.keys = new String[this.size];
+        this.missing = new String[this.size];
+        for (int i = 0; i < this.size; i++) {
+            this.keys[i] = "key_" + i;
+            this.missing[i] = "missing_" + i;
+            this.map.set(this.keys[i], i);
+        }
+        this.next = 0;
+    }
+
+    // returns the index of the next key to use, wrapping around at the end
+    private int nextIndex() {
+        int i = this.next;
+        this.next = (i + 1 == this.size) ? 0 : i + 1;
+        return i;
+    }
+
+    @Benchmark
+    public Integer getHit() {
+        return this.map.get(this.keys[this.nextIndex()]);
+    }
+
+    @Benchmark
+    public Integer getMiss() {
+        return this.map.get(this.missing[this.nextIndex()]);
+    }
+
+    // deletes a key and sets it again so the map stays full
+    @Benchmark
+    public boolean deleteThenSet() {
+        int i = this.nextIndex();
+        Integer value = this.map.delete(this.keys[i]);
+        return this.map.set(this.keys[i], value);
+    }
+}
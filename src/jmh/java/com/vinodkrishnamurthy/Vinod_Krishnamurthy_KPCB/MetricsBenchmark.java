@@ -0,0 +1,84 @@
+package vinodKPCBChallenge;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures the cost of the opt-in metrics of FixedSizeHashMap (see MapMetrics).
+ *
+ * Each nested class runs the same benchmarks in its own JVM: "CompiledOut"
+ * without -Dfixedsizehashmap.metrics, "Disabled" with the property but no
+ * metrics enabled on the map, and "Enabled" with metrics recording. CompiledOut
+ * should match a build without any hooks, so comparing it with Disabled and
+ * Enabled shows what the hooks cost. Run with "-prof perfasm" to check that the
+ * CompiledOut code has no trace of them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public abstract class MetricsBenchmark {
+    private static final int SIZE = 100000;
+
+    private FixedSizeHashMap<Integer> map;
+    private String[] keys;
+    private int next;
+
+    @Fork(1)
+    public static class CompiledOut extends MetricsBenchmark {
+    }
+
+    @Fork(value = 1, jvmArgsAppend = "-Dfixedsizehashmap.metrics=true")
+    public static class Disabled extends MetricsBenchmark {
+    }
+
+    @Fork(value = 1, jvmArgsAppend = "-Dfixedsizehashmap.metrics=true")
+    public static class Enabled extends MetricsBenchmark {
+        @Override
+        boolean enabled() {
+            return true;
+        }
+    }
+
+    // returns whether the map records metrics
+    boolean enabled() {
+        return false;
+    }
+
+    // fill the map to 75% before each trial
+    @Setup
+    public void setup() {
+        this.map = new FixedSizeHashMap<Integer>(SIZE);
+        if (this.enabled()) {
+            this.map.enableMetrics();
+        }
+        this.keys = new String[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            this.keys[i] = "key_" + i;
+            if (i < SIZE/4*3) this.map.set(this.keys[i], i);
+        }
+        this.next = 0;
+    }
+
+    // returns the index of the next key to use, wrapping around at the end
+    private int nextIndex() {
+        int i = this.next;
+        this.next = (i + 1 == SIZE) ? 0 : i + 1;
+        return i;
+    }
+
+    @Benchmark
+    public Integer get() {
+        return this.map.get(this.keys[this.nextIndex()]);
+    }
+
+    // deletes a key and sets it again, or sets a missing key and deletes it again
+    @Benchmark
+    public Integer deleteAndSet() {
+        int i = this.nextIndex();
+        Integer value = this.map.delete(this.keys[i]);
+        this.map.set(this.keys[i], i);
+        return (value != null) ? value : this.map.delete(this.keys[i]);
+    }
+}
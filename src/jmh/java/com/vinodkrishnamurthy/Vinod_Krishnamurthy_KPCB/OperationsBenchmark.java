@@ -0,0 +1,134 @@
+package vinodKPCBChallenge;
+
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * The baseline benchmark for the basic operations of FixedSizeHashMap, with
+ * java.util.HashMap as the reference.
+ *
+ * Each trial fills the map to the given load factor with the "present" keys
+ * and keeps an equal number of "absent" keys that are never stored. The keys
+ * each operation touches come from a precomputed uniform or Zipfian trace over
+ * those key sets. Write benchmarks undo their own change, so the load factor
+ * stays fixed for the whole trial. Select a subset of the parameter matrix
+ * with -p, for example "./gradlew jmh -Pjmh='Operations -p size=1000000'".
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class OperationsBenchmark {
+    private static final int TRACE = 1 << 20;
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    private int size;
+
+    @Param({"0.5", "0.75", "0.95"})
+    private float load;
+
+    @Param({"uniform", "zipf"})
+    private String distribution;
+
+    // "fixed" is FixedSizeHashMap, "hashmap" is java.util.HashMap
+    @Param({"fixed", "hashmap"})
+    private String map;
+
+    private FixedSizeHashMap<Integer> fixed_map;
+    private HashMap<String, Integer> hash_map;
+    private boolean fixed;
+    private String[] present;
+    private String[] absent;
+    private int[] trace;
+    private int next;
+
+    @Setup
+    public void setup() {
+        int count = (int)(this.size * this.load);
+        this.fixed = this.map.equals("fixed");
+        this.fixed_map = this.fixed ? new FixedSizeHashMap<Integer>(this.size) : null;
+        this.hash_map = this.fixed ? null : new HashMap<String, Integer>();
+        this.present = new String[count];
+        this.absent = new String[count];
+        for (int i = 0; i < count; i++) {
+            this.present[i] = "present_" + i;
+            this.absent[i] = "absent_" + i;
+            if (this.fixed) this.fixed_map.set(this.present[i], i);
+            else this.hash_map.put(this.present[i], i);
+        }
+        Random rand = new Random(42);
+        this.trace = this.distribution.equals("zipf")
+            ? KeyTraces.zipf(count, TRACE, 0.99, rand)
+            : KeyTraces.uniform(count, TRACE, rand);
+        this.next = 0;
+    }
+
+    // returns the rank of the next key in the trace
+    private int nextKey() {
+        int k = this.trace[this.next];
+        this.next = (this.next + 1) & (TRACE - 1);
+        return k;
+    }
+
+    @Benchmark
+    public Integer getHit() {
+        String key = this.present[this.nextKey()];
+        return this.fixed ? this.fixed_map.get(key) : this.hash_map.get(key);
+    }
+
+    @Benchmark
+    public Integer getMiss() {
+        String key = this.absent[this.nextKey()];
+        return this.fixed ? this.fixed_map.get(key) : this.hash_map.get(key);
+    }
+
+    // sets an absent key, then deletes it again
+    @Benchmark
+    public Integer set() {
+        int k = this.nextKey();
+        if (this.fixed) {
+            this.fixed_map.set(this.absent[k], k);
+            return this.fixed_map.delete(this.absent[k]);
+        }
+        this.hash_map.put(this.absent[k], k);
+        return this.hash_map.remove(this.absent[k]);
+    }
+
+    // deletes a present key, then sets it again
+    @Benchmark
+    public Integer delete() {
+        int k = this.nextKey();
+        if (this.fixed) {
+            Integer value = this.fixed_map.delete(this.present[k]);
+            this.fixed_map.set(this.present[k], value);
+            return value;
+        }
+        Integer value = this.hash_map.remove(this.present[k]);
+        this.hash_map.put(this.present[k], value);
+        return value;
+    }
+
+    // 80% hits, 10% misses, and 10% set/delete pairs
+    @Benchmark
+    public Integer mixed() {
+        int k = this.nextKey();
+        int choice = this.next % 10;
+        if (choice < 8) return this.getHitAt(k);
+        if (choice == 8) return this.fixed ? this.fixed_map.get(this.absent[k]) : this.hash_map.get(this.absent[k]);
+        if (this.fixed) {
+            this.fixed_map.set(this.absent[k], k);
+            return this.fixed_map.delete(this.absent[k]);
+        }
+        this.hash_map.put(this.absent[k], k);
+        return this.hash_map.remove(this.absent[k]);
+    }
+
+    // gets the present key of the given rank
+    private Integer getHitAt(int k) {
+        return this.fixed ? this.fixed_map.get(this.present[k]) : this.hash_map.get(this.present[k]);
+    }
+}
@@ -0,0 +1,92 @@
+package vinodKPCBChallenge;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Compares a boxed FixedSizeHashMap<Integer> counter map with the primitive
+ * variants. Run with the GC profiler ("-prof gc") to see the allocation rate:
+ * the boxed map allocates an Integer for most values, the primitive maps
+ * allocate nothing per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimitiveBenchmark {
+    private static final int SIZE = 1 << 16;
+
+    private FixedSizeHashMap<Integer> boxed_map;
+    private IntFixedSizeHashMap int_map;
+    private IntKeyFixedSizeHashMap<String> int_key_map;
+    private String[] keys;
+    private int next;
+
+    // fill half of each map, the other half of the keys are set and deleted
+    @Setup
+    public void setup() {
+        this.boxed_map = new FixedSizeHashMap<Integer>(SIZE);
+        this.int_map = new IntFixedSizeHashMap(SIZE);
+        this.int_key_map = new IntKeyFixedSizeHashMap<String>(SIZE);
+        this.keys = new String[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            this.keys[i] = "key_" + i;
+            if (i % 2 == 0) {
+                this.boxed_map.set(this.keys[i], i * 1000);
+                this.int_map.setInt(this.keys[i], i * 1000);
+                this.int_key_map.set(i, this.keys[i]);
+            }
+        }
+        this.next = 0;
+    }
+
+    // returns the index of the next key to use, wrapping around at the end
+    private int nextIndex() {
+        int i = this.next;
+        this.next = (i + 1) & (SIZE - 1);
+        return i;
+    }
+
+    @Benchmark
+    public int boxedGet() {
+        Integer value = this.boxed_map.get(this.keys[this.nextIndex() & ~1]);
+        return value;
+    }
+
+    @Benchmark
+    public int intGet() {
+        return this.int_map.getInt(this.keys[this.nextIndex() & ~1]);
+    }
+
+    @Benchmark
+    public String intKeyGet() {
+        return this.int_key_map.get(this.nextIndex() & ~1);
+    }
+
+    // values outside the Integer cache are boxed on every set
+    @Benchmark
+    public boolean boxedSetDelete() {
+        int i = this.nextIndex() | 1;
+        boolean result = this.boxed_map.set(this.keys[i], i * 1000);
+        this.boxed_map.delete(this.keys[i]);
+        return result;
+    }
+
+    @Benchmark
+    public boolean intSetDelete() {
+        int i = this.nextIndex() | 1;
+        boolean result = this.int_map.setInt(this.keys[i], i * 1000);
+        this.int_map.deleteInt(this.keys[i]);
+        return result;
+    }
+
+    @Benchmark
+    public boolean intKeySetDelete() {
+        int i = this.nextIndex() | 1;
+        boolean result = this.int_key_map.set(i, this.keys[i]);
+        this.int_key_map.delete(i);
+        return result;
+    }
+}
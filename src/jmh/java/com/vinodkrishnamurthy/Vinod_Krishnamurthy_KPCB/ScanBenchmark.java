@@ -0,0 +1,80 @@
+package vinodKPCBChallenge;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures a full scan of a full hash map with the cursor, forEach, a sequential
+ * stream, and a parallel stream, against HashMap.forEach. "buckets" 1 is tree mode,
+ * where the parallel stream has to split a single tree.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScanBenchmark {
+
+    @Param({"1000000"})
+    private int size;
+
+    // 0 means one bucket per slot
+    @Param({"0", "1"})
+    private int buckets;
+
+    private FixedSizeHashMap<Integer> map;
+    private HashMap<String, Integer> hash_map;
+
+    @Setup
+    public void setup() {
+        this.map = new FixedSizeHashMap<Integer>(this.size, (this.buckets == 0) ? this.size : this.buckets);
+        this.hash_map = new HashMap<String, Integer>();
+        for (int i = 0; i < this.size; i++) {
+            this.map.set("key_" + i, i);
+            this.hash_map.put("key_" + i, i);
+        }
+    }
+
+    @Benchmark
+    public long cursor() {
+        long sum = 0;
+        EntryCursor<Integer> cursor = this.map.cursor();
+        while (cursor.next()) {
+            sum += cursor.value();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public void forEach(final Blackhole hole) {
+        this.map.forEach(new BiConsumer<String, Integer>() {
+            public void accept(String key, Integer value) {
+                hole.consume(value);
+            }
+        });
+    }
+
+    @Benchmark
+    public long stream() {
+        return this.map.stream().mapToLong(Map.Entry::getValue).sum();
+    }
+
+    @Benchmark
+    public long parallelStream() {
+        return this.map.stream().parallel().mapToLong(Map.Entry::getValue).sum();
+    }
+
+    @Benchmark
+    public void hashMap(final Blackhole hole) {
+        this.hash_map.forEach(new BiConsumer<String, Integer>() {
+            public void accept(String key, Integer value) {
+                hole.consume(value);
+            }
+        });
+    }
+}
@@ -0,0 +1,117 @@
+package vinodKPCBChallenge;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * A local load generator for MapServer: each benchmark thread is a client with its
+ * own connection that sends one command and waits for its response. "pipelined" is
+ * the owner thread fed by the ring, "locked" applies each command under one lock
+ * around the map. Throughput mode gives requests per second, and sample mode gives
+ * the latency percentiles, p0.99 among them. 'direct' skips the sockets and calls
+ * submit, to measure the hand-off itself. Vary the clients with "-t", for example
+ * "./gradlew jmh -Pjmh='ServerBenchmark -t 64'".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(16)
+@Fork(1)
+public class ServerBenchmark {
+    private static final int SIZE = 1 << 20;
+
+    @Param({"pipelined", "locked"})
+    private String mode;
+
+    // percentage of commands that are gets, the rest are alternating sets and deletes
+    @Param({"90", "50"})
+    private int reads;
+
+    private MapServer server;
+    private String[] gets;
+    private String[] sets;
+    private String[] deletes;
+
+    // fill half of the map, the other half of the keys are set and deleted
+    @Setup
+    public void setup() throws IOException {
+        this.server = new MapServer(SIZE, 0, this.mode.equals("pipelined"));
+        this.gets = new String[SIZE];
+        this.sets = new String[SIZE];
+        this.deletes = new String[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            this.gets[i] = "GET key_" + i;
+            this.sets[i] = "SET key_" + i + " value_" + i;
+            this.deletes[i] = "DEL key_" + i;
+            if (i % 2 == 0) {
+                this.server.submit(this.sets[i]).join();
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        this.server.close();
+    }
+
+    /**
+     * The connection of one client thread
+     */
+    @State(Scope.Thread)
+    public static class Client {
+        private Socket socket;
+        private BufferedReader reader;
+        private BufferedWriter writer;
+        private boolean set;
+
+        @Setup
+        public void connect(ServerBenchmark benchmark) throws IOException {
+            this.socket = new Socket("localhost", benchmark.server.getPort());
+            this.socket.setTcpNoDelay(true);
+            this.reader = new BufferedReader(new InputStreamReader(this.socket.getInputStream(), StandardCharsets.UTF_8));
+            this.writer = new BufferedWriter(new OutputStreamWriter(this.socket.getOutputStream(), StandardCharsets.UTF_8));
+        }
+
+        @TearDown
+        public void disconnect() throws IOException {
+            this.socket.close();
+        }
+    }
+
+    /**
+     * Returns the next command: a get of a key that stays in the map, or a set or
+     * delete of one that comes and goes
+     */
+    private String command(Client client) {
+        ThreadLocalRandom rand = ThreadLocalRandom.current();
+        int i = rand.nextInt(SIZE);
+        if (rand.nextInt(100) < this.reads) {
+            return this.gets[i & ~1];
+        }
+        client.set = !client.set;
+        return client.set ? this.sets[i | 1] : this.deletes[i | 1];
+    }
+
+    @Benchmark
+    public String socket(Client client) throws IOException {
+        client.writer.write(this.command(client));
+        client.writer.newLine();
+        client.writer.flush();
+        return client.reader.readLine();
+    }
+
+    @Benchmark
+    public String direct(Client client) {
+        return this.server.submit(this.command(client)).join();
+    }
+}
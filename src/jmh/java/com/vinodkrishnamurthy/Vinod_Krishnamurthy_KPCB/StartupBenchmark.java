@@ -0,0 +1,59 @@
+package vinodKPCBChallenge;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Compares how long it takes to get a filled hash map ready after a restart:
+ * rebuilding a FixedSizeHashMap one set at a time, or opening a snapshot with
+ * OffHeapFixedSizeHashMap.open. Each measurement ends with one get, so it
+ * includes touching the mapping. The snapshot is written once per trial.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g", "-XX:MaxDirectMemorySize=8g"})
+public class StartupBenchmark {
+    @Param({"1000000", "10000000"})
+    private int entries;
+
+    private String[] keys;
+    private Path path;
+
+    @Setup
+    public void setup() throws IOException {
+        this.keys = new String[this.entries];
+        FixedSizeHashMap<Long> map = new FixedSizeHashMap<Long>(this.entries);
+        for (int i = 0; i < this.entries; i++) {
+            this.keys[i] = "key_" + i;
+            map.set(this.keys[i], (long)i);
+        }
+        this.path = Files.createTempFile("startup", ".snapshot");
+        map.snapshot(this.path, 16, ValueCodec.longs());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(this.path);
+    }
+
+    @Benchmark
+    public Long rebuild() {
+        FixedSizeHashMap<Long> map = new FixedSizeHashMap<Long>(this.entries);
+        for (int i = 0; i < this.entries; i++) {
+            map.set(this.keys[i], (long)i);
+        }
+        return map.get(this.keys[this.entries/2]);
+    }
+
+    @Benchmark
+    public Long open() throws IOException {
+        OffHeapFixedSizeHashMap<Long> map = OffHeapFixedSizeHashMap.open(this.path, ValueCodec.longs());
+        return map.get(this.keys[this.entries/2]);
+    }
+}
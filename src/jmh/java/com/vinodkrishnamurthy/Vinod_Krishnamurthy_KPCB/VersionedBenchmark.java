@@ -0,0 +1,88 @@
+package vinodKPCBChallenge;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures one writer and many readers sharing a map: VersionedFixedSizeHashMap
+ * against ConcurrentFixedSizeHashMap and a FixedSizeHashMap behind one lock. The
+ * writer sets and deletes keys while the readers get keys that stay in the map;
+ * JMH reports the throughput of each side. Change the number of readers with
+ * "./gradlew jmh -Pjmh='VersionedBenchmark -tg 1,31'".
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VersionedBenchmark {
+    private static final int SIZE = 1 << 20;
+
+    // "versioned" is VersionedFixedSizeHashMap, "striped" is ConcurrentFixedSizeHashMap,
+    // "locked" is one global lock
+    @Param({"versioned", "striped", "locked"})
+    private String map;
+
+    // 1 bucket is tree mode, where every write copies a path through the one tree
+    @Param({"1", "1048576"})
+    private int buckets;
+
+    private VersionedFixedSizeHashMap<Integer> versioned_map;
+    private ConcurrentFixedSizeHashMap<Integer> striped_map;
+    private FixedSizeHashMap<Integer> locked_map;
+    private String[] keys;
+
+    // fill half of the map, the other half of the keys are set and deleted
+    @Setup
+    public void setup() {
+        this.versioned_map = new VersionedFixedSizeHashMap<Integer>(SIZE, this.buckets);
+        this.striped_map = new ConcurrentFixedSizeHashMap<Integer>(SIZE);
+        this.locked_map = new FixedSizeHashMap<Integer>(SIZE, this.buckets);
+        this.keys = new String[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            this.keys[i] = "key_" + i;
+            if (i % 2 == 0) {
+                this.versioned_map.set(this.keys[i], i);
+                this.striped_map.set(this.keys[i], i);
+                this.locked_map.set(this.keys[i], i);
+            }
+        }
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public Object write() {
+        int i = ThreadLocalRandom.current().nextInt(SIZE) | 1;
+        if (this.map.equals("versioned")) {
+            this.versioned_map.set(this.keys[i], i);
+            return this.versioned_map.delete(this.keys[i]);
+        }
+        if (this.map.equals("striped")) {
+            this.striped_map.set(this.keys[i], i);
+            return this.striped_map.delete(this.keys[i]);
+        }
+        synchronized (this.locked_map) {
+            this.locked_map.set(this.keys[i], i);
+            return this.locked_map.delete(this.keys[i]);
+        }
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(7)
+    public Object read() {
+        int i = ThreadLocalRandom.current().nextInt(SIZE) & ~1;
+        if (this.map.equals("versioned")) {
+            return this.versioned_map.get(this.keys[i]);
+        }
+        if (this.map.equals("striped")) {
+            return this.striped_map.get(this.keys[i]);
+        }
+        synchronized (this.locked_map) {
+            return this.locked_map.get(this.keys[i]);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package vinodKPCBChallenge;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures the write throughput of DurableFixedSizeHashMap under each SyncPolicy,
+ * with a plain OffHeapFixedSizeHashMap as the upper bound. Each operation sets a
+ * key and deletes it again, so it appends two records to the log. The log is
+ * written to the default temporary directory, so point java.io.tmpdir at the disk
+ * being measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WalBenchmark {
+    private static final int SIZE = 100000;
+
+    // "none" has no log, "op" forces after every operation, "ops100" after every
+    // 100 operations, and "ms10" every 10 milliseconds
+    @Param({"none", "op", "ops100", "ms10"})
+    private String policy;
+
+    private OffHeapFixedSizeHashMap<Long> plain_map;
+    private DurableFixedSizeHashMap<Long> durable_map;
+    private Path directory;
+    private String[] keys;
+    private int next;
+
+    @Setup
+    public void setup() throws IOException {
+        this.keys = new String[SIZE];
+        for (int i = 0; i < SIZE; i++) this.keys[i] = "key_" + i;
+        if (this.policy.equals("none")) {
+            this.plain_map = new OffHeapFixedSizeHashMap<Long>(SIZE, 16, ValueCodec.longs());
+            return;
+        }
+        SyncPolicy sync = this.policy.equals("op") ? SyncPolicy.everyOperation()
+            : this.policy.equals("ops100") ? SyncPolicy.everyOperations(100)
+            : SyncPolicy.everyMillis(10);
+        this.directory = Files.createTempDirectory("wal_benchmark");
+        this.durable_map = DurableFixedSizeHashMap.open(this.directory, SIZE, 16, ValueCodec.longs(), sync);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (this.durable_map != null) {
+            this.durable_map.close();
+            for (File file : this.directory.toFile().listFiles()) Files.delete(file.toPath());
+            Files.delete(this.directory);
+        }
+    }
+
+    @Benchmark
+    public Long setThenDelete() throws IOException {
+        int i = this.next;
+        this.next = (i + 1 == SIZE) ? 0 : i + 1;
+        if (this.plain_map != null) {
+            this.plain_map.set(this.keys[i], (long)i);
+            return this.plain_map.delete(this.keys[i]);
+        }
+        this.durable_map.set(this.keys[i], (long)i);
+        return this.durable_map.delete(this.keys[i]);
+    }
+}
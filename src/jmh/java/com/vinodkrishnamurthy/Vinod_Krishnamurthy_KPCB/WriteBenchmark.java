@@ -0,0 +1,62 @@
+package vinodKPCBChallenge;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Compares duplicate-heavy and unique-key write workloads. The map is kept half
+ * full so that a duplicate write is rejected by the descent, not by the
+ * capacity check.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WriteBenchmark {
+    @Param({"1000", "1000000"})
+    private int size;
+
+    // percentage of writes that use a key already in the map
+    @Param({"0", "50", "90"})
+    private int duplicates;
+
+    private FixedSizeHashMap<Integer> map;
+    private String[] present;
+    private String[] absent;
+    private boolean[] duplicate;
+    private int next;
+
+    // fill half of the map and decide up front which writes are duplicates
+    @Setup
+    public void setup() {
+        int half = this.size/2;
+        this.map = new FixedSizeHashMap<Integer>(this.size);
+        this.present = new String[half];
+        this.absent = new String[half];
+        this.duplicate = new boolean[half];
+        java.util.Random rand = new java.util.Random(42);
+        for (int i = 0; i < half; i++) {
+            this.present[i] = "present_" + i;
+            this.absent[i] = "absent_" + i;
+            this.duplicate[i] = rand.nextInt(100) < this.duplicates;
+            this.map.set(this.present[i], i);
+        }
+        this.next = 0;
+    }
+
+    // a duplicate write is rejected, a unique write is set and then deleted so
+    // the map stays half full
+    @Benchmark
+    public boolean set() {
+        int i = this.next;
+        this.next = (i + 1 == this.present.length) ? 0 : i + 1;
+        if (this.duplicate[i]) {
+            return this.map.set(this.present[i], i);
+        }
+        boolean result = this.map.set(this.absent[i], i);
+        this.map.delete(this.absent[i]);
+        return result;
+    }
+}
@@ -0,0 +1,259 @@
+package vinodKPCBChallenge;
+
+/**
+ * The AVL tree machinery shared by the fixed-size hash maps.
+ *
+ * Every hash map keeps its nodes its own way: parallel arrays, packed longs, or
+ * records in a direct buffer. This class reaches them through Nodes, which reads and
+ * writes a node's links and height and a bucket's root, so every map links, unlinks,
+ * and rebalances its trees with the same code. The hot lookup paths never go through
+ * Nodes, only the changes to a tree do.
+ *
+ * As in FixedSizeTree, a caller walks down a tree comparing its own keys, recording
+ * each node it passes in its path stack, and then calls link or unlink.
+ */
+final class AvlTrees {
+
+    /**
+     * The links and heights of a hash map's nodes and the roots of its buckets. A link
+     * is a slot index, or -1 for no node, whatever the map stores in its place.
+     */
+    interface Nodes {
+        int left(int i);
+
+        int right(int i);
+
+        void setLeft(int i, int child);
+
+        void setRight(int i, int child);
+
+        /**
+         * Returns the height of the node at index i, which must be a node
+         */
+        int height(int i);
+
+        void setHeight(int i, int height);
+
+        /**
+         * Points the bucket at the node at index i (-1 for an empty bucket)
+         */
+        void setRoot(int bucket, int i);
+    }
+
+    //CONSTRUCTOR
+    private AvlTrees() {
+    }
+
+    //TREE UTILITIES
+    /**
+     * Hangs the node at new_index from the last of the depth nodes on the path, on
+     * the side given by the sign of cmp, and rebalances the path. The path must hold
+     * the nodes visited on the way down from the bucket's root. Rotations are counted
+     * in metrics unless it is null.
+     */
+    static void link(Nodes nodes, int[] path, int bucket, int depth, int cmp, int new_index, MapMetrics metrics) {
+        if (depth == 0) {
+            nodes.setRoot(bucket, new_index);
+        } else if (cmp < 0) {
+            nodes.setLeft(path[depth - 1], new_index);
+        } else {
+            nodes.setRight(path[depth - 1], new_index);
+        }
+        retrace(nodes, path, bucket, depth, metrics);
+    }
+
+    /**
+     * Unlinks the node at start_index from the bucket's tree and rebalances the tree.
+     * The first depth nodes of the path must be the node's ancestors, starting with
+     * the bucket's root. The caller frees the node's slot.
+     */
+    static void unlink(Nodes nodes, int[] path, int bucket, int depth, int start_index, MapMetrics metrics) {
+        int left_index = nodes.left(start_index);
+        int right_index = nodes.right(start_index);
+        int parent_index = (depth > 0) ? path[depth - 1] : -1;
+        //node has at most one child, give the node's parent its only child
+        if (left_index == -1 || right_index == -1) {
+            replaceChild(nodes, bucket, parent_index, start_index, (left_index != -1) ? left_index : right_index);
+        }
+        //node has two children, move the node's successor (smallest node in
+        //right subtree) into its place
+        else {
+            int node_depth = depth++;
+            int successor_index = right_index;
+            while (nodes.left(successor_index) != -1) {
+                path[depth++] = successor_index;
+                successor_index = nodes.left(successor_index);
+            }
+            //unlink the successor, its parent adopts its right child
+            if (successor_index == right_index) {
+                nodes.setRight(start_index, nodes.right(successor_index));
+            } else {
+                nodes.setLeft(path[depth - 1], nodes.right(successor_index));
+            }
+            //the successor takes over the removed node's links and height
+            nodes.setLeft(successor_index, nodes.left(start_index));
+            nodes.setRight(successor_index, nodes.right(start_index));
+            nodes.setHeight(successor_index, nodes.height(start_index));
+            path[node_depth] = successor_index;
+            replaceChild(nodes, bucket, parent_index, start_index, successor_index);
+        }
+        retrace(nodes, path, bucket, depth, metrics);
+    }
+
+    /**
+     * Walks back up the first depth nodes of the path, rebalancing each subtree and
+     * linking its new root into its parent. Stops early once a subtree keeps its
+     * old height, since nothing above it can have changed.
+     */
+    private static void retrace(Nodes nodes, int[] path, int bucket, int depth, MapMetrics metrics) {
+        for (int d = depth - 1; d >= 0; d--) {
+            int start_index = path[d];
+            int old_height = nodes.height(start_index);
+            int newstart_index = rebalance(nodes, start_index, metrics);
+            if (newstart_index != start_index) {
+                replaceChild(nodes, bucket, (d > 0) ? path[d - 1] : -1, start_index, newstart_index);
+            }
+            if (nodes.height(newstart_index) == old_height) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Points the link that held old_index at new_index. The link is the bucket itself
+     * when parent_index is -1, and otherwise one of the parent's children.
+     */
+    private static void replaceChild(Nodes nodes, int bucket, int parent_index, int old_index, int new_index) {
+        if (parent_index == -1) {
+            nodes.setRoot(bucket, new_index);
+        } else if (nodes.left(parent_index) == old_index) {
+            nodes.setLeft(parent_index, new_index);
+        } else {
+            nodes.setRight(parent_index, new_index);
+        }
+    }
+
+    /**
+     * Balances the AVL subtree using LL, LR, RL, and RR balance factors
+     */
+    private static int rebalance(Nodes nodes, int start_index, MapMetrics metrics) {
+        int newstart_index = start_index;
+        int rotation = rotationCase(nodes, start_index);
+        if (rotation != -1) {
+            if (MapMetrics.ENABLED && metrics != null) {
+                metrics.rotation(rotation);
+            }
+            newstart_index = rotate(nodes, start_index, rotation);
+        }
+        //update height if necessary
+        updateHeight(nodes, start_index);
+        return newstart_index;
+    }
+
+    //TREE ROTATIONS
+    /*
+     * VersionedFixedSizeHashMap calls the rotations directly, once it has copied the
+     * nodes a rotation moves.
+     */
+
+    /**
+     * Returns the rotation that balances the AVL subtree rooted by the node at
+     * start_index (MapMetrics.LL, LR, RL, or RR), or -1 if it is balanced. The
+     * heavy child's own balance picks the single or the double rotation.
+     */
+    static int rotationCase(Nodes nodes, int start_index) {
+        int balance = balanceFactor(nodes, start_index);
+        if (balance == 2) {
+            return (balanceFactor(nodes, nodes.left(start_index)) >= 0) ? MapMetrics.LL : MapMetrics.LR;
+        }
+        if (balance == -2) {
+            return (balanceFactor(nodes, nodes.right(start_index)) <= 0) ? MapMetrics.RR : MapMetrics.RL;
+        }
+        return -1;
+    }
+
+    /**
+     * Applies the given rotation case to the subtree rooted by the node at
+     * start_index and returns the new root of the subtree
+     */
+    static int rotate(Nodes nodes, int start_index, int rotation) {
+        switch (rotation) {
+            case MapMetrics.LL:
+                return rotateCaseLL(nodes, start_index);
+            case MapMetrics.LR:
+                nodes.setLeft(start_index, rotateCaseRR(nodes, nodes.left(start_index)));
+                return rotateCaseLL(nodes, start_index);
+            case MapMetrics.RL:
+                nodes.setRight(start_index, rotateCaseLL(nodes, nodes.right(start_index)));
+                return rotateCaseRR(nodes, start_index);
+            default:
+                return rotateCaseRR(nodes, start_index);
+        }
+    }
+
+    /**
+     * Updates the height of the node at index i from the heights of its children
+     */
+    static void updateHeight(Nodes nodes, int i) {
+        if (i != -1) {
+            nodes.setHeight(i, max(height(nodes, nodes.left(i)), height(nodes, nodes.right(i))) + 1);
+        }
+    }
+
+    /**
+     * Returns the balance factor (difference between node's left
+     * and right subtrees) of the subtree rooted by the node at index i
+     */
+    private static int balanceFactor(Nodes nodes, int i) {
+        return height(nodes, nodes.left(i)) - height(nodes, nodes.right(i));
+    }
+
+    /**
+     * Returns the height of the node at index i (-1 for no node)
+     */
+    private static int height(Nodes nodes, int i) {
+        return (i != -1) ? nodes.height(i) : -1;
+    }
+
+    /**
+     * left left rotation case
+     */
+    private static int rotateCaseLL(Nodes nodes, int start_index) {
+        int newstart_index = nodes.left(start_index);
+        if (newstart_index == -1) {
+            return start_index;
+        } else {
+            nodes.setLeft(start_index, nodes.right(newstart_index));
+            nodes.setRight(newstart_index, start_index);
+            //update heights
+            updateHeight(nodes, start_index);
+            updateHeight(nodes, newstart_index);
+            return newstart_index;
+        }
+    }
+
+    /**
+     * right right rotation case
+     */
+    private static int rotateCaseRR(Nodes nodes, int start_index) {
+        int newstart_index = nodes.right(start_index);
+        if (newstart_index == -1) {
+            return start_index;
+        } else {
+            nodes.setRight(start_index, nodes.left(newstart_index));
+            nodes.setLeft(newstart_index, start_index);
+            //update heights
+            updateHeight(nodes, start_index);
+            updateHeight(nodes, newstart_index);
+            return newstart_index;
+        }
+    }
+
+    //MISC UTILITIES
+    /**
+     * Returns the max of two integers
+     */
+    private static int max(int a, int b) {
+        return (a > b) ? a : b;
+    }
+}
@@ -0,0 +1,150 @@
+package vinodKPCBChallenge;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A reusable CharSequence over a scratch char array, used to look up keys that
+ * arrive as UTF-8 bytes without building a String for each one.
+ *
+ * Decoding into the same view again overwrites it, so a view belongs to one hash
+ * map and is only valid until its next lookup.
+ */
+final class CharView implements CharSequence {
+
+    //INSTANCE VARIABLES
+    /**
+     * The decoded chars
+     */
+    private char[] chars = new char[32];
+
+    /**
+     * The number of decoded chars
+     */
+    private int length;
+
+    /**
+     * The bytes of a ByteBuffer without a backing array, copied for decoding
+     */
+    private byte[] bytes = new byte[32];
+
+    //DECODING
+    /**
+     * Decodes length UTF-8 bytes starting at offset into this view and returns it.
+     * Malformed input decodes to the same chars as new String(bytes, UTF_8): a
+     * sequence cut short, an overlong form, an encoded surrogate, or a value past
+     * U+10FFFF becomes U+FFFD, so a key matches exactly the String it would equal.
+     */
+    CharView decode(byte[] source, int offset, int length) {
+        //UTF-8 never decodes to more chars than it has bytes
+        if (this.chars.length < length) {
+            this.chars = new char[Math.max(length, 2*this.chars.length)];
+        }
+        char[] chars = this.chars;
+        int n = 0;
+        int i = offset;
+        int end = offset + length;
+        bytes:
+        while (i < end) {
+            int b = source[i++] & 0xFF;
+            if (b < 0x80) {
+                chars[n++] = (char)b;
+                continue;
+            }
+            //the leading byte gives the number of continuation bytes, and the range
+            //of the first one, which rules out overlong forms and values past U+10FFFF
+            int continuations;
+            int code_point;
+            int low = 0x80;
+            int high = 0xBF;
+            if (b >= 0xC2 && b <= 0xDF) {
+                continuations = 1;
+                code_point = b & 0x1F;
+            } else if (b >= 0xE0 && b <= 0xEF) {
+                continuations = 2;
+                code_point = b & 0x0F;
+                if (b == 0xE0) low = 0xA0;
+            } else if (b >= 0xF0 && b <= 0xF4) {
+                continuations = 3;
+                code_point = b & 0x07;
+                if (b == 0xF0) low = 0x90;
+                if (b == 0xF4) high = 0x8F;
+            } else {
+                //a stray continuation byte, C0 and C1 (always overlong), or F5 to FF
+                chars[n++] = '\uFFFD';
+                continue;
+            }
+            for (int k = 0; k < continuations; k++) {
+                int c = (i < end) ? source[i] & 0xFF : -1;
+                if (c < low || c > high) {
+                    //the bytes so far become one U+FFFD, and c starts the next sequence
+                    chars[n++] = '\uFFFD';
+                    continue bytes;
+                }
+                code_point = (code_point << 6) | (c & 0x3F);
+                i++;
+                low = 0x80;
+                high = 0xBF;
+            }
+            if (code_point >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                chars[n++] = Character.highSurrogate(code_point);
+                chars[n++] = Character.lowSurrogate(code_point);
+            } else if (Character.isSurrogate((char)code_point)) {
+                chars[n++] = '\uFFFD';
+            } else {
+                chars[n++] = (char)code_point;
+            }
+        }
+        this.length = n;
+        return this;
+    }
+
+    /**
+     * Decodes the remaining UTF-8 bytes of a buffer into this view and returns it,
+     * without moving the buffer's position
+     */
+    CharView decode(ByteBuffer source) {
+        int length = source.remaining();
+        if (source.hasArray()) {
+            return this.decode(source.array(), source.arrayOffset() + source.position(), length);
+        }
+        if (this.bytes.length < length) {
+            this.bytes = new byte[Math.max(length, 2*this.bytes.length)];
+        }
+        for (int i = 0; i < length; i++) {
+            this.bytes[i] = source.get(source.position() + i);
+        }
+        return this.decode(this.bytes, 0, length);
+    }
+
+    /**
+     * Returns the hash code String.hashCode would give the decoded chars
+     */
+    int hash() {
+        int h = 0;
+        for (int i = 0; i < this.length; i++) {
+            h = 31*h + this.chars[i];
+        }
+        return h;
+    }
+
+    //CHARSEQUENCE METHODS
+    public int length() {
+        return this.length;
+    }
+
+    public char charAt(int index) {
+        if (index >= this.length) {
+            throw new IndexOutOfBoundsException("index " + index + ", length " + this.length);
+        }
+        return this.chars[index];
+    }
+
+    public CharSequence subSequence(int start, int end) {
+        return this.toString().substring(start, end);
+    }
+
+    @Override
+    public String toString() {
+        return new String(this.chars, 0, this.length);
+    }
+}
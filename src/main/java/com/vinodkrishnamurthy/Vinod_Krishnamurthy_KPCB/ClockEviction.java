@@ -0,0 +1,77 @@
+package vinodKPCBChallenge;
+
+/**
+ * Evicts with the CLOCK (second chance) algorithm.
+ *
+ * Two bitmaps mark which slots are in use and which have been read since the
+ * clock hand last passed them. The hand sweeps the slots in order: a slot that
+ * was read loses its reference bit and is spared, and the first slot in use
+ * without a reference bit is evicted. The sweep works on 64 slots at a time.
+ */
+public class ClockEviction implements EvictionPolicy {
+
+    //INSTANCE VARIABLES
+    /**
+     * One bit per slot, set while the slot holds an entry
+     */
+    private long[] active;
+
+    /**
+     * One bit per slot, set when the slot was read since the hand last passed it
+     */
+    private long[] referenced;
+
+    /**
+     * The number of slots
+     */
+    private int size;
+
+    /**
+     * The slot the clock hand points at
+     */
+    private int hand;
+
+    //METHODS
+    public void init(int size) {
+        if (this.active != null) {
+            throw new IllegalStateException("An eviction policy can only be used by one hash map.");
+        }
+        this.active = new long[(size + 63) >>> 6];
+        this.referenced = new long[(size + 63) >>> 6];
+        this.size = size;
+        this.hand = 0;
+    }
+
+    public void onInsert(int slot) {
+        this.active[slot >>> 6] |= 1L << slot;
+    }
+
+    public void onAccess(int slot) {
+        this.referenced[slot >>> 6] |= 1L << slot;
+    }
+
+    public void onRemove(int slot) {
+        this.active[slot >>> 6] &= ~(1L << slot);
+        this.referenced[slot >>> 6] &= ~(1L << slot);
+    }
+
+    public int victim() {
+        while (true) {
+            int word = this.hand >>> 6;
+            //the slots from the hand to the end of its word
+            long ahead = -1L << this.hand;
+            long candidates = this.active[word] & ~this.referenced[word] & ahead;
+            if (candidates != 0) {
+                int bit = Long.numberOfTrailingZeros(candidates);
+                //clear the reference bits the hand passed on its way
+                this.referenced[word] &= ~(ahead & ((1L << bit) - 1));
+                int victim = (word << 6) + bit;
+                this.hand = (victim + 1 < this.size) ? victim + 1 : 0;
+                return victim;
+            }
+            //every slot left in this word gets its second chance
+            this.referenced[word] &= ~ahead;
+            this.hand = ((word + 1) << 6 < this.size) ? (word + 1) << 6 : 0;
+        }
+    }
+}
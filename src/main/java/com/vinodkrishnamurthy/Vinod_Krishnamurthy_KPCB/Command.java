@@ -0,0 +1,119 @@
+package vinodKPCBChallenge;
+
+import java.util.Locale;
+
+/**
+ * One line of the text protocol shared by MapServer and the batch mode of Main:
+ *
+ *   SET key value   STORED, or NOT_STORED if the key is taken or the map is full
+ *   GET key         VALUE value, or NOT_FOUND
+ *   DEL key         DELETED value, or NOT_FOUND
+ *   LOAD            LOAD and the load factor
+ *
+ * Keys are single words. A value is the rest of the line after its key, so it may
+ * hold spaces. A line that is not a command gets ERROR and the reason. Numbers are
+ * written the same way whatever the default locale.
+ */
+final class Command {
+
+    //CONSTANTS
+    static final byte SET = 0;
+    static final byte GET = 1;
+    static final byte DELETE = 2;
+    static final byte LOAD = 3;
+    static final byte INVALID = 4;
+
+    //INSTANCE VARIABLES
+    /**
+     * The operation, and its key and value (null where the operation has none). An
+     * invalid command keeps the reason in value.
+     */
+    final byte op;
+    final String key;
+    final String value;
+
+    //CONSTRUCTOR
+    private Command(byte op, String key, String value) {
+        this.op = op;
+        this.key = key;
+        this.value = value;
+    }
+
+    /**
+     * Parses one line of the protocol. Never returns null; a malformed line gives an
+     * INVALID command.
+     */
+    static Command parse(String line) {
+        int end = line.length();
+        int start = skipSpaces(line, 0);
+        int name_end = nextSpace(line, start);
+        String name = line.substring(start, name_end).toUpperCase(Locale.ROOT);
+        int key_start = skipSpaces(line, name_end);
+        int key_end = nextSpace(line, key_start);
+        String key = (key_start < key_end) ? line.substring(key_start, key_end) : null;
+        int rest = skipSpaces(line, key_end);
+        switch (name) {
+            case "SET":
+                if (key == null || rest == end) {
+                    return invalid("SET needs a key and a value");
+                }
+                return new Command(SET, key, line.substring(rest));
+            case "GET":
+            case "DEL":
+                if (key == null || rest != end) {
+                    return invalid(name + " needs exactly one key");
+                }
+                return new Command(name.equals("GET") ? GET : DELETE, key, null);
+            case "LOAD":
+                if (key != null) {
+                    return invalid("LOAD takes no arguments");
+                }
+                return new Command(LOAD, null, null);
+            default:
+                return invalid("unknown command '" + name + "'");
+        }
+    }
+
+    /**
+     * Applies this command to a hash map and returns the response line
+     */
+    String apply(FixedSizeHashMap<String> map) {
+        switch (this.op) {
+            case SET:
+                return map.set(this.key, this.value) ? "STORED" : "NOT_STORED";
+            case GET: {
+                String value = map.get(this.key);
+                return (value != null) ? "VALUE " + value : "NOT_FOUND";
+            }
+            case DELETE: {
+                String value = map.delete(this.key);
+                return (value != null) ? "DELETED " + value : "NOT_FOUND";
+            }
+            case LOAD:
+                return String.format(Locale.ROOT, "LOAD %.3f", map.load());
+            default:
+                return "ERROR " + this.value;
+        }
+    }
+
+    //PARSING UTILITIES
+    private static Command invalid(String reason) {
+        return new Command(INVALID, null, reason);
+    }
+
+    /**
+     * Returns the index of the first character at or after i that is not a space
+     */
+    private static int skipSpaces(String line, int i) {
+        while (i < line.length() && line.charAt(i) == ' ') i++;
+        return i;
+    }
+
+    /**
+     * Returns the index of the first space at or after i (or the end of the line)
+     */
+    private static int nextSpace(String line, int i) {
+        while (i < line.length() && line.charAt(i) != ' ') i++;
+        return i;
+    }
+}
@@ -0,0 +1,335 @@
+package vinodKPCBChallenge;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size hash map of at most 65,535 slots with a compact node encoding.
+ *
+ * It uses the same bucket and AVL tree layout as FixedSizeHashMap, but since every
+ * slot index fits in 16 bits, a node's hash code and both of its child links are
+ * packed into one long:
+ *
+ *   bits 63-32   hash code
+ *   bits 31-16   left child (NONE for no child)
+ *   bits 15-0    right child (NONE for no child)
+ *
+ * A lookup reads one long per node it visits instead of three ints from three
+ * arrays. Heights stay in a byte[], which only the rebalancing reads, and buckets
+ * are 16-bit chars. A slot costs 19 bytes (plus its key and value) against 25 in
+ * FixedSizeHashMap, so many small maps fit in the caches together.
+ *
+ * Free slots are kept in a list threaded through the right links of the free nodes,
+ * after the slots that were never used, so taking or freeing a slot is O(1).
+ */
+
+public class CompactFixedSizeHashMap<T> {
+
+    //CONSTANTS
+    /**
+     * The largest size of a compact hash map
+     */
+    public static final int MAX_SIZE = 0xFFFF;
+
+    /**
+     * The link that points to no node
+     */
+    private static final int NONE = 0xFFFF;
+
+    /**
+     * A node word with no children
+     */
+    private static final long NO_CHILDREN = 0xFFFFFFFFL;
+
+    //INSTANCE VARIABLES
+    /**
+     * The hash code and child links of each node, packed as described above
+     */
+    private final long[] nodes;
+
+    /**
+     * The height of each node (-1 for an unused slot)
+     */
+    private final byte[] height;
+
+    /**
+     * The key and value held by each node (null for an unused slot)
+     */
+    private final String[] keys;
+    private final Object[] values;
+
+    /**
+     * The index of the root node of each bucket's AVL tree (NONE for an empty bucket)
+     */
+    private final char[] buckets;
+
+    /**
+     * The mask used to select a bucket from a hash code (number of buckets - 1)
+     */
+    private final int mask;
+
+    /**
+     * The explicit stack of node indices visited on the way down a tree
+     */
+    private final int[] path;
+
+    /**
+     * The size of the hash map and the number of elements in it
+     */
+    private final int size;
+    private int elements;
+
+    /**
+     * The number of slots that have ever been used, and the head of the list of
+     * slots freed since (NONE if it is empty)
+     */
+    private int used;
+    private int free;
+
+    /**
+     * The links and heights of the nodes and the buckets, as AvlTrees changes them.
+     * It translates NONE to and from the -1 AvlTrees uses for no node.
+     */
+    private final AvlTrees.Nodes links;
+
+    //CONSTRUCTORS
+    /**
+     * Creates an instance of a compact fixed-size hash map with one bucket per slot
+     * (rounded up to a power of two)
+     */
+    public CompactFixedSizeHashMap(int size) {
+        this(size, size);
+    }
+
+    /**
+     * Creates an instance of a compact fixed-size hash map with the given number of
+     * buckets (rounded up to a power of two, at most 65,536). A single bucket keeps
+     * every node in one AVL tree.
+     */
+    public CompactFixedSizeHashMap(int size, int buckets) {
+        if (size <= 0 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("The size of a compact hash map must be between 1 and " + MAX_SIZE + ".");
+        }
+        if (buckets <= 0 || buckets > MAX_SIZE + 1) {
+            throw new IllegalArgumentException("The number of buckets must be between 1 and " + (MAX_SIZE + 1) + ".");
+        }
+        int bucket_count = Integer.highestOneBit(buckets);
+        if (bucket_count != buckets) {
+            bucket_count <<= 1;
+        }
+        this.nodes = new long[size];
+        this.height = new byte[size];
+        Arrays.fill(this.height, (byte)-1);
+        this.keys = new String[size];
+        this.values = new Object[size];
+        this.buckets = new char[bucket_count];
+        Arrays.fill(this.buckets, (char)NONE);
+        this.mask = bucket_count - 1;
+        this.path = new int[FixedSizeTree.MAX_HEIGHT];
+        this.size = size;
+        this.elements = 0;
+        this.used = 0;
+        this.free = NONE;
+        this.links = new AvlTrees.Nodes() {
+            public int left(int i) {
+                int child = CompactFixedSizeHashMap.left(nodes[i]);
+                return (child != NONE) ? child : -1;
+            }
+
+            public int right(int i) {
+                int child = CompactFixedSizeHashMap.right(nodes[i]);
+                return (child != NONE) ? child : -1;
+            }
+
+            public void setLeft(int i, int child) {
+                nodes[i] = (nodes[i] & ~0xFFFF0000L) | ((long)(child & NONE) << 16);
+            }
+
+            public void setRight(int i, int child) {
+                nodes[i] = (nodes[i] & ~0xFFFFL) | (child & NONE);
+            }
+
+            public int height(int i) {
+                return height[i];
+            }
+
+            public void setHeight(int i, int height) {
+                CompactFixedSizeHashMap.this.height[i] = (byte)height;
+            }
+
+            public void setRoot(int bucket, int i) {
+                CompactFixedSizeHashMap.this.buckets[bucket] = (char)i;
+            }
+        };
+    }
+
+    //USER METHODS
+    /**
+     * Associates given key to a given value in this hash map.
+     * Returns a boolean indicating the success/failure of the operation.
+     */
+    public boolean set(String key, T value) {
+        if (value == null || this.elements == this.size) {
+            return false;
+        }
+        int hash = key.hashCode();
+        int bucket = this.bucket(hash);
+        int depth = 0;
+        int cmp = 0;
+        int start_index = this.buckets[bucket];
+        //walk down to the empty link where the key belongs
+        while (start_index != NONE) {
+            cmp = this.compare(hash, key, start_index);
+            if (cmp == 0) {
+                return false;
+            }
+            this.path[depth++] = start_index;
+            start_index = (cmp < 0) ? left(this.nodes[start_index]) : right(this.nodes[start_index]);
+        }
+        int new_index = this.takeSlot();
+        this.nodes[new_index] = ((long)hash << 32) | NO_CHILDREN;
+        this.height[new_index] = 0;
+        this.keys[new_index] = key;
+        this.values[new_index] = value;
+        this.elements++;
+        AvlTrees.link(this.links, this.path, bucket, depth, cmp, new_index, null);
+        return true;
+    }
+
+    /**
+     * Returns the value associated with a given key.
+     */
+    public T get(String key) {
+        int hash = key.hashCode();
+        int start_index = this.buckets[this.bucket(hash)];
+        while (start_index != NONE) {
+            long node = this.nodes[start_index];
+            int node_hash = (int)(node >>> 32);
+            if (hash == node_hash) {
+                int cmp = key.compareTo(this.keys[start_index]);
+                if (cmp == 0) {
+                    return (T) this.values[start_index];
+                }
+                start_index = (cmp < 0) ? left(node) : right(node);
+            } else {
+                start_index = (hash < node_hash) ? left(node) : right(node);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Deletes the entry with the given key from this hash map
+     *
+     * Also returns the keys associated value
+     */
+    public T delete(String key) {
+        int hash = key.hashCode();
+        int bucket = this.bucket(hash);
+        int depth = 0;
+        int start_index = this.buckets[bucket];
+        //walk down to the node to be removed
+        while (start_index != NONE) {
+            int cmp = this.compare(hash, key, start_index);
+            if (cmp == 0) {
+                T value = (T) this.values[start_index];
+                this.unlink(bucket, depth, start_index);
+                return value;
+            }
+            this.path[depth++] = start_index;
+            start_index = (cmp < 0) ? left(this.nodes[start_index]) : right(this.nodes[start_index]);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the load of this fixed-size hash map
+     */
+    public float load() {
+        return (float)this.elements/this.size;
+    }
+
+    /**
+     * Returns the size of the hashmap
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Returns the number of buckets in the hashmap
+     */
+    public int getBuckets() {
+        return this.buckets.length;
+    }
+
+    //NODE ENCODING
+    /**
+     * Returns the left child in a node word
+     */
+    private static int left(long node) {
+        return (int)(node >>> 16) & 0xFFFF;
+    }
+
+    /**
+     * Returns the right child in a node word
+     */
+    private static int right(long node) {
+        return (int)node & 0xFFFF;
+    }
+
+    /**
+     * Returns the hash code of the node at index i
+     */
+    private int hashAt(int i) {
+        return (int)(this.nodes[i] >>> 32);
+    }
+
+    //TREE UTILITIES
+    /**
+     * Returns the bucket selected by a hash code, folding the high bits into the low
+     * bits like FixedSizeTree.bucket
+     */
+    private int bucket(int hash) {
+        return (hash ^ (hash >>> 16)) & this.mask;
+    }
+
+    /**
+     * Compares a hash and key with the node at index i, by hash code first and then
+     * by key
+     */
+    private int compare(int hash, String key, int i) {
+        int node_hash = this.hashAt(i);
+        if (hash != node_hash) {
+            return (hash < node_hash) ? -1 : 1;
+        }
+        return key.compareTo(this.keys[i]);
+    }
+
+    /**
+     * Returns a free slot, reusing a freed one first
+     */
+    private int takeSlot() {
+        if (this.free != NONE) {
+            int slot = this.free;
+            this.free = right(this.nodes[slot]);
+            return slot;
+        }
+        return this.used++;
+    }
+
+    /**
+     * Unlinks the node at start_index from the bucket's tree, rebalances the tree,
+     * and frees the node's slot. The first depth nodes of the path must be the
+     * node's ancestors, starting with the bucket's root.
+     */
+    private void unlink(int bucket, int depth, int start_index) {
+        AvlTrees.unlink(this.links, this.path, bucket, depth, start_index, null);
+        //clean the removed node and put its slot on the free list
+        this.keys[start_index] = null;
+        this.values[start_index] = null;
+        this.height[start_index] = -1;
+        this.nodes[start_index] = (NO_CHILDREN & ~0xFFFFL) | this.free;
+        this.free = start_index;
+        this.elements--;
+    }
+}
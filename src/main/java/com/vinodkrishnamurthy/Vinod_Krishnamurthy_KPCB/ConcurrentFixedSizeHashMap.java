@@ -0,0 +1,184 @@
+package vinodKPCBChallenge;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * A thread-safe fixed-size hash map.
+ *
+ * The fixed capacity is split into segments, each of which is an independent
+ * FixedSizeHashMap guarded by its own StampedLock. The high bits of a key's hash
+ * code pick its segment (the low bits pick the bucket inside the segment), so
+ * threads working on different segments never wait for each other.
+ *
+ * Writes take their segment's write lock. Reads take no lock: get walks the
+ * segment under an optimistic stamp and only falls back to the read lock when a
+ * write to the same segment ran at the same time.
+ *
+ * The size is a hard limit on the whole hash map, but not a promise that every
+ * slot can be used: each segment holds a fixed share of it (size / segments,
+ * give or take one), and a set is refused as soon as its own segment is full.
+ * Keys spread over the segments by hash, never evenly, so some segment fills
+ * before the others and load() can be well below 1 when the first set is
+ * refused; the more segments, the wider the gap. Choose the size with that
+ * headroom in mind, or use fewer segments. load() itself is exact once writers
+ * are quiet.
+ */
+public class ConcurrentFixedSizeHashMap<T> {
+
+    //INSTANCE VARIABLES
+    /**
+     * The independent hash maps that share this hash map's capacity
+     */
+    private final FixedSizeHashMap<T>[] segments;
+
+    /**
+     * The lock that guards each segment
+     */
+    private final StampedLock[] locks;
+
+    /**
+     * The mask used to select a segment (number of segments - 1)
+     */
+    private final int segment_mask;
+
+    /**
+     * The size of the hash map
+     */
+    private final int size;
+
+    /**
+     * The number of elements in the hash map
+     */
+    private final AtomicInteger elements;
+
+    //CONSTRUCTORS
+    /**
+     * Creates an instance of a concurrent fixed-size hash map with four segments
+     * per available processor
+     */
+    public ConcurrentFixedSizeHashMap(int size) {
+        this(size, 4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates an instance of a concurrent fixed-size hash map with the given number
+     * of segments (rounded down to a power of two, and to at most one per slot)
+     */
+    public ConcurrentFixedSizeHashMap(int size, int segments) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("The size of the hash map must be a positive integer.");
+        }
+        if (segments <= 0) {
+            throw new IllegalArgumentException("The number of segments must be a positive integer.");
+        }
+        int count = Integer.highestOneBit(Math.min(Math.min(segments, size), 1 << 16));
+        //a generic array cannot be created directly; it only ever holds FixedSizeHashMap<T>
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        FixedSizeHashMap<T>[] segment_array = (FixedSizeHashMap<T>[]) new FixedSizeHashMap[count];
+        this.segments = segment_array;
+        this.locks = new StampedLock[count];
+        //spread the capacity as evenly as possible across the segments
+        for (int i = 0; i < count; i++) {
+            this.segments[i] = new FixedSizeHashMap<T>(size/count + ((i < size % count) ? 1 : 0));
+            this.locks[i] = new StampedLock();
+        }
+        this.segment_mask = count - 1;
+        this.size = size;
+        this.elements = new AtomicInteger();
+    }
+
+    //USER METHODS
+    /**
+     * Associates given key to a given value in this hash map.
+     * Returns a boolean indicating the success/failure of the operation.
+     */
+    public boolean set(String key, T value) {
+        int segment = this.segment(key.hashCode());
+        StampedLock lock = this.locks[segment];
+        long stamp = lock.writeLock();
+        try {
+            if (this.segments[segment].set(key, value)) {
+                this.elements.incrementAndGet();
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns the value associated with a given key.
+     */
+    public T get(String key) {
+        int segment = this.segment(key.hashCode());
+        StampedLock lock = this.locks[segment];
+        //try without locking first
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            T value = this.segments[segment].getOptimistic(key);
+            if (lock.validate(stamp)) {
+                return value;
+            }
+        }
+        //a write ran at the same time, read again under the read lock
+        stamp = lock.readLock();
+        try {
+            return this.segments[segment].get(key);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Deletes the entry with the given key from this hash map
+     *
+     * Also returns the keys associated value
+     */
+    public T delete(String key) {
+        int segment = this.segment(key.hashCode());
+        StampedLock lock = this.locks[segment];
+        long stamp = lock.writeLock();
+        try {
+            T value = this.segments[segment].delete(key);
+            if (value != null) {
+                this.elements.decrementAndGet();
+            }
+            return value;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns the load of this fixed-size hash map
+     */
+    public float load() {
+        return (float)this.elements.get()/this.size;
+    }
+
+    /**
+     * Returns the size of the hashmap (an upper bound: see the class comment on how
+     * each segment's share limits it)
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Returns the number of segments in the hashmap
+     */
+    public int getSegments() {
+        return this.segments.length;
+    }
+
+    //SEGMENT UTILITIES
+    /**
+     * Returns the segment selected by a hash code. The hash code is scrambled and
+     * its high bits are used, since the segment's own buckets use the low bits.
+     */
+    private int segment(int hash) {
+        return ((hash * 0x9E3779B9) >>> 16) & this.segment_mask;
+    }
+}
@@ -0,0 +1,278 @@
+package vinodKPCBChallenge;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A crash-safe OffHeapFixedSizeHashMap that keeps its state in a directory.
+ *
+ * Every successful set and delete is appended to a write-ahead log, which is forced
+ * to disk as the SyncPolicy allows. If the append fails, the change is undone
+ * before the exception is thrown. Once a write or force of the log has failed,
+ * the operation that saw it, and any not yet forced, may or may not have reached
+ * the disk: the log is fail-stop and refuses every later set, delete, sync, and
+ * compaction, and only reopening the directory shows which operations survived.
+ * Opening the directory maps the newest snapshot and replays the logs written
+ * after it. The directory holds:
+ *
+ *   snapshot-G   a snapshot holding the effect of every log numbered below G
+ *   log-N        the operations that came after log N - 1
+ *
+ * compact starts a new log and, on a background thread, replays the finished logs
+ * into a copy of the last snapshot, writes the next snapshot, and deletes the files
+ * it replaces. The copy is a second hash map of the same size, so compaction needs
+ * as much direct memory again. Every step leaves files that open can recover from.
+ *
+ * Like FixedSizeHashMap, this class is not thread-safe.
+ */
+
+public class DurableFixedSizeHashMap<T> {
+
+    //CONSTANTS
+    private static final String SNAPSHOT = "snapshot-";
+    private static final String LOG = "log-";
+
+    //INSTANCE VARIABLES
+    /**
+     * The directory holding the snapshots and logs
+     */
+    private final Path directory;
+
+    /**
+     * The hash map holding the current entries
+     */
+    private final OffHeapFixedSizeHashMap<T> map;
+
+    /**
+     * The size, key length, and codec of the hash map, used to build a snapshot
+     * when there is none yet
+     */
+    private final int size;
+    private final int max_key_length;
+    private final ValueCodec<T> codec;
+
+    /**
+     * The policy deciding when the log is forced
+     */
+    private final SyncPolicy policy;
+
+    /**
+     * The thread that compacts finished logs into snapshots, one at a time
+     */
+    private final ExecutorService compactor;
+
+    /**
+     * The log receiving new operations
+     */
+    private WriteAheadLog<T> log;
+
+    /**
+     * The number of the log receiving new operations
+     */
+    private long log_number;
+
+    /**
+     * The generation of the newest snapshot (0 if there is none). Only the
+     * compactor changes it once the hash map is open.
+     */
+    private volatile long snapshot_generation;
+
+    //CONSTRUCTOR
+    private DurableFixedSizeHashMap(Path directory, int size, int max_key_length, ValueCodec<T> codec,
+            SyncPolicy policy) throws IOException {
+        this.directory = directory;
+        this.size = size;
+        this.max_key_length = max_key_length;
+        this.codec = codec;
+        this.policy = policy;
+        Files.createDirectories(directory);
+        List<Long> snapshots = this.numbered(SNAPSHOT);
+        this.snapshot_generation = snapshots.isEmpty() ? 0 : snapshots.get(snapshots.size() - 1);
+        this.map = this.recover(this.snapshot_generation, Long.MAX_VALUE);
+        //files left behind by an interrupted compaction
+        for (long generation : snapshots) {
+            if (generation < this.snapshot_generation) {
+                Files.deleteIfExists(this.file(SNAPSHOT, generation));
+            }
+        }
+        List<Long> logs = this.numbered(LOG);
+        for (long number : logs) {
+            if (number < this.snapshot_generation) {
+                Files.deleteIfExists(this.file(LOG, number));
+            }
+        }
+        long last_log = logs.isEmpty() ? 0 : logs.get(logs.size() - 1);
+        this.log_number = Math.max(this.snapshot_generation, last_log + 1);
+        this.log = new WriteAheadLog<T>(this.file(LOG, this.log_number), codec, policy);
+        this.compactor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            public Thread newThread(Runnable task) {
+                Thread thread = new Thread(task, "fixed-size-hash-map-compactor");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Opens the hash map kept in the given directory, or creates an empty one of the
+     * given size for keys of at most max_key_length chars. A directory that already
+     * holds a snapshot keeps the size it was created with.
+     */
+    public static <T> DurableFixedSizeHashMap<T> open(Path directory, int size, int max_key_length,
+            ValueCodec<T> codec, SyncPolicy policy) throws IOException {
+        return new DurableFixedSizeHashMap<T>(directory, size, max_key_length, codec, policy);
+    }
+
+    //USER METHODS
+    /**
+     * Associates given key to a given value in this hash map, and logs the set.
+     * Returns a boolean indicating the success/failure of the operation.
+     */
+    public boolean set(String key, T value) throws IOException {
+        if (!this.map.set(key, value)) {
+            return false;
+        }
+        try {
+            this.log.append(WriteAheadLog.SET, key, value);
+        } catch (IOException | RuntimeException e) {
+            //the log refused the set, or failed and may or may not hold it
+            this.map.delete(key);
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the value associated with a given key.
+     */
+    public T get(String key) {
+        return this.map.get(key);
+    }
+
+    /**
+     * Deletes the entry with the given key from this hash map, and logs the delete
+     *
+     * Also returns the keys associated value
+     */
+    public T delete(String key) throws IOException {
+        T value = this.map.delete(key);
+        if (value != null) {
+            try {
+                this.log.append(WriteAheadLog.DELETE, key, null);
+            } catch (IOException | RuntimeException e) {
+                //the slot just freed takes the entry back
+                this.map.set(key, value);
+                throw e;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Returns the load of this fixed-size hash map
+     */
+    public float load() {
+        return this.map.load();
+    }
+
+    /**
+     * Forces every logged operation to disk, whatever the policy. If this throws,
+     * the operations since the last sync may or may not be on disk (see the class
+     * comment).
+     */
+    public void sync() throws IOException {
+        this.log.sync();
+    }
+
+    /**
+     * Starts a new log and compacts the finished ones into a new snapshot on a
+     * background thread. Returns a Future that completes once the snapshot is written
+     * and the files it replaces are deleted.
+     */
+    public Future<Void> compact() throws IOException {
+        this.log.close();
+        final long covered = ++this.log_number;
+        this.log = new WriteAheadLog<T>(this.file(LOG, covered), this.codec, this.policy);
+        return this.compactor.submit(new Callable<Void>() {
+            public Void call() throws IOException {
+                long previous = snapshot_generation;
+                recover(previous, covered).snapshot(file(SNAPSHOT, covered));
+                snapshot_generation = covered;
+                Files.deleteIfExists(file(SNAPSHOT, previous));
+                for (long number : numbered(LOG)) {
+                    if (number < covered) {
+                        Files.deleteIfExists(file(LOG, number));
+                    }
+                }
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Waits for a running compaction, then forces and closes the log
+     */
+    public void close() throws IOException {
+        this.compactor.shutdown();
+        try {
+            this.compactor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.log.close();
+    }
+
+    //FILE UTILITIES
+    /**
+     * Returns a hash map holding snapshot generation (or an empty one for generation 0)
+     * with every log numbered from generation up to, but not including, end replayed
+     * on top
+     */
+    private OffHeapFixedSizeHashMap<T> recover(long generation, long end) throws IOException {
+        OffHeapFixedSizeHashMap<T> map = (generation > 0)
+            ? OffHeapFixedSizeHashMap.open(this.file(SNAPSHOT, generation), this.codec)
+            : new OffHeapFixedSizeHashMap<T>(this.size, this.max_key_length, this.codec);
+        for (long number : this.numbered(LOG)) {
+            if (number >= generation && number < end) {
+                WriteAheadLog.replay(this.file(LOG, number), map, this.codec);
+            }
+        }
+        return map;
+    }
+
+    /**
+     * Returns the numbers of the files in the directory with the given prefix, in order
+     */
+    private List<Long> numbered(String prefix) throws IOException {
+        List<Long> numbers = new ArrayList<Long>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(this.directory, prefix + "*")) {
+            for (Path file : files) {
+                String suffix = file.getFileName().toString().substring(prefix.length());
+                //skip temporary files left by an interrupted snapshot
+                if (suffix.matches("[0-9]+")) {
+                    numbers.add(Long.parseLong(suffix));
+                }
+            }
+        }
+        Collections.sort(numbers);
+        return numbers;
+    }
+
+    /**
+     * Returns the file with the given prefix and number
+     */
+    private Path file(String prefix, long number) {
+        return this.directory.resolve(prefix + number);
+    }
+}
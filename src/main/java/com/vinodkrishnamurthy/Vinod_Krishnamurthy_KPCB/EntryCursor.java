@@ -0,0 +1,67 @@
+package vinodKPCBChallenge;
+
+/**
+ * A cursor over the entries of a FixedSizeHashMap (see FixedSizeHashMap.cursor).
+ *
+ * The cursor visits the buckets in order and the tree of each bucket in order,
+ * so in tree mode (a single bucket) the entries come in the order of their hash
+ * codes. Moving the cursor allocates nothing. The hash map must not change while
+ * the cursor is in use.
+ *
+ *   EntryCursor<T> cursor = map.cursor();
+ *   while (cursor.next()) {
+ *       use(cursor.key(), cursor.value());
+ *   }
+ */
+public final class EntryCursor<T> {
+
+    //INSTANCE VARIABLES
+    private final FixedSizeHashMap<T> map;
+    private final TreeWalk walk;
+
+    /**
+     * The index of the node the cursor is on (-1 before the first entry and after the last)
+     */
+    private int node;
+
+    //CONSTRUCTOR
+    EntryCursor(FixedSizeHashMap<T> map) {
+        this.map = map;
+        this.walk = new TreeWalk(map, 0, map.buckets.length);
+        this.node = -1;
+    }
+
+    //USER METHODS
+    /**
+     * Moves the cursor to the next entry. Returns false once there are no more.
+     */
+    public boolean next() {
+        this.node = this.walk.next();
+        return this.node != -1;
+    }
+
+    /**
+     * Returns the key of the entry the cursor is on
+     */
+    public String key() {
+        this.check();
+        return this.map.keys[this.node];
+    }
+
+    /**
+     * Returns the value of the entry the cursor is on
+     */
+    public T value() {
+        this.check();
+        return this.map.value(this.node);
+    }
+
+    /**
+     * Throws an IllegalStateException if the cursor is not on an entry
+     */
+    private void check() {
+        if (this.node == -1) {
+            throw new IllegalStateException("The cursor is not on an entry, call next first.");
+        }
+    }
+}
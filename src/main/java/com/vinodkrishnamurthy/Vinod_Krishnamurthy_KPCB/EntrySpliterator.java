@@ -0,0 +1,53 @@
+package vinodKPCBChallenge;
+
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A Spliterator over the entries of a FixedSizeHashMap that splits at bucket
+ * ranges and then at subtree boundaries, so a parallel stream can scan a large
+ * hash map, or a hash map in tree mode, on several threads.
+ */
+final class EntrySpliterator<T> implements Spliterator<Map.Entry<String, T>> {
+
+    //INSTANCE VARIABLES
+    private final FixedSizeHashMap<T> map;
+    private final TreeWalk walk;
+
+    //CONSTRUCTOR
+    EntrySpliterator(FixedSizeHashMap<T> map, TreeWalk walk) {
+        this.map = map;
+        this.walk = walk;
+    }
+
+    //SPLITERATOR METHODS
+    public boolean tryAdvance(Consumer<? super Map.Entry<String, T>> action) {
+        int node = this.walk.next();
+        if (node == -1) {
+            return false;
+        }
+        action.accept(new AbstractMap.SimpleImmutableEntry<String, T>(this.map.keys[node], this.map.value(node)));
+        return true;
+    }
+
+    public void forEachRemaining(Consumer<? super Map.Entry<String, T>> action) {
+        for (int node = this.walk.next(); node != -1; node = this.walk.next()) {
+            action.accept(new AbstractMap.SimpleImmutableEntry<String, T>(this.map.keys[node], this.map.value(node)));
+        }
+    }
+
+    public Spliterator<Map.Entry<String, T>> trySplit() {
+        TreeWalk prefix = this.walk.split();
+        return (prefix != null) ? new EntrySpliterator<T>(this.map, prefix) : null;
+    }
+
+    public long estimateSize() {
+        return this.walk.estimate();
+    }
+
+    public int characteristics() {
+        return Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL;
+    }
+}
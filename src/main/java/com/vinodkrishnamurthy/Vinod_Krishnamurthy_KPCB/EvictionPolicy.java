@@ -0,0 +1,36 @@
+package vinodKPCBChallenge;
+
+/**
+ * Chooses which entry a full FixedSizeHashMap evicts to make room for a new one.
+ *
+ * A policy works on slot indices, so it can keep its bookkeeping in primitive
+ * arrays sized to the hash map and never allocate per operation. Each policy
+ * instance belongs to a single hash map, which calls init once with its size
+ * and then reports every insertion, hit, and removal.
+ */
+public interface EvictionPolicy {
+    /**
+     * Sizes the policy for a hash map with the given number of slots
+     */
+    void init(int size);
+
+    /**
+     * Records that a new entry was stored in the slot
+     */
+    void onInsert(int slot);
+
+    /**
+     * Records that the entry in the slot was read
+     */
+    void onAccess(int slot);
+
+    /**
+     * Records that the entry in the slot was deleted or evicted
+     */
+    void onRemove(int slot);
+
+    /**
+     * Returns the slot of the entry to evict. Only called when every slot is in use.
+     */
+    int victim();
+}
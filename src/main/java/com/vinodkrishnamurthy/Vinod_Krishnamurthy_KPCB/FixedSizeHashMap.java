@@ -1,112 +1,193 @@
 package vinodKPCBChallenge;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 /**
  * Here is my implementation of a fixed-size hash map.
  *
- * The hash map is an array of Nodes. Each node is the root node of an AVL binary
- * search tree. This implementation is faster than the traditional implementation
- * with linked lists because binary search trees will have a runtime of O(log n)
- * for search, insertion, and deletion operations when collisions occur. The hash map
- * is designed to support those functions. Since this implementation is of a
+ * The hash map is an array of buckets. The hash code of a key selects a bucket, and
+ * each bucket holds the index of the root node of an AVL binary search tree. A bucket
+ * that has seen no collisions holds a single leaf, so search, insertion, and deletion
+ * touch one node. A hash map created with a single bucket keeps every node in one
+ * AVL tree (the original tree mode).
+ *
+ * This implementation is faster than the traditional implementation with linked
+ * lists because binary search trees will have a runtime of O(log n) for search,
+ * insertion, and deletion operations when collisions occur. The hash map is
+ * designed to support those functions. Since this implementation is of a
  * fixed-size hash map, collisions will occur quite often. Generally, hash maps have
- * a default load factor of 0.75 at which they double in size, so a fixed size 
+ * a default load factor of 0.75 at which they double in size, so a fixed size
  * hash map must focus on efficiently accounting for collisions.
+ *
+ * A hash map created with an EvictionPolicy works as a fixed-memory cache: a set
+ * into a full hash map evicts the entry the policy picks and reuses its slot,
+ * instead of failing. Such a hash map also counts its hits, misses, and evictions.
+ *
+ * Detailed metrics (operation counts, probe lengths, rotations, and latencies) are
+ * opt-in, see MapMetrics.
+ *
+ * The entries can be scanned with cursor, forEach, or stream, which walk the trees
+ * of the buckets in order. In tree mode the entries come in the order of their
+ * hash codes. A scan does not count hits or touch the eviction policy.
  */
 
-public class FixedSizeHashMap<T> {
-    
-    //NODE CLASS
+public class FixedSizeHashMap<T> extends StringKeyedTree {
+
+    //CONSTANTS
     /**
-     * A private class that defines a Node.
+     * Returned by locate for a new key that does not fit (the complement of no index)
      */
-    private final class Node<T> {
-        //INSTANCE VARIABLES
-     
-        // The key held by this node
-        private int key;
+    private static final int FULL = Integer.MIN_VALUE;
 
-        // The value held by this node
-        private T value;
-
-        // The height of this node
-        private int height;
+    //INSTANCE VARIABLES
+    /**
+     * The value held by each node (null for an unused slot)
+     */
+    private Object[] values;
 
-        // The index of this node's left child
+    /**
+     * The policy that picks entries to evict when the hash map is full (null if
+     * a set into a full hash map should fail)
+     */
+    private final EvictionPolicy policy;
 
-        private int left;
+    /**
+     * The scratch view that byte keys are decoded into (created on first use)
+     */
+    private CharView scratch;
 
-        // The index of this node's right child
-        private int right;
+    /**
+     * The number of gets that found their key, counted only with an eviction policy
+     */
+    private long hits;
 
-        //CONSTRUCTOR
-        /**
-         * Creates an empty node, with all fields set to either -1 or null.
-         */
-        private Node() {
-            this.reset();
-        }
+    /**
+     * The number of gets that did not find their key, counted only with an eviction policy
+     */
+    private long misses;
 
-        //METHODS
-        /**
-         * Resets all fields of this node to their original value (-1 or null)
-         */
-        private void reset() {
-            this.key = -1;
-            this.value = null;
-            this.height = -1;
-            this.left = -1;
-            this.right = -1;
-        }
-    }
+    /**
+     * The number of entries evicted to make room for new ones
+     */
+    private long evictions;
 
-    //INSTANCE VARIABLES
+    //CONSTRUCTORS
     /**
-     * The array that holds all of this hash map's nodes
+     * Creates an instance of a fixed-size hash map with one bucket per slot
+     * (rounded up to a power of two)
      */
-    private Node[] tree;
-    
+    public FixedSizeHashMap(int size) {
+        this(size, size);
+    }
+
     /**
-     * The byte array used to mark active nodes
+     * Creates an instance of a fixed-size hash map with the given number of buckets
+     * (rounded up to a power of two). A single bucket keeps every node in one AVL tree.
      */
-    private byte[] bitmap;
-    
+    public FixedSizeHashMap(int size, int buckets) {
+        this(size, buckets, null);
+    }
+
     /**
-     * The index of the root node of the hash map
+     * Creates an instance of a fixed-size hash map with the given number of buckets
+     * that evicts entries with the given policy once it is full. The policy must
+     * not be shared with another hash map.
      */
-    private int root_index;
-    
+    public FixedSizeHashMap(int size, int buckets, EvictionPolicy policy) {
+        this(size, buckets, policy, null);
+    }
+
     /**
-     * The index of the node most recently deleted from the tree
+     * Creates an instance of a fixed-size hash map with one bucket per slot that
+     * hashes its keys with the given hasher (see KeyHasher)
      */
-    private int delete_index;
-    
+    public FixedSizeHashMap(int size, KeyHasher hasher) {
+        this(size, size, null, hasher);
+    }
+
     /**
-     * The size of the hash map
+     * Creates an instance of a fixed-size hash map with the given number of buckets,
+     * eviction policy (null to refuse sets into a full hash map), and key hasher
+     * (null for String.hashCode)
      */
-    private final int size;
-    
+    public FixedSizeHashMap(int size, int buckets, EvictionPolicy policy, KeyHasher hasher) {
+        super(size, buckets, hasher);
+        this.values = new Object[this.hashes.length];
+        this.policy = policy;
+        if (policy != null) {
+            policy.init(size);
+        }
+    }
+
     /**
-     * The number of elements in the hash map
+     * Returns a new hash map with one bucket per key that associates each of the given
+     * keys with the value at the same position. The first of several equal keys wins,
+     * as with set. See build(int, int, String[], T[]).
      */
-    private int elements;
+    public static <T> FixedSizeHashMap<T> build(String[] keys, T[] values) {
+        return build(Math.max(keys.length, 1), Math.max(keys.length, 1), keys, values);
+    }
 
-    //CONSTRUCTOR
     /**
-     * Creates an instance of a fixed-size hash map
-     * The root index is set to -1 and the number of elements is set to 0
+     * Returns a new hash map of the given size and number of buckets that associates
+     * each of the given keys with the value at the same position. The first of
+     * several equal keys wins, as with set.
+     *
+     * The map is built on the ForkJoin pool: the keys are hashed and sorted with
+     * Arrays.parallelSort, duplicates are dropped in one pass, and each bucket's
+     * tree (or the single tree, in tree mode) is built perfectly balanced by tasks
+     * writing disjoint slots, without any rotations. The result is an ordinary
+     * hash map that later sets and deletes change as usual.
+     *
+     * Throws an IllegalArgumentException if the arrays differ in length, a value is
+     * null, or there are more distinct keys than the size.
      */
-    public FixedSizeHashMap(int size) {
-        if (size > 0) {
-            this.tree = new Node[size];
-            for (int i = 0; i < size; i++) this.tree[i] = new Node();
-            this.bitmap = new byte[size/8 + 1];
-            this.root_index = -1;
-            this.delete_index = -1;
-            this.size = size;
-            this.elements = 0;
-        } else {
-            throw new IllegalArgumentException("The size of the hash map must be a positive integer.");
+    public static <T> FixedSizeHashMap<T> build(int size, int buckets, final String[] keys, final T[] values) {
+        if (keys.length != values.length) {
+            throw new IllegalArgumentException("There must be as many values as keys.");
+        }
+        final FixedSizeHashMap<T> map = new FixedSizeHashMap<T>(size, buckets);
+        map.reserve(keys.length);
+        final int[] batch_hashes = new int[keys.length];
+        final int[] order = map.sortBatch(keys, batch_hashes, true);
+        //keep the first of each run of equal keys, in tree order
+        int count = 0;
+        for (int j = 0; j < order.length; j++) {
+            int i = order[j];
+            if (values[i] == null) {
+                throw new IllegalArgumentException("The value of key " + keys[i] + " is null.");
+            }
+            if (j == 0 || !isDuplicate(keys, batch_hashes, order[count - 1], i)) {
+                order[count++] = i;
+            }
         }
+        if (count > size) {
+            throw new IllegalArgumentException("There are " + count + " distinct keys, more than the size of "
+                + size + ".");
+        }
+        IntStream.range(0, count).parallel().forEach(new IntConsumer() {
+            public void accept(int slot) {
+                int i = order[slot];
+                map.hashes[slot] = batch_hashes[i];
+                map.keys[slot] = keys[i];
+                map.values[slot] = values[i];
+            }
+        });
+        map.buildBucketsParallel(count);
+        return map;
     }
 
     //USER METHODS
@@ -115,345 +196,742 @@ public class FixedSizeHashMap<T> {
      * Returns a boolean indicating the success/failure of the operation.
      */
     public boolean set(String key, T value) {
-        if (this.elements < this.size && value != null) {
-            int new_index = this.getAvailableNode();
-            this.tree[new_index].key = key.hashCode();
-            this.tree[new_index].value = value;
-            this.tree[new_index].height = 0;
-            try {
-                //throws an IllegalArgumentException if the key is already used
-                this.root_index = this.insert(new_index, this.root_index);
-                this.bitFlip(new_index);
-                this.elements++;
-                return true;
-            } catch (ArrayIndexOutOfBoundsException e) {
-                e.printStackTrace();
-                System.out.printf("%d    %d", new_index, this.root_index);
-                return false;
-            } catch (IllegalArgumentException e) {
-                //reset node and return false
-                this.tree[new_index].reset();
+        if (MapMetrics.ENABLED && this.metrics != null) {
+            long start = System.nanoTime();
+            boolean stored = this.setEntry(key, value);
+            this.metrics.set(System.nanoTime() - start);
+            return stored;
+        }
+        return this.setEntry(key, value);
+    }
+
+    /**
+     * Does the work of set
+     */
+    private boolean setEntry(String key, T value) {
+        if (value == null) {
+            return false;
+        }
+        int hash = this.hash(key);
+        if (this.elements == this.size) {
+            //make room for a new key in eviction mode, otherwise give up
+            if (this.policy == null || this.find(hash, key) != -1) {
+                if (MapMetrics.ENABLED && this.metrics != null) {
+                    if (this.policy == null) this.metrics.full(); else this.metrics.duplicate();
+                }
                 return false;
             }
-        } else {
-            return false;
+            this.evict();
+        }
+        //a negative index means the key is already used
+        int node_index = this.insert(this.bucket(hash), hash, key);
+        if (node_index >= 0) {
+            this.values[node_index] = value;
+            if (this.policy != null) {
+                this.policy.onInsert(node_index);
+            }
+            return true;
+        }
+        if (MapMetrics.ENABLED && this.metrics != null) {
+            this.metrics.duplicate();
         }
+        return false;
     }
 
     /**
      * Returns the value associated with a given key.
      */
     public T get(String key) {
-        if (this.elements > 0 && this.root_index != -1) {
-            //get the index of the node with the given string
-            int node_index = this.find(key.hashCode(), this.root_index);
-            return (node_index != -1) ? (T) this.tree[node_index].value : null;
+        if (MapMetrics.ENABLED && this.metrics != null) {
+            long start = System.nanoTime();
+            T value = this.getEntry(key);
+            this.metrics.get(value != null, System.nanoTime() - start);
+            return value;
+        }
+        return this.getEntry(key);
+    }
+
+    /**
+     * Returns the value associated with the key made of the given chars, without
+     * building a String.
+     */
+    public T get(CharSequence key) {
+        if (key instanceof String) {
+            return this.get((String)key);
+        }
+        if (MapMetrics.ENABLED && this.metrics != null) {
+            long start = System.nanoTime();
+            T value = this.getEntry(key);
+            this.metrics.get(value != null, System.nanoTime() - start);
+            return value;
+        }
+        return this.getEntry(key);
+    }
+
+    /**
+     * Returns the value associated with the key encoded by length UTF-8 bytes
+     * starting at offset. The bytes are decoded into a scratch buffer that this
+     * hash map reuses, so no String is built, but the hash map must not be read
+     * from several threads at once.
+     */
+    public T get(byte[] bytes, int offset, int length) {
+        return this.get(this.scratch().decode(bytes, offset, length));
+    }
+
+    /**
+     * Returns the value associated with the key encoded by the remaining UTF-8 bytes
+     * of the buffer, without moving its position. See get(byte[], int, int).
+     */
+    public T get(ByteBuffer key) {
+        return this.get(this.scratch().decode(key));
+    }
+
+    /**
+     * Returns the scratch view for decoding byte keys
+     */
+    private CharView scratch() {
+        if (this.scratch == null) {
+            this.scratch = new CharView();
+        }
+        return this.scratch;
+    }
+
+    /**
+     * Does the work of get
+     */
+    private T getEntry(String key) {
+        //get the index of the node with the given string
+        return this.valueAt((this.elements > 0) ? this.find(this.hash(key), key) : -1);
+    }
+
+    /**
+     * Does the work of get for a key that is not a String
+     */
+    private T getEntry(CharSequence key) {
+        int hash;
+        if (this.hasher != null) {
+            hash = this.hasher.hash(key);
         } else {
-            return null;
+            hash = (key instanceof CharView) ? ((CharView)key).hash() : KeyHashers.JDK.hash(key);
         }
+        return this.valueAt((this.elements > 0) ? this.find(hash, key) : -1);
     }
 
     /**
-     * Deletes the entry with the given key from this hash map
-     *
-     * Also returns the keys associated value
+     * Returns the value of the node at node_index (null for -1), counting the hit
+     * or miss in eviction mode
      */
-    public T delete(String key) {
-        if (this.elements > 0 && this.root_index != -1) {
-            //attempt to remove the node with key from the implicit tree
-            this.root_index = this.remove(key.hashCode(), this.root_index);
-            //this.delete_index will hold the index of the node that should be delted
-            if (this.delete_index != -1) {
-                //save the return value
-                T node_String = (T) this.tree[delete_index].value;
-                //clean the deleted node and mark as inactive
-                this.tree[this.delete_index].reset();
-                this.bitFlip(this.delete_index);
-                this.delete_index = -1;
-                this.elements--;
-                return node_String;
+    private T valueAt(int node_index) {
+        if (this.policy != null) {
+            if (node_index != -1) {
+                this.hits++;
+                this.policy.onAccess(node_index);
             } else {
-                return null;
+                this.misses++;
+            }
+        }
+        return (node_index != -1) ? (T) this.values[node_index] : null;
+    }
+
+    /**
+     * Associates each of the given keys with the value at the same position.
+     * Returns a bitmap with bit i set if keys[i] was stored. The hash map ends up
+     * as if set(keys[i], values[i]) had been called for each i in order, and the
+     * bitmap holds the results those calls would have given.
+     *
+     * The batch is hashed and sorted once. When the hash map is empty and every
+     * entry fits, each bucket's tree is built directly from the sorted run without
+     * any rotations. When the batch fits in the free slots and nothing is evicted,
+     * the entries are set in sorted order, so that consecutive sets walk
+     * neighbouring parts of the hash map; the order cannot change the outcome then.
+     * Otherwise, where a full hash map or an eviction policy makes the order matter,
+     * the entries are set in the order given.
+     */
+    public BitSet setAll(String[] keys, T[] values) {
+        BitSet result = new BitSet(keys.length);
+        this.reserve(this.elements + keys.length);
+        int[] batch_hashes = new int[keys.length];
+        int[] order = this.sortBatch(keys, batch_hashes, false);
+        int count = this.countNew(keys, values, batch_hashes, order);
+        if (this.elements == 0 && count <= this.size) {
+            //keep the first of each run of equal keys, in tree order
+            int[] slots = (this.policy != null) ? new int[keys.length] : null;
+            count = 0;
+            for (int j = 0; j < order.length; j++) {
+                int i = order[j];
+                if (j > 0 && isDuplicate(keys, batch_hashes, order[j - 1], i)) {
+                    continue;
+                }
+                this.hashes[count] = batch_hashes[i];
+                this.keys[count] = keys[i];
+                this.values[count] = values[i];
+                result.set(i);
+                if (slots != null) {
+                    slots[i] = count;
+                }
+                count++;
+            }
+            this.buildBuckets(count);
+            //the policy sees the inserts in the order given
+            if (slots != null) {
+                for (int i = result.nextSetBit(0); i >= 0; i = result.nextSetBit(i + 1)) {
+                    this.policy.onInsert(slots[i]);
+                }
+            }
+        } else if (this.policy == null && count <= this.size - this.elements) {
+            for (int i : order) {
+                if (this.set(keys[i], values[i])) {
+                    result.set(i);
+                }
             }
         } else {
-            return null;
+            for (int i = 0; i < keys.length; i++) {
+                if (this.set(keys[i], values[i])) {
+                    result.set(i);
+                }
+            }
         }
+        return result;
     }
 
     /**
-     * Returns the load of this fixed-size hash map
+     * Stores the value associated with each of the given keys at the same position
+     * of out (null if there is none). Returns a bitmap with bit i set if keys[i]
+     * was found.
      */
-    public float load() {
-        return (float)this.elements/this.size;
+    public BitSet getAll(String[] keys, T[] out) {
+        BitSet result = new BitSet(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            out[i] = this.get(keys[i]);
+            if (out[i] != null) {
+                result.set(i);
+            }
+        }
+        return result;
     }
 
     /**
-     * Returns the size of the hashmap
+     * Deletes the entries with the given keys from this hash map. Returns a bitmap
+     * with bit i set if keys[i] was deleted.
      */
-    public int getSize() {
-        return this.size;
+    public BitSet deleteAll(String[] keys) {
+        BitSet result = new BitSet(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            if (this.delete(keys[i]) != null) {
+                result.set(i);
+            }
+        }
+        return result;
     }
 
-    //TREE UTILITIES
     /**
-     * Traverses the subtree that is rooted by start_index and inserts a new node at
-     * the specified new index
+     * Returns the number of distinct keys in a sorted batch, or Integer.MAX_VALUE if
+     * the batch holds a null value, which set would refuse
      */
-    private int insert(int new_index, int start_index) throws IllegalArgumentException {
-        //insert at start_index if start_index isn't actually part of the implicit tree
-        if (start_index == -1) {
-            return new_index;
+    private int countNew(String[] keys, T[] values, int[] batch_hashes, int[] order) {
+        int count = 0;
+        for (int j = 0; j < order.length; j++) {
+            if (values[order[j]] == null) {
+                return Integer.MAX_VALUE;
+            }
+            if (j == 0 || !isDuplicate(keys, batch_hashes, order[j - 1], order[j])) {
+                count++;
+            }
         }
-        //insert into left subtree
-        else if (this.tree[new_index].key < this.tree[start_index].key) {
-            this.tree[start_index].left = this.insert(new_index, this.tree[start_index].left);
+        return count;
+    }
+
+    /**
+     * Returns whether batch entries a and b have the same key
+     */
+    private static boolean isDuplicate(String[] keys, int[] batch_hashes, int a, int b) {
+        return batch_hashes[a] == batch_hashes[b] && keys[a].equals(keys[b]);
+    }
+
+    /**
+     * Writes a snapshot of this hash map to the given file, storing each value with
+     * the given codec. Every slot record has room for a key of max_key_length chars,
+     * as in an OffHeapFixedSizeHashMap created with that bound, and the opened
+     * snapshot accepts keys up to that length. Throws an IllegalArgumentException,
+     * before writing anything, if a key is longer.
+     *
+     * OffHeapFixedSizeHashMap.open maps the snapshot back in as it is, without
+     * re-inserting anything. The file is replaced atomically. Only a hash map using
+     * the JDK hash can be snapshotted, since an opened snapshot looks its keys up
+     * with String.hashCode.
+     */
+    public void snapshot(Path path, int max_key_length, final ValueCodec<T> codec) throws IOException {
+        if (this.hasher != null) {
+            throw new IllegalStateException("Only a hash map using the JDK hash can be snapshotted.");
         }
-        //insert into right subtree
-        else if (this.tree[new_index].key > this.tree[start_index].key) {
-            this.tree[start_index].right = this.insert(new_index, this.tree[start_index].right);
+        for (String key : this.keys) {
+            if (key != null && key.length() > max_key_length) {
+                throw new IllegalArgumentException("The key is longer than " + max_key_length + " chars.");
+            }
+        }
+        final SlotLayout layout = new SlotLayout(this.size, this.buckets.length, max_key_length, codec.width());
+        if (layout.bucket_count != this.buckets.length) {
+            throw new IllegalStateException("A snapshot holds at most " + SlotLayout.MAX_BUCKETS + " buckets.");
+        }
+        ByteBuffer bitmap = ByteBuffer.allocate(layout.bitmap_bytes).order(ByteOrder.nativeOrder());
+        for (int level = 0; level < this.bitmap.words.length; level++) {
+            for (int i = 0; i < this.bitmap.words[level]; i++) {
+                bitmap.putLong(layout.levels[level] + 8*i, this.bitmap.word(level, i));
+            }
         }
-        //duplicate key
-        else {
-            throw new IllegalArgumentException("Key already used.");
+        ByteBuffer buckets = ByteBuffer.allocate(4*this.buckets.length).order(ByteOrder.nativeOrder());
+        for (int b = 0; b < this.buckets.length; b++) {
+            buckets.putInt(4*b, this.buckets[b]);
         }
-        //rebalance tree and return
-        return this.rebalance(start_index);
+        layout.write(path, this.elements, bitmap, buckets, new SlotLayout.RecordSource() {
+            public void copy(int slot, ByteBuffer buffer, int offset) {
+                //the node arrays may not have grown this far yet
+                if (slot >= hashes.length) {
+                    buffer.putInt(offset + SlotLayout.HASH, -1);
+                    buffer.putInt(offset + SlotLayout.LEFT, -1);
+                    buffer.putInt(offset + SlotLayout.RIGHT, -1);
+                    buffer.put(offset + SlotLayout.HEIGHT, (byte)-1);
+                    buffer.putChar(offset + SlotLayout.KEY_LENGTH, (char)0);
+                    return;
+                }
+                String key = keys[slot];
+                buffer.putInt(offset + SlotLayout.HASH, hashes[slot]);
+                buffer.putInt(offset + SlotLayout.LEFT, left[slot]);
+                buffer.putInt(offset + SlotLayout.RIGHT, right[slot]);
+                buffer.put(offset + SlotLayout.HEIGHT, height[slot]);
+                buffer.putChar(offset + SlotLayout.KEY_LENGTH, (char)((key != null) ? key.length() : 0));
+                if (key != null) {
+                    for (int i = 0; i < key.length(); i++) {
+                        buffer.putChar(offset + SlotLayout.KEY + 2*i, key.charAt(i));
+                    }
+                    codec.write(buffer, offset + layout.value_offset, (T) values[slot]);
+                }
+            }
+        });
     }
-    
+
     /**
-     * Returns the index of the node with the given key
+     * Starts recording metrics for this hash map and returns them, or returns the
+     * metrics already being recorded. Throws an IllegalStateException unless the JVM
+     * was started with -Dfixedsizehashmap.metrics=true.
      */
-    private int find(int key, int start_index) {
-        if (start_index == -1) {
-            return -1;
-        } else if (key == this.tree[start_index].key) {
-            return start_index;
-        } else if (key < this.tree[start_index].key) {
-            return this.find(key, this.tree[start_index].left);
-        } else {
-            return this.find(key, this.tree[start_index].right);
+    public MapMetrics enableMetrics() {
+        if (!MapMetrics.ENABLED) {
+            throw new IllegalStateException("Metrics are compiled out, start the JVM with -Dfixedsizehashmap.metrics=true.");
+        }
+        if (this.metrics == null) {
+            this.metrics = new MapMetrics();
+        }
+        return this.metrics;
+    }
+
+    /**
+     * Returns the metrics of this hash map, or null if they were not enabled
+     */
+    public MapMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    /**
+     * Returns the number of gets that found their key (always 0 without an eviction policy)
+     */
+    public long getHits() {
+        return this.hits;
+    }
+
+    /**
+     * Returns the number of gets that did not find their key (always 0 without an
+     * eviction policy)
+     */
+    public long getMisses() {
+        return this.misses;
+    }
+
+    /**
+     * Returns the number of entries evicted to make room for new ones
+     */
+    public long getEvictions() {
+        return this.evictions;
+    }
+
+    /**
+     * Removes the entry chosen by the eviction policy, freeing its slot
+     */
+    private void evict() {
+        int victim = this.policy.victim();
+        int hash = this.hashes[victim];
+        this.remove(this.bucket(hash), hash, this.keys[victim]);
+        this.values[victim] = null;
+        this.policy.onRemove(victim);
+        this.evictions++;
+    }
+
+    /**
+     * Returns the value associated with a given key without taking any lock, while
+     * a writer may be changing this hash map. The result may be wrong and must be
+     * validated (see ConcurrentFixedSizeHashMap).
+     */
+    T getOptimistic(String key) {
+        int node_index = this.findOptimistic(this.hash(key), key);
+        Object[] values = this.values;
+        return (node_index != -1 && node_index < values.length) ? (T) values[node_index] : null;
+    }
+
+    /**
+     * Deletes the entry with the given key from this hash map
+     *
+     * Also returns the keys associated value
+     */
+    public T delete(String key) {
+        if (MapMetrics.ENABLED && this.metrics != null) {
+            long start = System.nanoTime();
+            T value = this.deleteEntry(key);
+            this.metrics.delete(System.nanoTime() - start);
+            return value;
         }
+        return this.deleteEntry(key);
     }
 
     /**
-     * Recursive method that traverses the tree and removes the node associated with the given key
+     * Does the work of delete
      */
-    private int remove(int key, int start_index) {
-        //start_index isn't actually part of the implicit tree
-        if (start_index == -1) {
-            this.delete_index = -1;
-            return -1;
+    private T deleteEntry(String key) {
+        if (this.elements > 0) {
+            int hash = this.hash(key);
+            //attempt to remove the node with key from the bucket's implicit tree
+            int node_index = this.remove(this.bucket(hash), hash, key);
+            if (node_index != -1) {
+                //save the return value and clean the deleted node
+                T node_String = (T) this.values[node_index];
+                this.values[node_index] = null;
+                if (this.policy != null) {
+                    this.policy.onRemove(node_index);
+                }
+                return node_String;
+            }
         }
-        //remove from left subtree
-        else if (key < this.tree[start_index].key) {
-            this.tree[start_index].left = this.remove(key, this.tree[start_index].left);
-            return this.rebalance(start_index);
+        return null;
+    }
+
+    //UPDATE METHODS
+    /**
+     * Associates the key with the value, replacing the value it had.
+     * Returns the previous value, or null if the key was new.
+     * Throws IllegalStateException if the key is new and the hash map is full.
+     */
+    public T put(String key, T value) {
+        if (MapMetrics.ENABLED && this.metrics != null) {
+            long start = System.nanoTime();
+            try {
+                return this.putEntry(key, value);
+            } finally {
+                this.metrics.set(System.nanoTime() - start);
+            }
         }
-        //remove from right subtree
-        else if (key > this.tree[start_index].key) {
-            this.tree[start_index].right = this.remove(key, this.tree[start_index].right);
-            return this.rebalance(start_index);
+        return this.putEntry(key, value);
+    }
+
+    /**
+     * Does the work of put
+     */
+    private T putEntry(String key, T value) {
+        checkValue(value);
+        int hash = this.hash(key);
+        int node_index = this.locate(hash, key);
+        if (node_index == FULL) {
+            node_index = this.insertEvicting(hash, key);
         }
-        //start_index is the node to be removed
-        else {
-            int left_index = this.tree[start_index].left;
-            int right_index = this.tree[start_index].right;
-            this.delete_index = start_index;
-            //node is a leaf, simply remove it
-            if (left_index == -1 && right_index == -1) {
-                return -1;
+        if (node_index >= 0) {
+            this.fill(node_index, value);
+            return null;
+        }
+        return this.replaceAt(~node_index, value);
+    }
+
+    /**
+     * Associates the key with the value unless it already has one.
+     * Returns the value the key already had, or null if the value was stored.
+     * Throws IllegalStateException if the key is new and the hash map is full.
+     */
+    public T putIfAbsent(String key, T value) {
+        if (MapMetrics.ENABLED && this.metrics != null) {
+            long start = System.nanoTime();
+            try {
+                return this.putIfAbsentEntry(key, value);
+            } finally {
+                this.metrics.set(System.nanoTime() - start);
             }
-            //node has a single child, give the node it's grandchildren
-            else if (left_index != -1 && right_index == -1) {
-                return left_index;
-            } else if (left_index == -1 && right_index != -1) {
-                return right_index;
+        }
+        return this.putIfAbsentEntry(key, value);
+    }
+
+    /**
+     * Does the work of putIfAbsent
+     */
+    private T putIfAbsentEntry(String key, T value) {
+        checkValue(value);
+        int hash = this.hash(key);
+        int node_index = this.locate(hash, key);
+        if (node_index == FULL) {
+            node_index = this.insertEvicting(hash, key);
+        }
+        if (node_index >= 0) {
+            this.fill(node_index, value);
+            return null;
+        }
+        if (MapMetrics.ENABLED && this.metrics != null) {
+            this.metrics.duplicate();
+        }
+        if (this.policy != null) {
+            this.policy.onAccess(~node_index);
+        }
+        return (T) this.values[~node_index];
+    }
+
+    /**
+     * Replaces the value of a key that is already in this hash map.
+     * Returns the previous value, or null (storing nothing) if the key is not there.
+     */
+    public T replace(String key, T value) {
+        if (MapMetrics.ENABLED && this.metrics != null) {
+            long start = System.nanoTime();
+            try {
+                return this.replaceEntry(key, value);
+            } finally {
+                this.metrics.set(System.nanoTime() - start);
             }
-            //node has two children, replace the node's successor (smallest
-            //node in right subtree), then remove the successor
-            else {
-                int smallest_index = this.getSmallest(right_index);
-                int temp_index = start_index;
-                this.nodeSwap(start_index, smallest_index);
-                this.tree[start_index].right = this.remove(this.tree[smallest_index].key, right_index);
-                this.delete_index = smallest_index;
-                return this.rebalance(start_index);
+        }
+        return this.replaceEntry(key, value);
+    }
+
+    /**
+     * Does the work of replace
+     */
+    private T replaceEntry(String key, T value) {
+        checkValue(value);
+        int node_index = (this.elements > 0) ? this.find(this.hash(key), key) : -1;
+        return (node_index != -1) ? this.replaceAt(node_index, value) : null;
+    }
+
+    /**
+     * Associates the key with the value the function computes from the key and its
+     * current value (null if it has none). A null result removes the key.
+     * Returns the new value, or null if the key is no longer in the hash map.
+     * The function must not change this hash map.
+     * Throws IllegalStateException if the key is new, the result is not null, and
+     * the hash map is full.
+     */
+    public T compute(String key, BiFunction<? super String, ? super T, ? extends T> function) {
+        if (MapMetrics.ENABLED && this.metrics != null) {
+            long start = System.nanoTime();
+            try {
+                return this.computeEntry(key, function);
+            } finally {
+                this.metrics.set(System.nanoTime() - start);
             }
         }
+        return this.computeEntry(key, function);
     }
 
     /**
-     * Balances the AVL subtree using LL, LR, RL, and RR balance factors
+     * Does the work of compute
      */
-    private int rebalance(int start_index) {
-        if (start_index == -1) System.out.println("start index = -1.");
-        int newstart_index;
-        int left_index = this.tree[start_index].left;
-        int right_index = this.tree[start_index].right;
-        //left subtree heavy
-        if (this.balanceFactor(start_index) == 2) {
-            if (this.tree[left_index].left == -1) {
-                newstart_index = this.rotateCaseLL(start_index);
-            } else {
-                newstart_index = this.rotateCaseLR(start_index);
+    private T computeEntry(String key, BiFunction<? super String, ? super T, ? extends T> function) {
+        int hash = this.hash(key);
+        int node_index = this.locate(hash, key);
+        if (node_index == FULL) {
+            //only make room (and evict) once there is a value to store
+            T value = function.apply(key, null);
+            if (value != null) {
+                this.fill(this.insertEvicting(hash, key), value);
             }
+            return value;
         }
-        //right subtree heavy
-        else if (this.balanceFactor(start_index) == -2) {
-            if (this.tree[right_index].right == -1) {
-                newstart_index = this.rotateCaseRL(start_index);
-            } else {
-                newstart_index = this.rotateCaseRR(start_index);
+        if (node_index >= 0) {
+            //the new node is taken out again if the function gives no value or throws
+            T value = null;
+            try {
+                value = function.apply(key, null);
+            } finally {
+                if (value == null) {
+                    this.remove(this.bucket(hash), hash, key);
+                }
+            }
+            if (value != null) {
+                this.fill(node_index, value);
             }
+            return value;
         }
-        //no rebalancing needed
-        else {
-            newstart_index = start_index;
+        T value = function.apply(key, (T) this.values[~node_index]);
+        if (value == null) {
+            this.deleteEntry(key);
+            return null;
         }
-        //update height if necessary
-        this.updateHeight(start_index);
-        return newstart_index;
+        this.replaceAt(~node_index, value);
+        return value;
     }
 
     /**
-     * Returns the index of the smallest node in the subtree rooted by start_index
+     * Associates the key with the value if it has none, and otherwise with the value
+     * the function merges from its current value and the given one. A null result
+     * removes the key. Returns the new value, or null if the key was removed.
+     * The function must not change this hash map.
+     * Throws IllegalStateException if the key is new and the hash map is full.
      */
-    private int getSmallest(int start_index) {
-        if (this.tree[start_index].left != -1) {
-            return this.getSmallest(this.tree[start_index].left);
-        } else {
-            return start_index;
+    public T merge(String key, T value, BiFunction<? super T, ? super T, ? extends T> function) {
+        if (MapMetrics.ENABLED && this.metrics != null) {
+            long start = System.nanoTime();
+            try {
+                return this.mergeEntry(key, value, function);
+            } finally {
+                this.metrics.set(System.nanoTime() - start);
+            }
         }
+        return this.mergeEntry(key, value, function);
     }
 
     /**
-     * Swaps the keys and values of the nodes at indices a and b
+     * Does the work of merge
      */
-    private void nodeSwap(int a, int b) {
-        int tempKey = this.tree[a].key;
-        this.tree[a].key = this.tree[b].key;
-        this.tree[b].key = tempKey;
-        T tempValue = (T) this.tree[a].value;
-        this.tree[a].value = this.tree[b].value;
-        this.tree[b].value = tempValue;
+    private T mergeEntry(String key, T value, BiFunction<? super T, ? super T, ? extends T> function) {
+        checkValue(value);
+        int hash = this.hash(key);
+        int node_index = this.locate(hash, key);
+        if (node_index == FULL) {
+            node_index = this.insertEvicting(hash, key);
+        }
+        if (node_index >= 0) {
+            this.fill(node_index, value);
+            return value;
+        }
+        T merged = function.apply((T) this.values[~node_index], value);
+        if (merged == null) {
+            this.deleteEntry(key);
+            return null;
+        }
+        this.replaceAt(~node_index, merged);
+        return merged;
     }
 
     /**
-     * Returns the balance factor (difference between node's left 
-     * and right subtrees) of the subtree rooted by the node at index i
+     * Returns the index of the node holding the key, found with a single descent:
+     * the index of a new node without a value yet if the key was not there, or the
+     * complement (~) of the index of the node that already holds it. Returns FULL,
+     * changing nothing, if the key is new and the hash map is full.
      */
-    private int balanceFactor(int i) {
-        return this.height(this.tree[i].left) - this.height(this.tree[i].right);
+    private int locate(int hash, String key) {
+        if (this.elements == this.size) {
+            int node_index = this.find(hash, key);
+            return (node_index != -1) ? ~node_index : FULL;
+        }
+        return this.insert(this.bucket(hash), hash, key);
     }
 
     /**
-     * Returns the height of the node at index i
+     * Inserts a node for a new key into the full hash map, evicting an entry in
+     * eviction mode, and returns its index. Throws IllegalStateException otherwise.
      */
-    private int height(int i) {
-        return (i != -1) ? this.tree[i].height : -1;
+    private int insertEvicting(int hash, String key) {
+        if (this.policy == null) {
+            if (MapMetrics.ENABLED && this.metrics != null) {
+                this.metrics.full();
+            }
+            throw new IllegalStateException("The hash map is full.");
+        }
+        this.evict();
+        return this.insert(this.bucket(hash), hash, key);
     }
 
     /**
-     * Updates the height of the node at index i
+     * Stores the value of the node at node_index, which was just inserted
      */
-    private void updateHeight(int i) {
-        if (i != -1) {
-            int left_index = this.tree[i].left;
-            int right_index = this.tree[i].right;
-            if (left_index == -1 && right_index == -1)
-                this.tree[i].height = 0;
-            else if (left_index != -1 && right_index == -1)
-                this.tree[i].height = this.tree[left_index].height + 1;
-            else if (left_index == -1 && right_index != -1)
-                this.tree[i].height = this.tree[right_index].height + 1;
-            else
-                this.tree[i].height = this.max(this.height(left_index), this.height(right_index)) + 1;
+    private void fill(int node_index, T value) {
+        this.values[node_index] = value;
+        if (this.policy != null) {
+            this.policy.onInsert(node_index);
         }
     }
 
-    //TREE ROTATIONS (PRIVATE)
     /**
-     * left left rotation case
+     * Replaces the value of the node at node_index in place and returns the old one
      */
-    private int rotateCaseLL(int start_index) {
-        int newstart_index = this.tree[start_index].left;
-        if (newstart_index == -1) {
-            return start_index;
-        } else {
-            this.tree[start_index].left = this.tree[newstart_index].right;
-            this.tree[newstart_index].right = start_index;
-            //update heights
-            this.updateHeight(start_index);
-            this.updateHeight(newstart_index);
-            return newstart_index;
+    private T replaceAt(int node_index, T value) {
+        T previous = (T) this.values[node_index];
+        this.values[node_index] = value;
+        if (this.policy != null) {
+            this.policy.onAccess(node_index);
         }
+        return previous;
     }
 
     /**
-     * right right rotation case
+     * Throws IllegalArgumentException for a null value, which this hash map cannot
+     * tell apart from a missing key
      */
-    private int rotateCaseRR(int start_index) {
-        int newstart_index = this.tree[start_index].right;
-        if (newstart_index == -1) {
-            return start_index;
-        } else {
-            this.tree[start_index].right = this.tree[newstart_index].left;
-            this.tree[newstart_index].left = start_index;
-            //update heights
-            this.updateHeight(start_index);
-            this.updateHeight(newstart_index);
-            return newstart_index;
+    private static void checkValue(Object value) {
+        if (value == null) {
+            throw new IllegalArgumentException("The value is null.");
         }
     }
 
+    //GROWTH UTILITIES
     /**
-     * left right rotation case
+     * Grows the node arrays, keys, and values to the given capacity
      */
-    private int rotateCaseLR(int start_index) {
-        this.tree[start_index].left = this.rotateCaseRR(this.tree[start_index].left);
-        return this.rotateCaseLL(start_index);
+    @Override
+    void growSlots(int capacity) {
+        super.growSlots(capacity);
+        this.values = Arrays.copyOf(this.values, capacity);
     }
 
+    //FREEZING
     /**
-     * right left rotation case
+     * Returns an immutable copy of this hash map laid out for lookups, which any
+     * number of threads can read without locking (see FrozenFixedSizeHashMap).
+     * Later changes to this hash map do not show in the copy.
      */
-    private int rotateCaseRL(int start_index) {
-        this.tree[start_index].right = this.rotateCaseLL(this.tree[start_index].right);
-        return this.rotateCaseRR(start_index);
+    public FrozenFixedSizeHashMap<T> freeze() {
+        return new FrozenFixedSizeHashMap<T>(this);
     }
 
-    //BITMAP UTILITIES
+    //ITERATION
     /**
-     * Returns the index of the first available node in the internal array.
+     * Returns a cursor over the entries of this hash map
      */
-    private int getAvailableNode() {
-        int i = 0;
-        for (; this.bitmap[i] == -1; i++);
-        int j = 0;
-        for (; j < 8; j++) {
-            //break out of loop the first time a 0 is encountered
-            if ((this.bitmap[i] & (1 << j)) == 0) {
-                break;
-            }
+    public EntryCursor<T> cursor() {
+        return new EntryCursor<T>(this);
+    }
+
+    /**
+     * Performs the given action for each entry of this hash map
+     */
+    public void forEach(BiConsumer<? super String, ? super T> action) {
+        TreeWalk walk = new TreeWalk(this, 0, this.buckets.length);
+        for (int node_index = walk.next(); node_index != -1; node_index = walk.next()) {
+            action.accept(this.keys[node_index], (T) this.values[node_index]);
         }
-        //ensure the returned value is less than the max size of this hashmap
-        return (8*i + j < this.size) ? 8*i + j : -1;
     }
 
     /**
-     * Flips the xth bit in the hash map's internal bitmap
+     * Returns a Spliterator over the entries of this hash map, which splits at bucket
+     * ranges and subtree boundaries
+     */
+    public Spliterator<Map.Entry<String, T>> spliterator() {
+        return new EntrySpliterator<T>(this, new TreeWalk(this, 0, this.buckets.length));
+    }
+
+    /**
+     * Returns a sequential stream of the entries of this hash map. Call parallel on
+     * it to scan a large hash map on the ForkJoin pool.
      */
-    private void bitFlip(int x) {
-        int index = x/8;
-        int offset = x%8;
-        this.bitmap[index] ^= (1 << offset);
+    public Stream<Map.Entry<String, T>> stream() {
+        return StreamSupport.stream(this.spliterator(), false);
     }
 
-    //MISC UTILITIES
     /**
-     * Returns the max of two integers
+     * Returns the value of the node at node_index, without counting a hit
      */
-    private static int max(int a, int b) {
-        return (a > b) ? a : b;
+    T value(int node_index) {
+        return (T) this.values[node_index];
     }
 }
@@ -0,0 +1,480 @@
+package vinodKPCBChallenge;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The storage shared by the heap-backed fixed-size hash maps.
+ *
+ * A FixedSizeTree owns a fixed number of node slots, an array of buckets that
+ * each hold the root of an AVL tree, and the bitmap that tracks which slots are
+ * active. It knows nothing about keys or values. A subclass walks down a tree
+ * comparing its own keys, recording each node it passes in the path stack, and
+ * then calls link or unlink to change the tree. This class takes or frees the
+ * slot, and AvlTrees rebalances the path.
+ */
+abstract class FixedSizeTree {
+
+    //CONSTANTS
+    /**
+     * The deepest path a tree can have. An AVL tree of n nodes is never taller
+     * than 1.44 log2(n + 2), which stays below 48 for any array size.
+     */
+    static final int MAX_HEIGHT = 48;
+
+    /**
+     * The number of slots below which a parallel build stops splitting its work
+     */
+    private static final int BUILD_THRESHOLD = 1 << 13;
+
+    /**
+     * The number of slots and buckets a hash map starts with before it grows
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    //INSTANCE VARIABLES
+    /*
+     * The nodes of the hash map are stored as parallel arrays indexed by slot,
+     * so constructing the map and walking a tree only touches contiguous memory.
+     * An unused slot has a hash, height, left, and right of -1. Nodes are ordered
+     * by hash code first, and subclasses order nodes with equal hash codes by key.
+     *
+     * The arrays start small and double (never past the size) when a slot past their
+     * end is taken, so creating a huge hash map is cheap and its memory follows the
+     * number of entries. Free slots are taken lowest first, so the arrays only need
+     * to reach the largest number of entries the hash map has held.
+     */
+
+    /**
+     * The hash code of the key held by each node
+     */
+    int[] hashes;
+
+    /**
+     * The height of each node (AVL heights never exceed a byte)
+     */
+    byte[] height;
+
+    /**
+     * The index of each node's left child
+     */
+    int[] left;
+
+    /**
+     * The index of each node's right child
+     */
+    int[] right;
+
+    /**
+     * The hierarchical bitmap used to mark active nodes (see SlotBitmap)
+     */
+    final SlotBitmap bitmap;
+
+    /**
+     * The indices of the root nodes of each bucket's AVL tree (-1 for an empty bucket).
+     * The table starts small and doubles whenever the hash map is fuller than the
+     * table is grown, so a full hash map has all bucket_count buckets.
+     */
+    int[] buckets;
+
+    /**
+     * The number of buckets the table grows to
+     */
+    final int bucket_count;
+
+    /**
+     * The mask used to select a bucket from a hash code (number of buckets - 1)
+     */
+    int mask;
+
+    /**
+     * The explicit stack of node indices visited on the way down a tree, used to
+     * retrace the path and rebalance after an insertion or removal
+     */
+    final int[] path;
+
+    /**
+     * The size of the hash map
+     */
+    final int size;
+
+    /**
+     * The number of elements in the hash map
+     */
+    int elements;
+
+    /**
+     * The metrics of the hash map (null unless they were enabled, see MapMetrics)
+     */
+    MapMetrics metrics;
+
+    /**
+     * The links and heights of the nodes and the buckets, as AvlTrees changes them
+     */
+    private final AvlTrees.Nodes links = new AvlTrees.Nodes() {
+        public int left(int i) {
+            return left[i];
+        }
+
+        public int right(int i) {
+            return right[i];
+        }
+
+        public void setLeft(int i, int child) {
+            left[i] = child;
+        }
+
+        public void setRight(int i, int child) {
+            right[i] = child;
+        }
+
+        public int height(int i) {
+            return height[i];
+        }
+
+        public void setHeight(int i, int height) {
+            FixedSizeTree.this.height[i] = (byte)height;
+        }
+
+        public void setRoot(int bucket, int i) {
+            buckets[bucket] = i;
+        }
+    };
+
+    //CONSTRUCTOR
+    /**
+     * Creates the storage for a fixed-size hash map with the given number of buckets
+     * (rounded up to a power of two). A single bucket keeps every node in one AVL tree.
+     * Only the bitmap is sized for every slot up front, the node arrays and the table
+     * start small. Every bucket is set to -1 and the number of elements is set to 0
+     */
+    FixedSizeTree(int size, int buckets) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("The size of the hash map must be a positive integer.");
+        }
+        if (buckets <= 0) {
+            throw new IllegalArgumentException("The number of buckets must be a positive integer.");
+        }
+        int capacity = Math.min(size, INITIAL_CAPACITY);
+        this.hashes = new int[capacity];
+        this.height = new byte[capacity];
+        this.left = new int[capacity];
+        this.right = new int[capacity];
+        Arrays.fill(this.hashes, -1);
+        Arrays.fill(this.height, (byte)-1);
+        Arrays.fill(this.left, -1);
+        Arrays.fill(this.right, -1);
+        this.bitmap = SlotBitmap.create(size);
+        this.bucket_count = tableSizeFor(buckets);
+        this.buckets = new int[Math.min(this.bucket_count, INITIAL_CAPACITY)];
+        Arrays.fill(this.buckets, -1);
+        this.mask = this.buckets.length - 1;
+        this.path = new int[MAX_HEIGHT];
+        this.size = size;
+        this.elements = 0;
+    }
+
+    //USER METHODS
+    /**
+     * Returns the load of this fixed-size hash map
+     */
+    public float load() {
+        return (float)this.elements/this.size;
+    }
+
+    /**
+     * Returns the size of the hashmap
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Returns the number of buckets in the hashmap once its table has grown
+     */
+    public int getBuckets() {
+        return this.bucket_count;
+    }
+
+    //BUCKET UTILITIES
+    /**
+     * Returns the bucket selected by a hash code. The high bits are folded into
+     * the low bits so that hash codes differing only in their upper bits still
+     * land in different buckets.
+     */
+    final int bucket(int hash) {
+        return (hash ^ (hash >>> 16)) & this.mask;
+    }
+
+    /**
+     * Returns the smallest power of two that is greater than or equal to n
+     */
+    private static int tableSizeFor(int n) {
+        int highest = Integer.highestOneBit(n);
+        return (highest == n || highest == (1 << 30)) ? highest : highest << 1;
+    }
+
+    //TREE UTILITIES
+    /**
+     * Takes a free slot for a new node with the given hash and hangs it from the
+     * last of the depth nodes on the path, on the side given by the sign of cmp.
+     * The path must hold the nodes visited on the way down from the bucket's root.
+     * Returns the index of the new node.
+     */
+    final int link(int bucket, int depth, int cmp, int hash) {
+        int new_index = this.bitmap.getAvailableNode();
+        if (new_index >= this.hashes.length) {
+            this.growSlots(Math.min(this.size, Math.max(new_index + 1, 2*this.hashes.length)));
+        }
+        this.hashes[new_index] = hash;
+        this.height[new_index] = 0;
+        this.bitmap.markActive(new_index);
+        this.elements++;
+        AvlTrees.link(this.links, this.path, bucket, depth, cmp, new_index, this.metrics);
+        if (this.buckets.length < this.bucket_count
+                && (long)this.elements*this.bucket_count > (long)this.buckets.length*this.size) {
+            this.growBuckets(2*this.buckets.length);
+        }
+        return new_index;
+    }
+
+    /**
+     * Unlinks the node at start_index from the bucket's tree, rebalances the tree,
+     * and frees the node's slot. The first depth nodes of the path must be the
+     * node's ancestors, starting with the bucket's root.
+     */
+    final void unlink(int bucket, int depth, int start_index) {
+        AvlTrees.unlink(this.links, this.path, bucket, depth, start_index, this.metrics);
+        //clean the removed node and mark as inactive
+        this.reset(start_index);
+        this.bitmap.markFree(start_index);
+        this.elements--;
+    }
+
+    //GROWTH UTILITIES
+    /**
+     * Grows the node arrays to the given capacity, marking the new slots unused.
+     * Subclasses grow the arrays holding their keys and values too.
+     */
+    void growSlots(int capacity) {
+        int old_capacity = this.hashes.length;
+        this.hashes = Arrays.copyOf(this.hashes, capacity);
+        this.height = Arrays.copyOf(this.height, capacity);
+        this.left = Arrays.copyOf(this.left, capacity);
+        this.right = Arrays.copyOf(this.right, capacity);
+        Arrays.fill(this.hashes, old_capacity, capacity, -1);
+        Arrays.fill(this.height, old_capacity, capacity, (byte)-1);
+        Arrays.fill(this.left, old_capacity, capacity, -1);
+        Arrays.fill(this.right, old_capacity, capacity, -1);
+    }
+
+    /**
+     * Grows the node arrays and the table ahead of adding count elements at once,
+     * so a bulk load neither grows them repeatedly nor overfills the table
+     */
+    final void reserve(int count) {
+        count = Math.min(count, this.size);
+        if (count > this.hashes.length) {
+            this.growSlots(count);
+        }
+        long needed = ((long)count*this.bucket_count + this.size - 1)/this.size;
+        int length = Math.min(this.bucket_count, tableSizeFor((int)Math.max(needed, 1)));
+        if (length > this.buckets.length) {
+            this.growBuckets(length);
+        }
+    }
+
+    /**
+     * Replaces the table with one of the given length (a larger power of two) and
+     * moves every node to its new bucket. The nodes of a new bucket all come from
+     * one old bucket, so the in-order walk of the old table, stably sorted by new
+     * bucket, gives each new bucket's nodes in order, and its tree is rebuilt
+     * balanced from them.
+     */
+    private void growBuckets(int length) {
+        int[] nodes = new int[this.elements];
+        TreeWalk walk = new TreeWalk(this, 0, this.buckets.length);
+        int count = 0;
+        for (int node = walk.next(); node != -1; node = walk.next()) nodes[count++] = node;
+        this.buckets = new int[length];
+        this.mask = length - 1;
+        //counting sort by new bucket: starts[b] holds the end of bucket b's run,
+        //and its start once the nodes are placed back to front
+        int[] starts = new int[length];
+        for (int i = 0; i < count; i++) starts[this.bucket(this.hashes[nodes[i]])]++;
+        for (int b = 1; b < length; b++) starts[b] += starts[b - 1];
+        int[] sorted = new int[count];
+        for (int i = count - 1; i >= 0; i--) sorted[--starts[this.bucket(this.hashes[nodes[i]])]] = nodes[i];
+        for (int b = 0; b < length; b++) {
+            this.buckets[b] = this.buildTree(sorted, starts[b], (b + 1 < length) ? starts[b + 1] : count);
+        }
+    }
+
+    /**
+     * Builds the trees of every bucket directly from slots 0 to count - 1, which must
+     * already hold hashes sorted by bucket and then in tree order, in an empty hash
+     * map. Each bucket's run of slots becomes a perfectly balanced tree, so no
+     * rotations are needed.
+     */
+    final void buildBuckets(int count) {
+        int lo = 0;
+        while (lo < count) {
+            int bucket = this.bucket(this.hashes[lo]);
+            int hi = lo + 1;
+            while (hi < count && this.bucket(this.hashes[hi]) == bucket) hi++;
+            this.buckets[bucket] = this.buildTree(lo, hi);
+            lo = hi;
+        }
+        this.bitmap.markActivePrefix(count);
+        this.elements = count;
+    }
+
+    /**
+     * Does the work of buildBuckets on the ForkJoin pool. The slots are split into
+     * ranges, and each task builds the trees of the buckets whose run starts in its
+     * range, so the tasks write disjoint slots and buckets. A run too long for one
+     * task (always the case in tree mode) is built by splitting its tree instead.
+     */
+    final void buildBucketsParallel(int count) {
+        ForkJoinPool.commonPool().invoke(new BucketTask(this, 0, count, count));
+        this.bitmap.markActivePrefix(count);
+        this.elements = count;
+    }
+
+    /**
+     * Links slots lo to hi - 1 into a balanced tree and returns the index of its root.
+     * The recursion is only as deep as the tree it builds.
+     */
+    final int buildTree(int lo, int hi) {
+        if (lo >= hi) {
+            return -1;
+        }
+        int mid = (lo + hi) >>> 1;
+        this.left[mid] = this.buildTree(lo, mid);
+        this.right[mid] = this.buildTree(mid + 1, hi);
+        this.updateHeight(mid);
+        return mid;
+    }
+
+    /**
+     * Links the nodes listed from nodes[lo] to nodes[hi - 1], in tree order, into a
+     * balanced tree and returns the index of its root
+     */
+    private int buildTree(int[] nodes, int lo, int hi) {
+        if (lo >= hi) {
+            return -1;
+        }
+        int mid = (lo + hi) >>> 1;
+        int node = nodes[mid];
+        this.left[node] = this.buildTree(nodes, lo, mid);
+        this.right[node] = this.buildTree(nodes, mid + 1, hi);
+        this.updateHeight(node);
+        return node;
+    }
+
+    /**
+     * Resets the hash, height, and links of the node at index i to their original value (-1)
+     */
+    private void reset(int i) {
+        this.hashes[i] = -1;
+        this.height[i] = -1;
+        this.left[i] = -1;
+        this.right[i] = -1;
+    }
+
+    /**
+     * Updates the height of the node at index i
+     */
+    private void updateHeight(int i) {
+        AvlTrees.updateHeight(this.links, i);
+    }
+
+    //BUILD TASKS
+    /**
+     * Builds the trees of the buckets whose run of slots starts between lo and hi - 1,
+     * out of the count sorted slots (see buildBucketsParallel)
+     */
+    private static final class BucketTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final FixedSizeTree tree;
+        private final int lo;
+        private final int hi;
+        private final int count;
+
+        BucketTask(FixedSizeTree tree, int lo, int hi, int count) {
+            this.tree = tree;
+            this.lo = lo;
+            this.hi = hi;
+            this.count = count;
+        }
+
+        protected void compute() {
+            if (this.hi - this.lo > BUILD_THRESHOLD && this.tree.mask != 0) {
+                int mid = (this.lo + this.hi) >>> 1;
+                invokeAll(new BucketTask(this.tree, this.lo, mid, this.count),
+                    new BucketTask(this.tree, mid, this.hi, this.count));
+                return;
+            }
+            FixedSizeTree tree = this.tree;
+            int start = this.lo;
+            //skip the end of a run that started in the range before
+            while (start > 0 && start < this.hi
+                    && tree.bucket(tree.hashes[start]) == tree.bucket(tree.hashes[start - 1])) {
+                start++;
+            }
+            while (start < this.hi) {
+                int bucket = tree.bucket(tree.hashes[start]);
+                int end = start + 1;
+                while (end < this.count && tree.bucket(tree.hashes[end]) == bucket) end++;
+                if (end - start > BUILD_THRESHOLD) {
+                    TreeTask task = new TreeTask(tree, start, end);
+                    task.invoke();
+                    tree.buckets[bucket] = task.root;
+                } else {
+                    tree.buckets[bucket] = tree.buildTree(start, end);
+                }
+                start = end;
+            }
+        }
+    }
+
+    /**
+     * Links slots lo to hi - 1 into a balanced tree like buildTree, building the two
+     * subtrees of a large tree in parallel
+     */
+    private static final class TreeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final FixedSizeTree tree;
+        private final int lo;
+        private final int hi;
+
+        /**
+         * The index of the root of the tree once it is built
+         */
+        int root;
+
+        TreeTask(FixedSizeTree tree, int lo, int hi) {
+            this.tree = tree;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        protected void compute() {
+            if (this.hi - this.lo <= BUILD_THRESHOLD) {
+                this.root = this.tree.buildTree(this.lo, this.hi);
+                return;
+            }
+            int mid = (this.lo + this.hi) >>> 1;
+            TreeTask left_task = new TreeTask(this.tree, this.lo, mid);
+            TreeTask right_task = new TreeTask(this.tree, mid + 1, this.hi);
+            invokeAll(left_task, right_task);
+            this.tree.left[mid] = left_task.root;
+            this.tree.right[mid] = right_task.root;
+            this.tree.updateHeight(mid);
+            this.root = mid;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package vinodKPCBChallenge;
+
+/**
+ * An immutable, read-only copy of a FixedSizeHashMap (see FixedSizeHashMap.freeze).
+ *
+ * The entries are laid out for reading instead of for changing. The entries of each
+ * bucket sit next to each other, and a bucket is found through an array of offsets
+ * rather than through a root node, so there are no left or right links to chase.
+ * Within a bucket the entries are stored in Eytzinger (breadth-first) order of the
+ * balanced tree they would form: the entry at position k of a bucket has its
+ * children at 2k and 2k + 1, so a search steps through the bucket with arithmetic
+ * alone, and its first steps share a cache line. Most buckets hold one or two
+ * entries; a frozen map in tree mode is one large bucket searched this way.
+ *
+ *   offsets   the first entry of each bucket (and the end of the last one)
+ *   hashes    the hash code of each entry
+ *   keys      the key of each entry
+ *   values    the value of each entry
+ *
+ * Every field is final and nothing changes after construction, so a frozen map can
+ * be shared by any number of threads without locking.
+ */
+
+public final class FrozenFixedSizeHashMap<T> {
+
+    //INSTANCE VARIABLES
+    /**
+     * The index of the first entry of each bucket, followed by the number of entries
+     */
+    private final int[] offsets;
+
+    /**
+     * The hash code, key, and value of each entry, by bucket and in Eytzinger order
+     */
+    private final int[] hashes;
+    private final String[] keys;
+    private final Object[] values;
+
+    /**
+     * The mask used to select a bucket from a hash code (number of buckets - 1)
+     */
+    private final int mask;
+
+    /**
+     * The hasher giving the hash code of each key (null for String.hashCode)
+     */
+    private final KeyHasher hasher;
+
+    //CONSTRUCTOR
+    /**
+     * Copies the entries of a hash map into the same number of buckets. Walking the
+     * trees gives each bucket's entries in order, which is what its layout starts from.
+     */
+    FrozenFixedSizeHashMap(FixedSizeHashMap<T> map) {
+        int count = map.elements;
+        int bucket_count = map.buckets.length;
+        this.offsets = new int[bucket_count + 1];
+        this.hashes = new int[count];
+        this.keys = new String[count];
+        this.values = new Object[count];
+        this.mask = bucket_count - 1;
+        this.hasher = map.hasher;
+        //gather each bucket in tree order, then lay it out in Eytzinger order
+        int[] sorted = new int[count];
+        TreeWalk walk = new TreeWalk(map, 0, bucket_count);
+        int n = 0;
+        for (int node = walk.next(); node != -1; node = walk.next()) sorted[n++] = node;
+        int start = 0;
+        for (int b = 0; b < bucket_count; b++) {
+            int end = start;
+            while (end < n && map.bucket(map.hashes[sorted[end]]) == b) end++;
+            this.offsets[b] = start;
+            this.layout(map, sorted, start, end - start, 1, start);
+            start = end;
+        }
+        this.offsets[bucket_count] = n;
+    }
+
+    //USER METHODS
+    /**
+     * Returns the value associated with a given key.
+     */
+    public T get(String key) {
+        int hash = (this.hasher == null) ? key.hashCode() : this.hasher.hash(key);
+        int bucket = (hash ^ (hash >>> 16)) & this.mask;
+        int base = this.offsets[bucket] - 1;
+        int n = this.offsets[bucket + 1] - base - 1;
+        //entry k of the bucket is at base + k, and its children are entries 2k and 2k + 1
+        int k = 1;
+        while (k <= n) {
+            int node_hash = this.hashes[base + k];
+            if (node_hash == hash) {
+                int cmp = key.compareTo(this.keys[base + k]);
+                if (cmp == 0) {
+                    return (T) this.values[base + k];
+                }
+                k = 2*k + ((cmp > 0) ? 1 : 0);
+            } else {
+                k = 2*k + ((node_hash < hash) ? 1 : 0);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the number of entries in this frozen map
+     */
+    public int getCount() {
+        return this.hashes.length;
+    }
+
+    /**
+     * Returns the number of buckets in this frozen map
+     */
+    public int getBuckets() {
+        return this.offsets.length - 1;
+    }
+
+    //LAYOUT UTILITIES
+    /**
+     * Places the n nodes listed in sorted order from sorted[lo] into the Eytzinger
+     * order of a bucket starting at entry base, beginning with position k. Fills the
+     * left subtree of position k, then k itself, then its right subtree, so the nodes
+     * are taken in order. Returns the next node of sorted to take.
+     */
+    private int layout(FixedSizeHashMap<T> map, int[] sorted, int lo, int n, int k, int base) {
+        if (k > n) {
+            return lo;
+        }
+        lo = this.layout(map, sorted, lo, n, 2*k, base);
+        int node = sorted[lo];
+        this.hashes[base + k - 1] = map.hashes[node];
+        this.keys[base + k - 1] = map.keys[node];
+        this.values[base + k - 1] = map.value(node);
+        return this.layout(map, sorted, lo + 1, n, 2*k + 1, base);
+    }
+}
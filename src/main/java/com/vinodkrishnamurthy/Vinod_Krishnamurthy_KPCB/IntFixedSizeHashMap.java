@@ -0,0 +1,109 @@
+package vinodKPCBChallenge;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size hash map from Strings to primitive ints.
+ *
+ * It uses the same bucket and AVL tree layout as FixedSizeHashMap, but keeps its
+ * values in an int[], so setting and getting a value never boxes it. Since an
+ * int cannot be null, a chosen sentinel value stands for "absent": getInt and
+ * deleteInt return it when the key is not found, and setInt refuses to store it.
+ */
+public class IntFixedSizeHashMap extends StringKeyedTree {
+
+    //CONSTANTS
+    /**
+     * The sentinel used for absent values unless another one is given
+     */
+    public static final int NO_VALUE = Integer.MIN_VALUE;
+
+    //INSTANCE VARIABLES
+    /**
+     * The value held by each node
+     */
+    private int[] values;
+
+    /**
+     * The value returned for keys that are not in the hash map
+     */
+    private final int no_value;
+
+    //CONSTRUCTORS
+    /**
+     * Creates an instance of a fixed-size int hash map with one bucket per slot,
+     * using NO_VALUE for absent values
+     */
+    public IntFixedSizeHashMap(int size) {
+        this(size, size, NO_VALUE);
+    }
+
+    /**
+     * Creates an instance of a fixed-size int hash map with the given number of
+     * buckets (rounded up to a power of two) and sentinel for absent values
+     */
+    public IntFixedSizeHashMap(int size, int buckets, int no_value) {
+        super(size, buckets);
+        this.values = new int[this.hashes.length];
+        this.no_value = no_value;
+    }
+
+    //USER METHODS
+    /**
+     * Associates given key to a given value in this hash map.
+     * Returns a boolean indicating the success/failure of the operation.
+     */
+    public boolean setInt(String key, int value) {
+        if (this.elements < this.size && value != this.no_value) {
+            int hash = this.hash(key);
+            //a negative index means the key is already used
+            int node_index = this.insert(this.bucket(hash), hash, key);
+            if (node_index >= 0) {
+                this.values[node_index] = value;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the value associated with a given key, or the sentinel if there is none
+     */
+    public int getInt(String key) {
+        int node_index = (this.elements > 0) ? this.find(this.hash(key), key) : -1;
+        return (node_index != -1) ? this.values[node_index] : this.no_value;
+    }
+
+    /**
+     * Deletes the entry with the given key from this hash map
+     *
+     * Also returns the keys associated value, or the sentinel if there is none
+     */
+    public int deleteInt(String key) {
+        if (this.elements > 0) {
+            int hash = this.hash(key);
+            int node_index = this.remove(this.bucket(hash), hash, key);
+            if (node_index != -1) {
+                return this.values[node_index];
+            }
+        }
+        return this.no_value;
+    }
+
+    /**
+     * Returns the sentinel that stands for an absent value
+     */
+    public int getNoValue() {
+        return this.no_value;
+    }
+
+    //GROWTH UTILITIES
+    /**
+     * Grows the node arrays and values to the given capacity
+     */
+    @Override
+    void growSlots(int capacity) {
+        super.growSlots(capacity);
+        this.values = Arrays.copyOf(this.values, capacity);
+    }
+}
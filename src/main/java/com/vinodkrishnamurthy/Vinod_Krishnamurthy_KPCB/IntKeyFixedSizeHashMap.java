@@ -0,0 +1,113 @@
+package vinodKPCBChallenge;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size hash map keyed by primitive ints.
+ *
+ * It uses the same bucket and AVL tree layout as FixedSizeHashMap, but an int key
+ * is its own hash code. The hash array therefore holds the whole key, so a lookup
+ * never calls String.hashCode, never compares keys beyond one int comparison, and
+ * never boxes the key.
+ */
+public class IntKeyFixedSizeHashMap<T> extends FixedSizeTree {
+
+    //INSTANCE VARIABLES
+    /**
+     * The value held by each node (null for an unused slot)
+     */
+    private Object[] values;
+
+    //CONSTRUCTORS
+    /**
+     * Creates an instance of a fixed-size int-keyed hash map with one bucket per slot
+     * (rounded up to a power of two)
+     */
+    public IntKeyFixedSizeHashMap(int size) {
+        this(size, size);
+    }
+
+    /**
+     * Creates an instance of a fixed-size int-keyed hash map with the given number
+     * of buckets (rounded up to a power of two)
+     */
+    public IntKeyFixedSizeHashMap(int size, int buckets) {
+        super(size, buckets);
+        this.values = new Object[this.hashes.length];
+    }
+
+    //USER METHODS
+    /**
+     * Associates given key to a given value in this hash map.
+     * Returns a boolean indicating the success/failure of the operation.
+     */
+    public boolean set(int key, T value) {
+        if (this.elements < this.size && value != null) {
+            int bucket = this.bucket(key);
+            int depth = 0;
+            int cmp = 0;
+            int start_index = this.buckets[bucket];
+            //walk down to the empty link where the key belongs
+            while (start_index != -1) {
+                if (key == this.hashes[start_index]) {
+                    return false;
+                }
+                cmp = (key < this.hashes[start_index]) ? -1 : 1;
+                this.path[depth++] = start_index;
+                start_index = (cmp < 0) ? this.left[start_index] : this.right[start_index];
+            }
+            //link may grow the arrays, so it runs before values is read
+            int new_index = this.link(bucket, depth, cmp, key);
+            this.values[new_index] = value;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the value associated with a given key.
+     */
+    public T get(int key) {
+        int start_index = this.buckets[this.bucket(key)];
+        while (start_index != -1) {
+            if (key == this.hashes[start_index]) {
+                return (T) this.values[start_index];
+            }
+            start_index = (key < this.hashes[start_index]) ? this.left[start_index] : this.right[start_index];
+        }
+        return null;
+    }
+
+    /**
+     * Deletes the entry with the given key from this hash map
+     *
+     * Also returns the keys associated value
+     */
+    public T delete(int key) {
+        int bucket = this.bucket(key);
+        int depth = 0;
+        int start_index = this.buckets[bucket];
+        //walk down to the node to be removed
+        while (start_index != -1) {
+            if (key == this.hashes[start_index]) {
+                T node_value = (T) this.values[start_index];
+                this.unlink(bucket, depth, start_index);
+                this.values[start_index] = null;
+                return node_value;
+            }
+            this.path[depth++] = start_index;
+            start_index = (key < this.hashes[start_index]) ? this.left[start_index] : this.right[start_index];
+        }
+        return null;
+    }
+
+    //GROWTH UTILITIES
+    /**
+     * Grows the node arrays and values to the given capacity
+     */
+    @Override
+    void growSlots(int capacity) {
+        super.growSlots(capacity);
+        this.values = Arrays.copyOf(this.values, capacity);
+    }
+}
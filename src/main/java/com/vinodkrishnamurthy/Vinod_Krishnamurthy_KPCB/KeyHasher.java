@@ -0,0 +1,49 @@
+package vinodKPCBChallenge;
+
+/**
+ * Computes the hash code that places a key in a FixedSizeHashMap.
+ *
+ * The hash code picks the key's bucket and orders the key within the bucket's
+ * tree, so keys an attacker chose to share a hash code pile up in one tree. The
+ * JDK hash (String.hashCode) is cached by each String and costs nothing, but its
+ * collisions are easy to produce. For keys from untrusted sources, use the seeded
+ * SipHash, whose collisions cannot be predicted without the seed. The fast hash
+ * mixes better than the JDK hash for trusted keys that share long prefixes.
+ *
+ * A hasher works on the chars of the key, so a key gets the same hash code
+ * whether it is looked up as a String, a CharSequence, or UTF-8 bytes.
+ */
+public interface KeyHasher {
+    /**
+     * Returns the hash code of the given chars
+     */
+    int hash(CharSequence key);
+
+    /**
+     * Returns the hasher that gives String.hashCode, which is the default
+     */
+    static KeyHasher jdk() {
+        return KeyHashers.JDK;
+    }
+
+    /**
+     * Returns SipHash-2-4 over the UTF-16LE bytes of the key with a random seed
+     */
+    static KeyHasher sipHash() {
+        return KeyHashers.sipHash();
+    }
+
+    /**
+     * Returns SipHash-2-4 over the UTF-16LE bytes of the key with the given 128-bit seed
+     */
+    static KeyHasher sipHash(long k0, long k1) {
+        return new KeyHashers.SipHasher(k0, k1);
+    }
+
+    /**
+     * Returns a fast, seeded, non-cryptographic 64-bit hash for trusted keys
+     */
+    static KeyHasher fast(long seed) {
+        return new KeyHashers.FastHasher(seed);
+    }
+}
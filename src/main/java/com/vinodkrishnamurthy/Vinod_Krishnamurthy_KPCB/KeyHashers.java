@@ -0,0 +1,135 @@
+package vinodKPCBChallenge;
+
+import java.security.SecureRandom;
+
+/**
+ * The built-in KeyHasher implementations.
+ *
+ * Both 64-bit hashes read the key four chars at a time as little-endian 64-bit
+ * words, which is the same as reading its UTF-16LE bytes eight at a time, and
+ * fold the 64-bit result down to an int.
+ */
+final class KeyHashers {
+
+    /**
+     * The hasher that gives String.hashCode
+     */
+    static final KeyHasher JDK = new KeyHasher() {
+        public int hash(CharSequence key) {
+            if (key instanceof String) {
+                return key.hashCode();
+            }
+            int h = 0;
+            for (int i = 0; i < key.length(); i++) {
+                h = 31*h + key.charAt(i);
+            }
+            return h;
+        }
+    };
+
+    private KeyHashers() {}
+
+    /**
+     * Returns a SipHasher seeded from a SecureRandom
+     */
+    static KeyHasher sipHash() {
+        SecureRandom random = new SecureRandom();
+        return new SipHasher(random.nextLong(), random.nextLong());
+    }
+
+    /**
+     * Returns the four chars of the key starting at i as a little-endian word
+     */
+    private static long word(CharSequence key, int i) {
+        return key.charAt(i) | (long)key.charAt(i + 1) << 16
+            | (long)key.charAt(i + 2) << 32 | (long)key.charAt(i + 3) << 48;
+    }
+
+    /**
+     * Returns the chars of the key from i to the end (fewer than four) as a
+     * little-endian word
+     */
+    private static long tail(CharSequence key, int i) {
+        long word = 0;
+        for (int shift = 0; i < key.length(); i++, shift += 16) {
+            word |= (long)key.charAt(i) << shift;
+        }
+        return word;
+    }
+
+    /**
+     * SipHash-2-4 (Aumasson and Bernstein), a keyed hash designed against hash flooding
+     */
+    static final class SipHasher implements KeyHasher {
+        private final long k0;
+        private final long k1;
+
+        SipHasher(long k0, long k1) {
+            this.k0 = k0;
+            this.k1 = k1;
+        }
+
+        public int hash(CharSequence key) {
+            long v0 = this.k0 ^ 0x736f6d6570736575L;
+            long v1 = this.k1 ^ 0x646f72616e646f6dL;
+            long v2 = this.k0 ^ 0x6c7967656e657261L;
+            long v3 = this.k1 ^ 0x7465646279746573L;
+            int length = key.length();
+            int end = length & ~3;
+            for (int i = 0; i <= end; i += 4) {
+                //the last block holds the leftover chars and the length in bytes
+                long m = (i < end) ? word(key, i) : tail(key, i) | (long)(2*length) << 56;
+                v3 ^= m;
+                for (int round = 0; round < 2; round++) {
+                    v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0; v0 = Long.rotateLeft(v0, 32);
+                    v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+                    v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+                    v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2; v2 = Long.rotateLeft(v2, 32);
+                }
+                v0 ^= m;
+            }
+            v2 ^= 0xff;
+            for (int round = 0; round < 4; round++) {
+                v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0; v0 = Long.rotateLeft(v0, 32);
+                v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+                v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+                v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2; v2 = Long.rotateLeft(v2, 32);
+            }
+            long h = v0 ^ v1 ^ v2 ^ v3;
+            return (int)(h ^ (h >>> 32));
+        }
+    }
+
+    /**
+     * A multiply-rotate hash in the style of xxHash64, finished with the
+     * MurmurHash3 64-bit mixer
+     */
+    static final class FastHasher implements KeyHasher {
+        private static final long PRIME_1 = 0x9E3779B185EBCA87L;
+        private static final long PRIME_2 = 0xC2B2AE3D27D4EB4FL;
+
+        private final long seed;
+
+        FastHasher(long seed) {
+            this.seed = seed;
+        }
+
+        public int hash(CharSequence key) {
+            int length = key.length();
+            int end = length & ~3;
+            long h = this.seed ^ (length*PRIME_1);
+            for (int i = 0; i < end; i += 4) {
+                h = Long.rotateLeft(h ^ (word(key, i)*PRIME_2), 31)*PRIME_1;
+            }
+            if (end < length) {
+                h = Long.rotateLeft(h ^ (tail(key, end)*PRIME_2), 31)*PRIME_1;
+            }
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return (int)(h ^ (h >>> 32));
+        }
+    }
+}
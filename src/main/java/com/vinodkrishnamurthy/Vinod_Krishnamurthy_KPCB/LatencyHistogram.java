@@ -0,0 +1,101 @@
+package vinodKPCBChallenge;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of latencies in nanoseconds with log-linear buckets, in the style of
+ * HdrHistogram.
+ *
+ * Values below 8 get a bucket each. Every power of two above that is split into 8
+ * buckets, so a recorded value is known to within 12.5%, and any value up to
+ * Long.MAX_VALUE fits in 488 buckets. Each bucket is a LongAdder, so threads
+ * recording at the same time do not contend.
+ */
+final class LatencyHistogram {
+
+    //CONSTANTS
+    /**
+     * The number of bits of each value kept below its leading bit
+     */
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    static final int BUCKETS = (64 - SUB_BITS)*SUB_BUCKETS;
+
+    //INSTANCE VARIABLES
+    /**
+     * The number of values recorded in each bucket
+     */
+    private final LongAdder[] counts;
+
+    //CONSTRUCTOR
+    LatencyHistogram() {
+        this.counts = new LongAdder[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            this.counts[i] = new LongAdder();
+        }
+    }
+
+    //HISTOGRAM METHODS
+    /**
+     * Records a latency (negative latencies count as 0)
+     */
+    void record(long nanos) {
+        this.counts[index(Math.max(nanos, 0))].increment();
+    }
+
+    /**
+     * Returns a copy of the count of each bucket
+     */
+    long[] counts() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = this.counts[i].sum();
+        }
+        return counts;
+    }
+
+    /**
+     * Returns the bucket holding a value
+     */
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int)value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int)(value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1)*SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Returns the largest value that falls in a bucket
+     */
+    static long highestValue(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index/SUB_BUCKETS + SUB_BITS - 1;
+        long lowest = (long)(SUB_BUCKETS + index % SUB_BUCKETS) << (exponent - SUB_BITS);
+        return lowest + (1L << (exponent - SUB_BITS)) - 1;
+    }
+
+    /**
+     * Returns the value below which the given fraction (between 0 and 1) of the
+     * counted values fall, to the precision of a bucket, or 0 if there are none
+     */
+    static long percentile(long[] counts, double fraction) {
+        long total = 0;
+        for (long count : counts) total += count;
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long)Math.ceil(fraction*total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return highestValue(i);
+            }
+        }
+        return highestValue(counts.length - 1);
+    }
+}
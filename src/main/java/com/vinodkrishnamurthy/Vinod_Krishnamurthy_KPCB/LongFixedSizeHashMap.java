@@ -0,0 +1,144 @@
+package vinodKPCBChallenge;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size hash map from Strings to primitive longs.
+ *
+ * It uses the same bucket and AVL tree layout as FixedSizeHashMap, but keeps its
+ * values in a long[], so setting and getting a value never boxes it. Since a
+ * long cannot be null, a chosen sentinel value stands for "absent": getLong and
+ * deleteLong return it when the key is not found, and setLong refuses to store it.
+ */
+public class LongFixedSizeHashMap extends StringKeyedTree {
+
+    //CONSTANTS
+    /**
+     * The sentinel used for absent values unless another one is given
+     */
+    public static final long NO_VALUE = Long.MIN_VALUE;
+
+    //INSTANCE VARIABLES
+    /**
+     * The value held by each node
+     */
+    private long[] values;
+
+    /**
+     * The value returned for keys that are not in the hash map
+     */
+    private final long no_value;
+
+    //CONSTRUCTORS
+    /**
+     * Creates an instance of a fixed-size long hash map with one bucket per slot,
+     * using NO_VALUE for absent values
+     */
+    public LongFixedSizeHashMap(int size) {
+        this(size, size, NO_VALUE);
+    }
+
+    /**
+     * Creates an instance of a fixed-size long hash map with the given number of
+     * buckets (rounded up to a power of two) and sentinel for absent values
+     */
+    public LongFixedSizeHashMap(int size, int buckets, long no_value) {
+        super(size, buckets);
+        this.values = new long[this.hashes.length];
+        this.no_value = no_value;
+    }
+
+    //USER METHODS
+    /**
+     * Associates given key to a given value in this hash map.
+     * Returns a boolean indicating the success/failure of the operation.
+     */
+    public boolean setLong(String key, long value) {
+        if (this.elements < this.size && value != this.no_value) {
+            int hash = this.hash(key);
+            //a negative index means the key is already used
+            int node_index = this.insert(this.bucket(hash), hash, key);
+            if (node_index >= 0) {
+                this.values[node_index] = value;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the value associated with a given key, or the sentinel if there is none
+     */
+    public long getLong(String key) {
+        int node_index = (this.elements > 0) ? this.find(this.hash(key), key) : -1;
+        return (node_index != -1) ? this.values[node_index] : this.no_value;
+    }
+
+    /**
+     * Deletes the entry with the given key from this hash map
+     *
+     * Also returns the keys associated value, or the sentinel if there is none
+     */
+    public long deleteLong(String key) {
+        if (this.elements > 0) {
+            int hash = this.hash(key);
+            int node_index = this.remove(this.bucket(hash), hash, key);
+            if (node_index != -1) {
+                return this.values[node_index];
+            }
+        }
+        return this.no_value;
+    }
+
+    /**
+     * Adds delta to the value of a key, counting from 0 for a new key, and returns
+     * the sum. The node is found with a single descent and updated in place.
+     * Returns the sentinel, changing nothing, if the sum is the sentinel or the key
+     * is new and the hash map is full.
+     */
+    public long addAndGet(String key, long delta) {
+        int hash = this.hash(key);
+        int node_index;
+        if (this.elements < this.size) {
+            //a negative index means the key is already used
+            node_index = this.insert(this.bucket(hash), hash, key);
+            if (node_index >= 0) {
+                if (delta == this.no_value) {
+                    this.remove(this.bucket(hash), hash, key);
+                    return this.no_value;
+                }
+                this.values[node_index] = delta;
+                return delta;
+            }
+            node_index = ~node_index;
+        } else {
+            node_index = this.find(hash, key);
+            if (node_index == -1) {
+                return this.no_value;
+            }
+        }
+        long sum = this.values[node_index] + delta;
+        if (sum == this.no_value) {
+            return this.no_value;
+        }
+        this.values[node_index] = sum;
+        return sum;
+    }
+
+    /**
+     * Returns the sentinel that stands for an absent value
+     */
+    public long getNoValue() {
+        return this.no_value;
+    }
+
+    //GROWTH UTILITIES
+    /**
+     * Grows the node arrays and values to the given capacity
+     */
+    @Override
+    void growSlots(int capacity) {
+        super.growSlots(capacity);
+        this.values = Arrays.copyOf(this.values, capacity);
+    }
+}
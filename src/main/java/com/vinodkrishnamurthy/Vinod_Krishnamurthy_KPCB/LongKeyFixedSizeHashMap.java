@@ -0,0 +1,137 @@
+package vinodKPCBChallenge;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size hash map keyed by primitive longs.
+ *
+ * It uses the same bucket and AVL tree layout as FixedSizeHashMap. The hash code of
+ * a key is its two halves folded together (as in Long.hashCode), and the whole key
+ * is kept in a long[] for the comparisons that follow when hash codes collide, so
+ * a lookup never calls String.hashCode and never boxes the key.
+ */
+public class LongKeyFixedSizeHashMap<T> extends FixedSizeTree {
+
+    //INSTANCE VARIABLES
+    /**
+     * The key held by each node
+     */
+    private long[] keys;
+
+    /**
+     * The value held by each node (null for an unused slot)
+     */
+    private Object[] values;
+
+    //CONSTRUCTORS
+    /**
+     * Creates an instance of a fixed-size long-keyed hash map with one bucket per slot
+     * (rounded up to a power of two)
+     */
+    public LongKeyFixedSizeHashMap(int size) {
+        this(size, size);
+    }
+
+    /**
+     * Creates an instance of a fixed-size long-keyed hash map with the given number
+     * of buckets (rounded up to a power of two)
+     */
+    public LongKeyFixedSizeHashMap(int size, int buckets) {
+        super(size, buckets);
+        this.keys = new long[this.hashes.length];
+        this.values = new Object[this.hashes.length];
+    }
+
+    //USER METHODS
+    /**
+     * Associates given key to a given value in this hash map.
+     * Returns a boolean indicating the success/failure of the operation.
+     */
+    public boolean set(long key, T value) {
+        if (this.elements < this.size && value != null) {
+            int hash = (int)(key ^ (key >>> 32));
+            int bucket = this.bucket(hash);
+            int depth = 0;
+            int cmp = 0;
+            int start_index = this.buckets[bucket];
+            //walk down to the empty link where the key belongs
+            while (start_index != -1) {
+                cmp = this.compare(hash, key, start_index);
+                if (cmp == 0) {
+                    return false;
+                }
+                this.path[depth++] = start_index;
+                start_index = (cmp < 0) ? this.left[start_index] : this.right[start_index];
+            }
+            int new_index = this.link(bucket, depth, cmp, hash);
+            this.keys[new_index] = key;
+            this.values[new_index] = value;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the value associated with a given key.
+     */
+    public T get(long key) {
+        int hash = (int)(key ^ (key >>> 32));
+        int start_index = this.buckets[this.bucket(hash)];
+        while (start_index != -1) {
+            int cmp = this.compare(hash, key, start_index);
+            if (cmp == 0) {
+                return (T) this.values[start_index];
+            }
+            start_index = (cmp < 0) ? this.left[start_index] : this.right[start_index];
+        }
+        return null;
+    }
+
+    /**
+     * Deletes the entry with the given key from this hash map
+     *
+     * Also returns the keys associated value
+     */
+    public T delete(long key) {
+        int hash = (int)(key ^ (key >>> 32));
+        int bucket = this.bucket(hash);
+        int depth = 0;
+        int start_index = this.buckets[bucket];
+        //walk down to the node to be removed
+        while (start_index != -1) {
+            int cmp = this.compare(hash, key, start_index);
+            if (cmp == 0) {
+                T node_value = (T) this.values[start_index];
+                this.unlink(bucket, depth, start_index);
+                this.values[start_index] = null;
+                return node_value;
+            }
+            this.path[depth++] = start_index;
+            start_index = (cmp < 0) ? this.left[start_index] : this.right[start_index];
+        }
+        return null;
+    }
+
+    //TREE UTILITIES
+    /**
+     * Compares a hash and key with the node at index i, comparing the whole keys
+     * only when the hash codes are equal
+     */
+    private int compare(int hash, long key, int i) {
+        if (hash != this.hashes[i]) {
+            return (hash < this.hashes[i]) ? -1 : 1;
+        }
+        return Long.compare(key, this.keys[i]);
+    }
+
+    //GROWTH UTILITIES
+    /**
+     * Grows the node arrays, keys, and values to the given capacity
+     */
+    @Override
+    void growSlots(int capacity) {
+        super.growSlots(capacity);
+        this.keys = Arrays.copyOf(this.keys, capacity);
+        this.values = Arrays.copyOf(this.values, capacity);
+    }
+}
@@ -0,0 +1,99 @@
+package vinodKPCBChallenge;
+
+import java.util.Arrays;
+
+/**
+ * Evicts the least recently used entry.
+ *
+ * The entries form a doubly linked list threaded through two int arrays indexed
+ * by slot, from the most recently used at the head to the least recently used at
+ * the tail. Every operation relinks a constant number of slots.
+ */
+public class LruEviction implements EvictionPolicy {
+
+    //INSTANCE VARIABLES
+    /**
+     * The slot used just before each slot (-1 for the head)
+     */
+    private int[] prev;
+
+    /**
+     * The slot used just after each slot (-1 for the tail)
+     */
+    private int[] next;
+
+    /**
+     * The most recently used slot
+     */
+    private int head = -1;
+
+    /**
+     * The least recently used slot
+     */
+    private int tail = -1;
+
+    //METHODS
+    public void init(int size) {
+        if (this.prev != null) {
+            throw new IllegalStateException("An eviction policy can only be used by one hash map.");
+        }
+        this.prev = new int[size];
+        this.next = new int[size];
+        Arrays.fill(this.prev, -1);
+        Arrays.fill(this.next, -1);
+    }
+
+    public void onInsert(int slot) {
+        this.pushFront(slot);
+    }
+
+    public void onAccess(int slot) {
+        if (slot != this.head) {
+            this.unlink(slot);
+            this.pushFront(slot);
+        }
+    }
+
+    public void onRemove(int slot) {
+        this.unlink(slot);
+    }
+
+    public int victim() {
+        return this.tail;
+    }
+
+    //LIST UTILITIES
+    /**
+     * Makes the slot the head of the list
+     */
+    private void pushFront(int slot) {
+        this.prev[slot] = -1;
+        this.next[slot] = this.head;
+        if (this.head != -1) {
+            this.prev[this.head] = slot;
+        } else {
+            this.tail = slot;
+        }
+        this.head = slot;
+    }
+
+    /**
+     * Takes the slot out of the list
+     */
+    private void unlink(int slot) {
+        int before = this.prev[slot];
+        int after = this.next[slot];
+        if (before != -1) {
+            this.next[before] = after;
+        } else {
+            this.head = after;
+        }
+        if (after != -1) {
+            this.prev[after] = before;
+        } else {
+            this.tail = before;
+        }
+        this.prev[slot] = -1;
+        this.next[slot] = -1;
+    }
+}
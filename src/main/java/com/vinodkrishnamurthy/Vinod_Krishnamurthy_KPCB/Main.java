@@ -1,12 +1,39 @@
 package vinodKPCBChallenge;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.Console;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Locale;
 
 /**
  * A text-based, interactive program that demonstrates FixedSizeHashMap.
+ *
+ * Run with '--batch size [file]', it instead reads commands (see Command) from the
+ * file or from standard input, writes one response per command to standard output,
+ * and prints a throughput and latency summary to standard error.
  */
 public class Main {
-    public static void main(String[] args) {
+    /**
+     * The size of the buffers used by the batch mode
+     */
+    private static final int BUFFER = 1 << 16;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0) {
+            runBatch(args);
+            return;
+        }
+
         // variables
         String input, key, value;
         int size_input, choice;
@@ -104,6 +131,64 @@ public class Main {
             }
         }
     }
+
+    /**
+     * Runs the batch mode given its arguments: '--batch size [file]'
+     */
+    private static void runBatch(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3 || !args[0].equals("--batch") || !args[1].matches("^[1-9]\\d*$")) {
+            System.err.println("Usage: java -jar FixedSizeHashMap-1.0.jar [--batch size [file]]");
+            System.exit(1);
+        }
+        FixedSizeHashMap<String> hash_map = new FixedSizeHashMap<String>(Integer.parseInt(args[1]));
+        BufferedReader in = (args.length == 3)
+            ? Files.newBufferedReader(Paths.get(args[2]), StandardCharsets.UTF_8)
+            : new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), BUFFER);
+        Writer out = new BufferedWriter(
+            new OutputStreamWriter(new FileOutputStream(FileDescriptor.out), StandardCharsets.UTF_8), BUFFER);
+        long start = System.nanoTime();
+        long[] latencies = runCommands(hash_map, in, out);
+        long elapsed = System.nanoTime() - start;
+        in.close();
+        out.flush();
+        printSummary(System.err, latencies, elapsed);
+    }
+
+    /**
+     * Applies every command read from in to a hash map and writes each response to
+     * out, with no prompting. Blank lines and lines starting with '#' are skipped.
+     * Returns the count of commands by latency bucket (see LatencyHistogram).
+     */
+    static long[] runCommands(FixedSizeHashMap<String> hash_map, BufferedReader in, Writer out) throws IOException {
+        long[] latencies = new long[LatencyHistogram.BUCKETS];
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (line.isEmpty() || line.charAt(0) == '#') {
+                continue;
+            }
+            long start = System.nanoTime();
+            String response = Command.parse(line).apply(hash_map);
+            latencies[LatencyHistogram.index(System.nanoTime() - start)]++;
+            out.write(response);
+            out.write('\n');
+        }
+        return latencies;
+    }
+
+    /**
+     * Prints the number of commands, their throughput over the elapsed time
+     * (including I/O), and percentiles of the time spent applying each one
+     */
+    static void printSummary(PrintStream summary, long[] latencies, long elapsed) {
+        long count = 0;
+        for (long bucket : latencies) count += bucket;
+        double seconds = Math.max(elapsed, 1)/1e9;
+        summary.printf(Locale.ROOT, "%d commands in %.3f s (%.0f commands/s)%n", count, seconds, count/seconds);
+        summary.printf(Locale.ROOT, "latency ns: p50 %d, p99 %d, p99.9 %d, max %d%n",
+            LatencyHistogram.percentile(latencies, 0.5), LatencyHistogram.percentile(latencies, 0.99),
+            LatencyHistogram.percentile(latencies, 0.999), LatencyHistogram.percentile(latencies, 1.0));
+    }
+
     /**
      * Prints out menu
      */
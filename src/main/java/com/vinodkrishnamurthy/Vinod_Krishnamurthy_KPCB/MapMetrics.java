@@ -0,0 +1,234 @@
+package vinodKPCBChallenge;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Opt-in counters and histograms for a FixedSizeHashMap.
+ *
+ * Metrics are compiled in only when the JVM starts with
+ * -Dfixedsizehashmap.metrics=true. Every hook is guarded by the static final
+ * ENABLED flag, so without the property the JIT drops the hooks and the hash maps
+ * run exactly as if they had none. With the property, a hash map records metrics
+ * once enableMetrics is called on it, and the hooks of other hash maps cost one
+ * null check.
+ *
+ * Counters are LongAdders, so a snapshot or a JMX client can read them while the
+ * hash map is in use.
+ */
+public final class MapMetrics implements MapMetricsMXBean {
+
+    //CONSTANTS
+    /**
+     * Whether metrics are compiled in
+     */
+    static final boolean ENABLED = Boolean.getBoolean("fixedsizehashmap.metrics");
+
+    /*
+     * The rotation cases
+     */
+    public static final int LL = 0;
+    public static final int LR = 1;
+    public static final int RL = 2;
+    public static final int RR = 3;
+
+    /*
+     * The timed operations
+     */
+    public static final int SET = 0;
+    public static final int GET = 1;
+    public static final int DELETE = 2;
+
+    //INSTANCE VARIABLES
+    private final LongAdder sets = new LongAdder();
+    private final LongAdder gets = new LongAdder();
+    private final LongAdder deletes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder duplicate_rejections = new LongAdder();
+    private final LongAdder full_rejections = new LongAdder();
+
+    /**
+     * The number of rotations of each case
+     */
+    private final LongAdder[] rotations;
+
+    /**
+     * The number of finds and inserts that visited i nodes, at index i
+     */
+    private final LongAdder[] probes;
+
+    /**
+     * The latencies of each timed operation
+     */
+    private final LatencyHistogram[] latencies;
+
+    //CONSTRUCTOR
+    MapMetrics() {
+        this.rotations = adders(4);
+        this.probes = adders(FixedSizeTree.MAX_HEIGHT + 1);
+        this.latencies = new LatencyHistogram[3];
+        for (int i = 0; i < this.latencies.length; i++) {
+            this.latencies[i] = new LatencyHistogram();
+        }
+    }
+
+    //USER METHODS
+    /**
+     * Returns the current value of every counter and histogram
+     */
+    public MetricsSnapshot snapshot() {
+        long[][] latencies = new long[this.latencies.length][];
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = this.latencies[i].counts();
+        }
+        return new MetricsSnapshot(this.getSets(), this.getGets(), this.getDeletes(), this.getHits(),
+            this.getMisses(), this.getDuplicateRejections(), this.getFullRejections(), this.getRotations(),
+            this.getProbeHistogram(), latencies);
+    }
+
+    /**
+     * Registers these metrics with the platform MBean server under
+     * "vinodKPCBChallenge:type=FixedSizeHashMap,name=" followed by the given name,
+     * and returns the name they were registered under
+     */
+    public ObjectName register(String name) throws JMException {
+        ObjectName object_name = new ObjectName("vinodKPCBChallenge:type=FixedSizeHashMap,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, object_name);
+        return object_name;
+    }
+
+    public long getSets() {
+        return this.sets.sum();
+    }
+
+    public long getGets() {
+        return this.gets.sum();
+    }
+
+    public long getDeletes() {
+        return this.deletes.sum();
+    }
+
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    public long getDuplicateRejections() {
+        return this.duplicate_rejections.sum();
+    }
+
+    public long getFullRejections() {
+        return this.full_rejections.sum();
+    }
+
+    public long[] getRotations() {
+        return sums(this.rotations);
+    }
+
+    public long[] getProbeHistogram() {
+        return sums(this.probes);
+    }
+
+    public long getSetP50Nanos() {
+        return LatencyHistogram.percentile(this.latencies[SET].counts(), 0.5);
+    }
+
+    public long getSetP99Nanos() {
+        return LatencyHistogram.percentile(this.latencies[SET].counts(), 0.99);
+    }
+
+    public long getGetP50Nanos() {
+        return LatencyHistogram.percentile(this.latencies[GET].counts(), 0.5);
+    }
+
+    public long getGetP99Nanos() {
+        return LatencyHistogram.percentile(this.latencies[GET].counts(), 0.99);
+    }
+
+    public long getDeleteP50Nanos() {
+        return LatencyHistogram.percentile(this.latencies[DELETE].counts(), 0.5);
+    }
+
+    public long getDeleteP99Nanos() {
+        return LatencyHistogram.percentile(this.latencies[DELETE].counts(), 0.99);
+    }
+
+    //HOOKS
+    /**
+     * Records a set that took the given time (put, putIfAbsent, replace, compute,
+     * and merge count as sets)
+     */
+    void set(long nanos) {
+        this.sets.increment();
+        this.latencies[SET].record(nanos);
+    }
+
+    /**
+     * Records a get that took the given time
+     */
+    void get(boolean hit, long nanos) {
+        this.gets.increment();
+        (hit ? this.hits : this.misses).increment();
+        this.latencies[GET].record(nanos);
+    }
+
+    /**
+     * Records a delete that took the given time
+     */
+    void delete(long nanos) {
+        this.deletes.increment();
+        this.latencies[DELETE].record(nanos);
+    }
+
+    /**
+     * Records a set refused because the key was already used
+     */
+    void duplicate() {
+        this.duplicate_rejections.increment();
+    }
+
+    /**
+     * Records a set refused because the hash map was full
+     */
+    void full() {
+        this.full_rejections.increment();
+    }
+
+    /**
+     * Records a rotation of the given case
+     */
+    void rotation(int rotation) {
+        this.rotations[rotation].increment();
+    }
+
+    /**
+     * Records a find or insert that visited the given number of nodes
+     */
+    void probes(int nodes) {
+        this.probes[Math.min(nodes, FixedSizeTree.MAX_HEIGHT)].increment();
+    }
+
+    //MISC UTILITIES
+    private static LongAdder[] adders(int n) {
+        LongAdder[] adders = new LongAdder[n];
+        for (int i = 0; i < n; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    private static long[] sums(LongAdder[] adders) {
+        long[] sums = new long[adders.length];
+        for (int i = 0; i < adders.length; i++) {
+            sums[i] = adders[i].sum();
+        }
+        return sums;
+    }
+}
@@ -0,0 +1,42 @@
+package vinodKPCBChallenge;
+
+/**
+ * The JMX view of the MapMetrics of a FixedSizeHashMap (see MapMetrics.register)
+ */
+public interface MapMetricsMXBean {
+    long getSets();
+
+    long getGets();
+
+    long getDeletes();
+
+    long getHits();
+
+    long getMisses();
+
+    long getDuplicateRejections();
+
+    long getFullRejections();
+
+    /**
+     * Returns the number of LL, LR, RL, and RR rotations, in that order
+     */
+    long[] getRotations();
+
+    /**
+     * Returns the number of finds and inserts that visited i nodes, at index i
+     */
+    long[] getProbeHistogram();
+
+    long getSetP50Nanos();
+
+    long getSetP99Nanos();
+
+    long getGetP50Nanos();
+
+    long getGetP99Nanos();
+
+    long getDeleteP50Nanos();
+
+    long getDeleteP99Nanos();
+}
@@ -0,0 +1,375 @@
+package vinodKPCBChallenge;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Serves a FixedSizeHashMap of Strings over TCP with the protocol of Command: one
+ * command per line, one response line per command, in order.
+ *
+ * Each connection is read on its own thread: a virtual thread where the JVM has
+ * them (Java 21 and later), or a thread from a cached pool otherwise. Connection
+ * threads never touch the map. They queue each request on a RequestRing, and a
+ * single owner thread drains the ring in batches, applies the batch to the map, and
+ * completes the requests. The map needs no lock, and the owner keeps its trees in
+ * cache across a batch. A connection may pipeline: it sends every command it has
+ * read before waiting for the responses.
+ *
+ * A server created with pipelined set to false applies each request on the
+ * connection's thread under one lock around the map instead, as a baseline.
+ *
+ * A request that fails completes its own future exceptionally (and gets an ERROR
+ * line on a connection); the owner thread goes on with the next one. Once close
+ * has been called, submit returns a future that has already failed.
+ */
+
+public class MapServer implements Closeable {
+
+    //CONSTANTS
+    /**
+     * The number of requests the ring holds, and the most the owner applies at once
+     */
+    private static final int RING_CAPACITY = 1 << 16;
+    private static final int BATCH = 256;
+
+    /**
+     * The number of empty polls the owner spins through before it parks
+     */
+    private static final int SPINS = 1000;
+
+    /**
+     * The most responses a connection leaves pending before it writes them
+     */
+    private static final int MAX_PENDING = 1024;
+
+    //INSTANCE VARIABLES
+    /**
+     * The hash map, only used by the owner thread (or under its own lock when not
+     * pipelined)
+     */
+    private final FixedSizeHashMap<String> map;
+    private final boolean pipelined;
+
+    /**
+     * The queued requests and the thread applying them
+     */
+    private final RequestRing<Request> ring;
+    private final Thread owner;
+    private volatile boolean parked;
+    private volatile boolean running;
+
+    /**
+     * Whether close has been called, and the number of submits that may still be
+     * adding to the ring
+     */
+    private volatile boolean closed;
+    private final AtomicInteger submitting;
+
+    /**
+     * The listening socket, the thread accepting on it, the threads serving
+     * connections, and the open connections
+     */
+    private final ServerSocket server;
+    private final Thread acceptor;
+    private final ExecutorService connections;
+    private final Set<Socket> sockets;
+
+    //CONSTRUCTOR
+    /**
+     * Starts serving a new hash map of the given size on a port of localhost (0 picks
+     * a free port; see getPort)
+     */
+    public MapServer(int size, int port, boolean pipelined) throws IOException {
+        this(new FixedSizeHashMap<String>(size), port, pipelined);
+    }
+
+    /**
+     * Starts serving the given hash map, which only the server may use from now on
+     */
+    MapServer(FixedSizeHashMap<String> map, int port, boolean pipelined) throws IOException {
+        this.map = map;
+        this.pipelined = pipelined;
+        this.ring = new RequestRing<Request>(RING_CAPACITY);
+        this.running = true;
+        this.submitting = new AtomicInteger();
+        this.server = new ServerSocket();
+        this.server.bind(new InetSocketAddress("localhost", port));
+        this.connections = connectionExecutor();
+        this.sockets = ConcurrentHashMap.newKeySet();
+        this.owner = new Thread(new Runnable() {
+            public void run() {
+                applyRequests();
+            }
+        }, "fixed-size-hash-map-owner");
+        this.owner.setDaemon(true);
+        if (pipelined) {
+            this.owner.start();
+        }
+        this.acceptor = new Thread(new Runnable() {
+            public void run() {
+                acceptConnections();
+            }
+        }, "fixed-size-hash-map-acceptor");
+        this.acceptor.setDaemon(true);
+        this.acceptor.start();
+    }
+
+    /**
+     * Runs a server until the process is stopped:
+     *   java -cp FixedSizeHashMap-1.0.jar vinodKPCBChallenge.MapServer size [port] [--locked]
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || !args[0].matches("^[1-9]\\d*$")) {
+            System.err.println("Usage: MapServer size [port] [--locked]");
+            System.exit(1);
+        }
+        int size = Integer.parseInt(args[0]);
+        int port = (args.length > 1 && args[1].matches("^\\d+$")) ? Integer.parseInt(args[1]) : 7070;
+        boolean pipelined = !args[args.length - 1].equals("--locked");
+        MapServer server = new MapServer(size, port, pipelined);
+        System.out.printf("Serving a String hash map of size %d on port %d (%s).%n",
+            size, server.getPort(), pipelined ? "pipelined" : "locked");
+        try {
+            server.acceptor.join();
+        } catch (InterruptedException e) {
+            server.close();
+        }
+    }
+
+    //USER METHODS
+    /**
+     * Submits one line of the protocol and returns its response, completed once the
+     * command is applied. The future fails with the command's exception if applying
+     * it throws, and with an IllegalStateException if the server is closed.
+     */
+    public CompletableFuture<String> submit(String line) {
+        Request request = new Request(Command.parse(line));
+        //announce the submit before looking at closed, so close either sees it or is seen
+        this.submitting.incrementAndGet();
+        try {
+            if (this.closed) {
+                request.completeExceptionally(new IllegalStateException("The server is closed."));
+            } else if (!this.pipelined) {
+                synchronized (this.map) {
+                    request.apply(this.map);
+                }
+            } else {
+                //wait for the owner to make room when the ring is full
+                while (!this.ring.offer(request)) {
+                    Thread.yield();
+                }
+                if (this.parked) {
+                    LockSupport.unpark(this.owner);
+                }
+            }
+        } finally {
+            this.submitting.decrementAndGet();
+        }
+        return request;
+    }
+
+    /**
+     * Returns the port the server listens on
+     */
+    public int getPort() {
+        return this.server.getLocalPort();
+    }
+
+    /**
+     * Stops accepting connections, closes the open ones, and stops the owner thread
+     * once it has applied the requests already queued
+     */
+    public void close() throws IOException {
+        this.closed = true;
+        this.server.close();
+        try {
+            this.acceptor.join();
+            for (Socket socket : this.sockets) {
+                socket.close();
+            }
+            this.connections.shutdown();
+            this.connections.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            //let submits that started before close finish queueing
+            while (this.submitting.get() > 0) {
+                Thread.yield();
+            }
+            this.running = false;
+            if (this.pipelined) {
+                LockSupport.unpark(this.owner);
+                this.owner.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    //OWNER THREAD
+    /**
+     * Drains the ring in batches and applies each batch to the hash map, first all of
+     * its commands and then all of its completions. A command that throws fails its
+     * own request at once. Spins for a while when the ring is empty, then parks until
+     * a producer unparks it.
+     */
+    private void applyRequests() {
+        Request[] batch = new Request[BATCH];
+        String[] responses = new String[BATCH];
+        int idle = 0;
+        while (this.running || !this.ring.isEmpty()) {
+            int n = this.ring.drain(batch);
+            if (n == 0) {
+                if (++idle < SPINS) {
+                    Thread.yield();
+                    continue;
+                }
+                //publish parked before the last look, so a producer either sees it or is seen
+                this.parked = true;
+                if (this.ring.isEmpty() && this.running) {
+                    LockSupport.park(this);
+                }
+                this.parked = false;
+                idle = 0;
+                continue;
+            }
+            idle = 0;
+            for (int i = 0; i < n; i++) {
+                try {
+                    responses[i] = batch[i].command.apply(this.map);
+                } catch (RuntimeException | Error e) {
+                    batch[i].completeExceptionally(e);
+                }
+            }
+            for (int i = 0; i < n; i++) {
+                //completing a failed request again does nothing
+                batch[i].complete(responses[i]);
+                batch[i] = null;
+                responses[i] = null;
+            }
+        }
+    }
+
+    //CONNECTIONS
+    /**
+     * Accepts connections and serves each on a thread of its own until the server
+     * closes
+     */
+    private void acceptConnections() {
+        while (true) {
+            final Socket socket;
+            try {
+                socket = this.server.accept();
+            } catch (IOException e) {
+                //closed by close()
+                return;
+            }
+            this.sockets.add(socket);
+            this.connections.execute(new Runnable() {
+                public void run() {
+                    serve(socket);
+                }
+            });
+        }
+    }
+
+    /**
+     * Reads commands from a connection and writes their responses in order. Every
+     * command already read is submitted before the connection waits, so a client
+     * that pipelines gets its commands applied in the same batches.
+     */
+    private void serve(Socket socket) {
+        try (Socket connection = socket;
+             BufferedReader reader = new BufferedReader(
+                 new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter writer = new BufferedWriter(
+                 new OutputStreamWriter(connection.getOutputStream(), StandardCharsets.UTF_8))) {
+            connection.setTcpNoDelay(true);
+            ArrayDeque<CompletableFuture<String>> pending = new ArrayDeque<CompletableFuture<String>>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                pending.add(this.submit(line));
+                if (!reader.ready() || pending.size() >= MAX_PENDING) {
+                    while (!pending.isEmpty()) {
+                        writer.write(response(pending.poll()));
+                        writer.newLine();
+                    }
+                    writer.flush();
+                }
+            }
+        } catch (IOException e) {
+            //the client went away or the server closed
+        } finally {
+            this.sockets.remove(socket);
+        }
+    }
+
+    /**
+     * Waits for a request and returns its response line, or an ERROR line if it failed
+     */
+    private static String response(CompletableFuture<String> request) {
+        try {
+            return request.join();
+        } catch (CompletionException e) {
+            return "ERROR " + e.getCause();
+        }
+    }
+
+    /**
+     * Returns an executor that runs each connection on a new virtual thread, looked up
+     * reflectively so the server still runs on a JVM without them, where it falls back
+     * to a cached pool of daemon threads
+     */
+    private static ExecutorService connectionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(new ThreadFactory() {
+                public Thread newThread(Runnable task) {
+                    Thread thread = new Thread(task, "fixed-size-hash-map-connection");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+    }
+
+    /**
+     * A queued command, completed with its response by the owner thread
+     */
+    private static final class Request extends CompletableFuture<String> {
+        final Command command;
+
+        Request(Command command) {
+            this.command = command;
+        }
+
+        /**
+         * Applies the command to a hash map on the calling thread and completes this
+         * request with the response, or with the exception the command threw
+         */
+        void apply(FixedSizeHashMap<String> map) {
+            try {
+                this.complete(this.command.apply(map));
+            } catch (RuntimeException | Error e) {
+                this.completeExceptionally(e);
+            }
+        }
+    }
+}
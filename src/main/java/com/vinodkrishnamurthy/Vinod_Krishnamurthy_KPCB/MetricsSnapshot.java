@@ -0,0 +1,122 @@
+package vinodKPCBChallenge;
+
+/**
+ * The counters and histograms of a MapMetrics at one moment (see MapMetrics.snapshot)
+ */
+public final class MetricsSnapshot {
+
+    //INSTANCE VARIABLES
+    private final long sets;
+    private final long gets;
+    private final long deletes;
+    private final long hits;
+    private final long misses;
+    private final long duplicate_rejections;
+    private final long full_rejections;
+    private final long[] rotations;
+    private final long[] probes;
+
+    /**
+     * The latency histogram of each operation, indexed by MapMetrics.SET, GET, and DELETE
+     */
+    private final long[][] latencies;
+
+    //CONSTRUCTOR
+    MetricsSnapshot(long sets, long gets, long deletes, long hits, long misses, long duplicate_rejections,
+            long full_rejections, long[] rotations, long[] probes, long[][] latencies) {
+        this.sets = sets;
+        this.gets = gets;
+        this.deletes = deletes;
+        this.hits = hits;
+        this.misses = misses;
+        this.duplicate_rejections = duplicate_rejections;
+        this.full_rejections = full_rejections;
+        this.rotations = rotations;
+        this.probes = probes;
+        this.latencies = latencies;
+    }
+
+    //USER METHODS
+    public long getSets() {
+        return this.sets;
+    }
+
+    public long getGets() {
+        return this.gets;
+    }
+
+    public long getDeletes() {
+        return this.deletes;
+    }
+
+    public long getHits() {
+        return this.hits;
+    }
+
+    public long getMisses() {
+        return this.misses;
+    }
+
+    /**
+     * Returns the number of sets refused because the key was already used
+     */
+    public long getDuplicateRejections() {
+        return this.duplicate_rejections;
+    }
+
+    /**
+     * Returns the number of sets refused because the hash map was full
+     */
+    public long getFullRejections() {
+        return this.full_rejections;
+    }
+
+    /**
+     * Returns the number of rotations of the given case (MapMetrics.LL, LR, RL, or RR)
+     */
+    public long getRotations(int rotation) {
+        return this.rotations[rotation];
+    }
+
+    /**
+     * Returns the number of finds and inserts that visited the given number of nodes
+     */
+    public long getProbes(int nodes) {
+        return (nodes < this.probes.length) ? this.probes[nodes] : 0;
+    }
+
+    /**
+     * Returns the mean number of nodes a find or insert visited
+     */
+    public double getMeanProbes() {
+        long count = 0;
+        long nodes = 0;
+        for (int i = 0; i < this.probes.length; i++) {
+            count += this.probes[i];
+            nodes += i*this.probes[i];
+        }
+        return (count > 0) ? (double)nodes/count : 0;
+    }
+
+    /**
+     * Returns the latency in nanoseconds below which the given fraction (between 0
+     * and 1) of the operations of the given kind (MapMetrics.SET, GET, or DELETE)
+     * completed
+     */
+    public long getLatencyPercentile(int operation, double fraction) {
+        return LatencyHistogram.percentile(this.latencies[operation], fraction);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("sets=%d gets=%d deletes=%d hits=%d misses=%d duplicates=%d full=%d "
+            + "rotations(LL/LR/RL/RR)=%d/%d/%d/%d mean_probes=%.2f "
+            + "p50/p99 ns: set=%d/%d get=%d/%d delete=%d/%d",
+            this.sets, this.gets, this.deletes, this.hits, this.misses, this.duplicate_rejections,
+            this.full_rejections, this.rotations[0], this.rotations[1], this.rotations[2], this.rotations[3],
+            this.getMeanProbes(),
+            this.getLatencyPercentile(MapMetrics.SET, 0.5), this.getLatencyPercentile(MapMetrics.SET, 0.99),
+            this.getLatencyPercentile(MapMetrics.GET, 0.5), this.getLatencyPercentile(MapMetrics.GET, 0.99),
+            this.getLatencyPercentile(MapMetrics.DELETE, 0.5), this.getLatencyPercentile(MapMetrics.DELETE, 0.99));
+    }
+}
@@ -0,0 +1,439 @@
+package vinodKPCBChallenge;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A fixed-size hash map that keeps its entries outside the Java heap.
+ *
+ * The layout is the same as FixedSizeHashMap: buckets that each hold the root of an
+ * AVL tree, and a hierarchical bitmap of active slots. Here every slot is a
+ * fixed-width record in a direct ByteBuffer holding the node's hash code, links,
+ * height, key, and value. Keys are stored as chars, so a key may be at most
+ * max_key_length chars long, and values are written by a ValueCodec. The buckets
+ * and the bitmap live in direct buffers as well.
+ *
+ * The garbage collector never sees the entries, so the heap footprint stays nearly
+ * constant whatever the size, and a get allocates nothing but the value the codec
+ * returns. Direct memory is limited by -XX:MaxDirectMemorySize (the maximum heap
+ * size by default), which very large hash maps have to raise.
+ */
+
+public class OffHeapFixedSizeHashMap<T> {
+
+    //INSTANCE VARIABLES
+    /**
+     * The layout of the slot records, buckets, and bitmap
+     */
+    private final SlotLayout layout;
+
+    /**
+     * The direct buffers holding the slot records, each holding 2^slab_shift slots
+     * (the last one may hold fewer)
+     */
+    private final ByteBuffer[] slabs;
+
+    /**
+     * The log2 of the number of slots per slab
+     */
+    private final int slab_shift;
+
+    /**
+     * The mask selecting a slot's position within its slab
+     */
+    private final int slab_mask;
+
+    /**
+     * The number of bytes in a slot record
+     */
+    private final int record;
+
+    /**
+     * The offset of the value in a slot record
+     */
+    private final int value_offset;
+
+    /**
+     * The longest key, in chars
+     */
+    private final int max_key_length;
+
+    /**
+     * The codec that writes and reads values
+     */
+    private final ValueCodec<T> codec;
+
+    /**
+     * The direct buffer holding the index of the root node of each bucket's AVL tree
+     * (-1 for an empty bucket)
+     */
+    private final ByteBuffer buckets;
+
+    /**
+     * The mask used to select a bucket from a hash code (number of buckets - 1)
+     */
+    private final int mask;
+
+    /**
+     * The direct buffer holding every level of the hierarchical bitmap of active
+     * nodes, laid out by SlotLayout, and the bitmap over it
+     */
+    private final ByteBuffer bitmap_buffer;
+    private final SlotBitmap bitmap;
+
+    /**
+     * The links and heights of the slot records and the buckets, as AvlTrees
+     * changes them
+     */
+    private final AvlTrees.Nodes links;
+
+    /**
+     * The explicit stack of node indices visited on the way down a tree
+     */
+    private final int[] path;
+
+    /**
+     * The size of the hash map
+     */
+    private final int size;
+
+    /**
+     * The number of elements in the hash map
+     */
+    private int elements;
+
+    //CONSTRUCTORS
+    /**
+     * Creates an off-heap fixed-size hash map with one bucket per slot (rounded up
+     * to a power of two) for keys of at most max_key_length chars
+     */
+    public OffHeapFixedSizeHashMap(int size, int max_key_length, ValueCodec<T> codec) {
+        this(size, size, max_key_length, codec);
+    }
+
+    /**
+     * Creates an off-heap fixed-size hash map with the given number of buckets
+     * (rounded up to a power of two, and at most 2^28) for keys of at most
+     * max_key_length chars
+     */
+    public OffHeapFixedSizeHashMap(int size, int buckets, int max_key_length, ValueCodec<T> codec) {
+        this(new SlotLayout(size, buckets, max_key_length, codec.width()), codec, null, 0);
+        for (int b = 0; b <= this.mask; b++) {
+            this.buckets.putInt(4*b, -1);
+        }
+        this.bitmap.markEnds(this.size);
+    }
+
+    /**
+     * Creates an off-heap fixed-size hash map with the given layout. The buffers are
+     * mapped from a snapshot file when there is one, and allocated otherwise.
+     */
+    private OffHeapFixedSizeHashMap(SlotLayout layout, ValueCodec<T> codec, FileChannel file, int elements) {
+        this.layout = layout;
+        this.codec = codec;
+        this.max_key_length = layout.max_key_length;
+        this.value_offset = layout.value_offset;
+        this.record = layout.record;
+        this.slab_shift = layout.slab_shift;
+        this.slab_mask = (1 << layout.slab_shift) - 1;
+        this.slabs = new ByteBuffer[layout.slabCount()];
+        for (int i = 0; i < this.slabs.length; i++) {
+            this.slabs[i] = buffer(file, layout.slabPosition(i), layout.slabBytes(i));
+        }
+        this.buckets = buffer(file, layout.bucketsPosition(), 4*layout.bucket_count);
+        this.mask = layout.bucket_count - 1;
+        this.bitmap_buffer = buffer(file, layout.bitmapPosition(), layout.bitmap_bytes);
+        this.bitmap = SlotBitmap.wrap(this.bitmap_buffer, layout.levels, layout.size);
+        this.links = new AvlTrees.Nodes() {
+            public int left(int i) {
+                return slab(i).getInt(offset(i) + SlotLayout.LEFT);
+            }
+
+            public int right(int i) {
+                return slab(i).getInt(offset(i) + SlotLayout.RIGHT);
+            }
+
+            public void setLeft(int i, int child) {
+                slab(i).putInt(offset(i) + SlotLayout.LEFT, child);
+            }
+
+            public void setRight(int i, int child) {
+                slab(i).putInt(offset(i) + SlotLayout.RIGHT, child);
+            }
+
+            public int height(int i) {
+                return slab(i).get(offset(i) + SlotLayout.HEIGHT);
+            }
+
+            public void setHeight(int i, int height) {
+                slab(i).put(offset(i) + SlotLayout.HEIGHT, (byte)height);
+            }
+
+            public void setRoot(int bucket, int i) {
+                buckets.putInt(4*bucket, i);
+            }
+        };
+        this.path = new int[FixedSizeTree.MAX_HEIGHT];
+        this.size = layout.size;
+        this.elements = elements;
+    }
+
+    /**
+     * Opens a hash map from a snapshot written by snapshot or by
+     * FixedSizeHashMap.snapshot, using the codec it was written with.
+     *
+     * The file is mapped into memory instead of being read, so opening takes the
+     * same time whatever the number of entries, and gets are served straight from
+     * the mapping as its pages are touched. The mapping is private: sets and deletes
+     * change this hash map but never the file.
+     */
+    public static <T> OffHeapFixedSizeHashMap<T> open(Path path, ValueCodec<T> codec) throws IOException {
+        //a private mapping needs a channel opened for writing, even though the file never changes
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            int[] elements = new int[1];
+            SlotLayout layout = SlotLayout.read(file, codec.width(), elements);
+            return new OffHeapFixedSizeHashMap<T>(layout, codec, file, elements[0]);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Returns a direct buffer of the given number of bytes, mapped from the given
+     * position of the file if there is one
+     */
+    private static ByteBuffer buffer(FileChannel file, long position, int bytes) {
+        try {
+            ByteBuffer buffer = (file != null)
+                ? file.map(FileChannel.MapMode.PRIVATE, position, bytes)
+                : ByteBuffer.allocateDirect(bytes);
+            return buffer.order(ByteOrder.nativeOrder());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    //USER METHODS
+    /**
+     * Associates given key to a given value in this hash map.
+     * Returns a boolean indicating the success/failure of the operation.
+     * Throws an IllegalArgumentException if the key is longer than the hash map
+     * allows or the codec cannot store the value.
+     */
+    public boolean set(String key, T value) {
+        if (value == null) {
+            return false;
+        }
+        if (key.length() > this.max_key_length) {
+            throw new IllegalArgumentException("The key is longer than " + this.max_key_length + " chars.");
+        }
+        if (this.elements == this.size) {
+            return false;
+        }
+        int hash = key.hashCode();
+        int bucket = this.bucket(hash);
+        int depth = 0;
+        int cmp = 0;
+        int start_index = this.root(bucket);
+        //walk down to the empty link where the key belongs
+        while (start_index != -1) {
+            cmp = this.compare(hash, key, start_index);
+            if (cmp == 0) {
+                return false;
+            }
+            this.path[depth++] = start_index;
+            start_index = (cmp < 0) ? this.left(start_index) : this.right(start_index);
+        }
+        int new_index = this.bitmap.getAvailableNode();
+        ByteBuffer slab = this.slab(new_index);
+        int offset = this.offset(new_index);
+        //write the value while the slot is still free, so a value the codec
+        //refuses leaves the hash map untouched
+        this.codec.write(slab, offset + this.value_offset, value);
+        slab.putInt(offset + SlotLayout.HASH, hash);
+        slab.putInt(offset + SlotLayout.LEFT, -1);
+        slab.putInt(offset + SlotLayout.RIGHT, -1);
+        slab.put(offset + SlotLayout.HEIGHT, (byte)0);
+        slab.putChar(offset + SlotLayout.KEY_LENGTH, (char)key.length());
+        for (int i = 0; i < key.length(); i++) {
+            slab.putChar(offset + SlotLayout.KEY + 2*i, key.charAt(i));
+        }
+        this.bitmap.markActive(new_index);
+        this.elements++;
+        AvlTrees.link(this.links, this.path, bucket, depth, cmp, new_index, null);
+        return true;
+    }
+
+    /**
+     * Returns the value associated with a given key.
+     */
+    public T get(String key) {
+        int node_index = this.find(key);
+        return (node_index != -1) ? this.codec.read(this.slab(node_index), this.offset(node_index) + this.value_offset) : null;
+    }
+
+    /**
+     * Deletes the entry with the given key from this hash map
+     *
+     * Also returns the keys associated value
+     */
+    public T delete(String key) {
+        if (this.elements == 0 || key.length() > this.max_key_length) {
+            return null;
+        }
+        int hash = key.hashCode();
+        int bucket = this.bucket(hash);
+        int depth = 0;
+        int start_index = this.root(bucket);
+        //walk down to the node to be removed
+        while (start_index != -1) {
+            int cmp = this.compare(hash, key, start_index);
+            if (cmp == 0) {
+                T value = this.codec.read(this.slab(start_index), this.offset(start_index) + this.value_offset);
+                AvlTrees.unlink(this.links, this.path, bucket, depth, start_index, null);
+                this.bitmap.markFree(start_index);
+                this.elements--;
+                return value;
+            }
+            this.path[depth++] = start_index;
+            start_index = (cmp < 0) ? this.left(start_index) : this.right(start_index);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the load of this fixed-size hash map
+     */
+    public float load() {
+        return (float)this.elements/this.size;
+    }
+
+    /**
+     * Returns the size of the hashmap
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Returns the number of buckets in the hashmap
+     */
+    public int getBuckets() {
+        return this.mask + 1;
+    }
+
+    /**
+     * Returns the number of bytes of direct memory held by this hash map
+     */
+    public long getOffHeapBytes() {
+        long bytes = this.buckets.capacity() + this.bitmap_buffer.capacity();
+        for (ByteBuffer slab : this.slabs) {
+            bytes += slab.capacity();
+        }
+        return bytes;
+    }
+
+    /**
+     * Writes a snapshot of this hash map to the given file, which open can map
+     * back in. The file is replaced atomically.
+     */
+    public void snapshot(Path path) throws IOException {
+        this.layout.write(path, this.elements, this.bitmap_buffer, this.buckets, new SlotLayout.RecordSource() {
+            public void copy(int slot, ByteBuffer buffer, int offset) {
+                ByteBuffer record = slab(slot).duplicate();
+                record.limit(offset(slot) + OffHeapFixedSizeHashMap.this.record).position(offset(slot));
+                buffer.position(offset);
+                buffer.put(record);
+            }
+        });
+    }
+
+    //SLOT ACCESS
+    /**
+     * Returns the slab holding the record of the node at index i
+     */
+    private ByteBuffer slab(int i) {
+        return this.slabs[i >>> this.slab_shift];
+    }
+
+    /**
+     * Returns the byte offset of the record of the node at index i within its slab
+     */
+    private int offset(int i) {
+        return (i & this.slab_mask)*this.record;
+    }
+
+    private int hash(int i) {
+        return this.slab(i).getInt(this.offset(i) + SlotLayout.HASH);
+    }
+
+    private int left(int i) {
+        return this.slab(i).getInt(this.offset(i) + SlotLayout.LEFT);
+    }
+
+    private int right(int i) {
+        return this.slab(i).getInt(this.offset(i) + SlotLayout.RIGHT);
+    }
+
+    /**
+     * Returns the root node of a bucket's tree
+     */
+    private int root(int bucket) {
+        return this.buckets.getInt(4*bucket);
+    }
+
+    /**
+     * Returns the bucket selected by a hash code, as in FixedSizeTree
+     */
+    private int bucket(int hash) {
+        return (hash ^ (hash >>> 16)) & this.mask;
+    }
+
+    //TREE UTILITIES
+    /**
+     * Returns the index of the node with the given key, or -1 if there is none
+     */
+    private int find(String key) {
+        if (this.elements == 0 || key.length() > this.max_key_length) {
+            return -1;
+        }
+        int hash = key.hashCode();
+        int start_index = this.root(this.bucket(hash));
+        while (start_index != -1) {
+            int cmp = this.compare(hash, key, start_index);
+            if (cmp == 0) {
+                return start_index;
+            }
+            start_index = (cmp < 0) ? this.left(start_index) : this.right(start_index);
+        }
+        return -1;
+    }
+
+    /**
+     * Compares a hash and key with the node at index i, in the same order as
+     * StringKeyedTree: by hash code, then as String.compareTo would
+     */
+    private int compare(int hash, String key, int i) {
+        ByteBuffer slab = this.slab(i);
+        int offset = this.offset(i);
+        int node_hash = slab.getInt(offset + SlotLayout.HASH);
+        if (hash != node_hash) {
+            return (hash < node_hash) ? -1 : 1;
+        }
+        int length = key.length();
+        int node_length = slab.getChar(offset + SlotLayout.KEY_LENGTH);
+        int common = Math.min(length, node_length);
+        for (int k = 0; k < common; k++) {
+            int diff = key.charAt(k) - slab.getChar(offset + SlotLayout.KEY + 2*k);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return length - node_length;
+    }
+}
@@ -0,0 +1,100 @@
+package vinodKPCBChallenge;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bounded multi-producer, single-consumer ring buffer.
+ *
+ * Each slot has a sequence number that says whose turn it is. A producer claims
+ * position p by moving the tail from p to p + 1 once slot p's sequence is p, stores
+ * its item, and publishes it by setting the sequence to p + 1. The consumer takes
+ * position p once its sequence is p + 1, and hands the slot back to the producer of
+ * position p + capacity. Producers only contend on the tail, and the consumer never
+ * writes anything the producers spin on except the sequences.
+ */
+final class RequestRing<E> {
+
+    //INSTANCE VARIABLES
+    /**
+     * The items and the sequence number of each slot
+     */
+    private final Object[] items;
+    private final AtomicLongArray sequences;
+
+    /**
+     * The mask used to select a slot from a position (capacity - 1)
+     */
+    private final int mask;
+
+    /**
+     * The next position a producer claims
+     */
+    private final AtomicLong tail;
+
+    /**
+     * The next position the consumer takes. Only the consumer uses it.
+     */
+    private long head;
+
+    //CONSTRUCTOR
+    /**
+     * Creates a ring with room for capacity items (rounded up to a power of two)
+     */
+    RequestRing(int capacity) {
+        int slots = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        this.items = new Object[slots];
+        this.sequences = new AtomicLongArray(slots);
+        for (int i = 0; i < slots; i++) this.sequences.lazySet(i, i);
+        this.mask = slots - 1;
+        this.tail = new AtomicLong();
+    }
+
+    //RING METHODS
+    /**
+     * Adds an item if there is room. Returns false if the ring is full.
+     */
+    boolean offer(E item) {
+        while (true) {
+            long position = this.tail.get();
+            int slot = (int)position & this.mask;
+            long sequence = this.sequences.get(slot);
+            if (sequence == position) {
+                if (this.tail.compareAndSet(position, position + 1)) {
+                    this.items[slot] = item;
+                    this.sequences.set(slot, position + 1);
+                    return true;
+                }
+            } else if (sequence < position) {
+                //the consumer has not taken the item a lap ago
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Moves up to batch.length items into batch, in order, and returns how many. Only
+     * the consumer may call it.
+     */
+    int drain(E[] batch) {
+        int n = 0;
+        while (n < batch.length) {
+            int slot = (int)this.head & this.mask;
+            if (this.sequences.get(slot) != this.head + 1) {
+                break;
+            }
+            batch[n++] = (E) this.items[slot];
+            this.items[slot] = null;
+            this.sequences.lazySet(slot, this.head + this.items.length);
+            this.head++;
+        }
+        return n;
+    }
+
+    /**
+     * Returns whether the consumer would find nothing to take
+     */
+    boolean isEmpty() {
+        return this.sequences.get((int)this.head & this.mask) != this.head + 1;
+    }
+}
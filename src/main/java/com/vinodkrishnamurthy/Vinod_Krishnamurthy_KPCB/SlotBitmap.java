@@ -0,0 +1,201 @@
+package vinodKPCBChallenge;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The hierarchical bitmap that marks the active slots of a fixed-size hash map.
+ *
+ * Level 0 holds one bit per slot. Each level above summarizes the one below it: bit
+ * j of word i is set when word 64*i + j of the level below is full. The top level is
+ * a single word, so a free slot is found with one numberOfTrailingZeros per level.
+ * Bits past the end of a level are set so they are never handed out.
+ *
+ * FixedSizeTree keeps the words in long arrays and OffHeapFixedSizeHashMap keeps
+ * them in a direct buffer laid out by SlotLayout. Both reach them through word and
+ * setWord, so they share the allocator.
+ */
+abstract class SlotBitmap {
+
+    //INSTANCE VARIABLES
+    /**
+     * The number of words in each level, starting with the level that has one bit
+     * per slot
+     */
+    final int[] words;
+
+    //CONSTRUCTORS
+    private SlotBitmap(int bits) {
+        this.words = words(bits);
+    }
+
+    /**
+     * Returns an empty bitmap over the given number of bits, held in long arrays
+     */
+    static SlotBitmap create(int bits) {
+        SlotBitmap bitmap = new Words(bits);
+        bitmap.markEnds(bits);
+        return bitmap;
+    }
+
+    /**
+     * Returns a bitmap over the given number of bits held in the buffer, each level
+     * starting at the byte offset given by levels. The buffer is used as it is, so a
+     * new one must be cleared with markEnds.
+     */
+    static SlotBitmap wrap(ByteBuffer buffer, int[] levels, int bits) {
+        return new Buffer(buffer, levels, bits);
+    }
+
+    /**
+     * Returns the number of words in each level of a bitmap over the given number of bits
+     */
+    static int[] words(int bits) {
+        int levels = 1;
+        for (int words = (bits + 63) >>> 6; words > 1; words = (words + 63) >>> 6) levels++;
+        int[] words = new int[levels];
+        for (int level = 0; level < levels; level++) {
+            words[level] = (bits + 63) >>> 6;
+            bits = words[level];
+        }
+        return words;
+    }
+
+    //WORD ACCESS
+    /**
+     * Returns word i of a level
+     */
+    abstract long word(int level, int i);
+
+    /**
+     * Sets word i of a level
+     */
+    abstract void setWord(int level, int i, long word);
+
+    //BITMAP METHODS
+    /**
+     * Sets the bits past the end of each level of an empty bitmap over the given
+     * number of bits, so they are never handed out
+     */
+    final void markEnds(int bits) {
+        for (int level = 0; level < this.words.length; level++) {
+            if ((bits & 63) != 0) {
+                this.setWord(level, this.words[level] - 1, -1L << (bits & 63));
+            }
+            bits = this.words[level];
+        }
+    }
+
+    /**
+     * Returns the index of the first available node, or -1 if every node is active.
+     * Walks down from the top level, at each level taking the first word that is not
+     * full.
+     */
+    final int getAvailableNode() {
+        int top = this.words.length - 1;
+        if (this.word(top, 0) == -1L) {
+            return -1;
+        }
+        int i = 0;
+        for (int level = top; level >= 0; level--) {
+            i = (i << 6) + Long.numberOfTrailingZeros(~this.word(level, i));
+        }
+        return i;
+    }
+
+    /**
+     * Sets the bits of nodes 0 to count - 1 in the bitmap of an empty hash map, a
+     * word at a time, and marks the words above that became full
+     */
+    final void markActivePrefix(int count) {
+        for (int i = 0; i < count >>> 6; i++) {
+            this.setWord(0, i, -1L);
+        }
+        if ((count & 63) != 0) {
+            this.setWord(0, count >>> 6, this.word(0, count >>> 6) | ((1L << count) - 1));
+        }
+        int words = (count + 63) >>> 6;
+        for (int level = 1; level < this.words.length; level++) {
+            for (int i = 0; i < words; i++) {
+                if (this.word(level - 1, i) == -1L) {
+                    this.setWord(level, i >>> 6, this.word(level, i >>> 6) | (1L << i));
+                }
+            }
+            words = (words + 63) >>> 6;
+        }
+    }
+
+    /**
+     * Sets the xth bit in the bitmap, marking each level above whose word just
+     * became full
+     */
+    final void markActive(int x) {
+        for (int level = 0; level < this.words.length; level++) {
+            long word = this.word(level, x >>> 6) | (1L << x);
+            this.setWord(level, x >>> 6, word);
+            if (word != -1L) {
+                return;
+            }
+            x >>>= 6;
+        }
+    }
+
+    /**
+     * Clears the xth bit in the bitmap, clearing each level above whose word was full
+     */
+    final void markFree(int x) {
+        for (int level = 0; level < this.words.length; level++) {
+            long word = this.word(level, x >>> 6);
+            this.setWord(level, x >>> 6, word & ~(1L << x));
+            if (word != -1L) {
+                return;
+            }
+            x >>>= 6;
+        }
+    }
+
+    //STORAGE
+    /**
+     * A bitmap held in one long array per level
+     */
+    private static final class Words extends SlotBitmap {
+        private final long[][] levels;
+
+        Words(int bits) {
+            super(bits);
+            this.levels = new long[this.words.length][];
+            for (int level = 0; level < this.levels.length; level++) {
+                this.levels[level] = new long[this.words[level]];
+            }
+        }
+
+        long word(int level, int i) {
+            return this.levels[level][i];
+        }
+
+        void setWord(int level, int i, long word) {
+            this.levels[level][i] = word;
+        }
+    }
+
+    /**
+     * A bitmap held in a buffer, each level at its own byte offset
+     */
+    private static final class Buffer extends SlotBitmap {
+        private final ByteBuffer buffer;
+        private final int[] levels;
+
+        Buffer(ByteBuffer buffer, int[] levels, int bits) {
+            super(bits);
+            this.buffer = buffer;
+            this.levels = levels;
+        }
+
+        long word(int level, int i) {
+            return this.buffer.getLong(this.levels[level] + 8*i);
+        }
+
+        void setWord(int level, int i, long word) {
+            this.buffer.putLong(this.levels[level] + 8*i, word);
+        }
+    }
+}
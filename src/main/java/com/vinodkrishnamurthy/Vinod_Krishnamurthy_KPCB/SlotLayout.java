@@ -0,0 +1,298 @@
+package vinodKPCBChallenge;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The byte layout of an OffHeapFixedSizeHashMap, both in memory and in a snapshot file.
+ *
+ * Each slot is a fixed-width record holding the node's hash code, links, height,
+ * key chars, and value, and the records are split into slabs of at most 1GB. A
+ * snapshot file is a header followed by the bitmap, the buckets, and the slabs, each
+ * section starting at a multiple of 8 bytes, so every section can be mapped and used
+ * exactly as written. Everything is stored in the native byte order.
+ */
+final class SlotLayout {
+
+    //CONSTANTS
+    /*
+     * The layout of a slot record. The value starts at the first multiple of 8
+     * after the key.
+     */
+    static final int HASH = 0;
+    static final int LEFT = 4;
+    static final int RIGHT = 8;
+    static final int HEIGHT = 12;
+    static final int KEY_LENGTH = 14;
+    static final int KEY = 16;
+
+    /*
+     * The layout of the snapshot header
+     */
+    private static final int MAGIC = 0;
+    private static final int VERSION = 4;
+    private static final int SIZE = 8;
+    private static final int BUCKETS = 12;
+    private static final int MAX_KEY_LENGTH = 16;
+    private static final int VALUE_WIDTH = 20;
+    private static final int ELEMENTS = 24;
+    static final int HEADER = 64;
+
+    /**
+     * The first four bytes of a snapshot ("FSHM"), which also tell apart a file
+     * written in the other byte order
+     */
+    private static final int MAGIC_NUMBER = 0x4653484D;
+
+    /**
+     * The version of the snapshot format
+     */
+    static final int FORMAT_VERSION = 1;
+
+    /**
+     * The largest number of bytes in one slab
+     */
+    private static final int MAX_SLAB = 1 << 30;
+
+    /**
+     * The largest number of buckets
+     */
+    static final int MAX_BUCKETS = 1 << 28;
+
+    //INSTANCE VARIABLES
+    /**
+     * The number of slots
+     */
+    final int size;
+
+    /**
+     * The number of buckets (a power of two)
+     */
+    final int bucket_count;
+
+    /**
+     * The longest key, in chars
+     */
+    final int max_key_length;
+
+    /**
+     * The number of bytes of each value
+     */
+    final int value_width;
+
+    /**
+     * The offset of the value in a slot record
+     */
+    final int value_offset;
+
+    /**
+     * The number of bytes in a slot record
+     */
+    final int record;
+
+    /**
+     * The log2 of the number of slots per slab
+     */
+    final int slab_shift;
+
+    /**
+     * The byte offset of each level of the bitmap, starting with the level that has
+     * one bit per node
+     */
+    final int[] levels;
+
+    /**
+     * The number of bytes in the bitmap
+     */
+    final int bitmap_bytes;
+
+    //CONSTRUCTOR
+    /**
+     * Computes the layout for the given number of slots and buckets (rounded up to a
+     * power of two, and at most 2^28), keys of at most max_key_length chars, and
+     * values of value_width bytes
+     */
+    SlotLayout(int size, int buckets, int max_key_length, int value_width) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("The size of the hash map must be a positive integer.");
+        }
+        if (buckets <= 0) {
+            throw new IllegalArgumentException("The number of buckets must be a positive integer.");
+        }
+        if (max_key_length <= 0 || max_key_length > Character.MAX_VALUE) {
+            throw new IllegalArgumentException("The maximum length of a key must be between 1 and 65535.");
+        }
+        this.size = size;
+        int bucket_count = Math.min(Integer.highestOneBit(buckets), MAX_BUCKETS);
+        this.bucket_count = (bucket_count < buckets && bucket_count < MAX_BUCKETS) ? bucket_count << 1 : bucket_count;
+        this.max_key_length = max_key_length;
+        this.value_width = value_width;
+        this.value_offset = align(KEY + 2*max_key_length);
+        this.record = align(this.value_offset + value_width);
+        if (value_width < 0 || this.record > MAX_SLAB) {
+            throw new IllegalArgumentException("A slot record must fit in " + MAX_SLAB + " bytes.");
+        }
+        //as many slots per slab as fit, rounded down to a power of two
+        this.slab_shift = Integer.numberOfTrailingZeros(Integer.highestOneBit(MAX_SLAB/this.record));
+        //the levels of the bitmap follow each other
+        int[] words = SlotBitmap.words(size);
+        this.levels = new int[words.length];
+        int total = 0;
+        for (int level = 0; level < words.length; level++) {
+            this.levels[level] = total;
+            total += 8*words[level];
+        }
+        this.bitmap_bytes = total;
+    }
+
+    //LAYOUT
+    /**
+     * Returns the number of slabs
+     */
+    int slabCount() {
+        return (int)(((long)this.size + (1 << this.slab_shift) - 1) >>> this.slab_shift);
+    }
+
+    /**
+     * Returns the number of bytes in slab i
+     */
+    int slabBytes(int i) {
+        return Math.min(1 << this.slab_shift, this.size - (i << this.slab_shift))*this.record;
+    }
+
+    /**
+     * Returns the position of the bitmap in a snapshot file
+     */
+    long bitmapPosition() {
+        return HEADER;
+    }
+
+    /**
+     * Returns the position of the buckets in a snapshot file
+     */
+    long bucketsPosition() {
+        return this.bitmapPosition() + this.bitmap_bytes;
+    }
+
+    /**
+     * Returns the position of slab i in a snapshot file
+     */
+    long slabPosition(int i) {
+        long slabs = align(this.bucketsPosition() + 4L*this.bucket_count);
+        return slabs + ((long)i << this.slab_shift)*this.record;
+    }
+
+    //SNAPSHOT FILES
+    /**
+     * Copies slot records into a staging buffer while a snapshot is written
+     */
+    interface RecordSource {
+        /**
+         * Writes the record of the given slot into the buffer at the given offset
+         */
+        void copy(int slot, ByteBuffer buffer, int offset);
+    }
+
+    /**
+     * Writes a snapshot to path. The file is written next to path, forced to disk,
+     * and then moved over path, so a crash never leaves a torn snapshot behind and
+     * a hash map mapped from the old file keeps working.
+     */
+    void write(Path path, int elements, ByteBuffer bitmap, ByteBuffer buckets, RecordSource records) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel file = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER).order(ByteOrder.nativeOrder());
+            header.putInt(MAGIC, MAGIC_NUMBER);
+            header.putInt(VERSION, FORMAT_VERSION);
+            header.putInt(SIZE, this.size);
+            header.putInt(BUCKETS, this.bucket_count);
+            header.putInt(MAX_KEY_LENGTH, this.max_key_length);
+            header.putInt(VALUE_WIDTH, this.value_width);
+            header.putInt(ELEMENTS, elements);
+            writeFully(file, header, 0);
+            writeFully(file, bitmap.duplicate(), this.bitmapPosition());
+            writeFully(file, buckets.duplicate(), this.bucketsPosition());
+            //stage about 1MB of records at a time
+            int batch = Math.max(1, (1 << 20)/this.record);
+            ByteBuffer staging = ByteBuffer.allocateDirect(batch*this.record).order(ByteOrder.nativeOrder());
+            for (int slab = 0; slab < this.slabCount(); slab++) {
+                int first = slab << this.slab_shift;
+                int end = first + this.slabBytes(slab)/this.record;
+                for (int lo = first; lo < end; lo += batch) {
+                    int hi = Math.min(lo + batch, end);
+                    staging.clear();
+                    for (int slot = lo; slot < hi; slot++) {
+                        records.copy(slot, staging, (slot - lo)*this.record);
+                    }
+                    staging.limit((hi - lo)*this.record);
+                    writeFully(file, staging, this.slabPosition(slab) + (long)(lo - first)*this.record);
+                }
+            }
+            file.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads the layout from the header of a snapshot file and checks that the file
+     * is complete and that its values are value_width bytes wide. The header's
+     * element count is returned through elements[0].
+     */
+    static SlotLayout read(FileChannel file, int value_width, int[] elements) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER).order(ByteOrder.nativeOrder());
+        while (header.hasRemaining()) {
+            if (file.read(header, header.position()) < 0) {
+                throw new IOException("The snapshot is shorter than its header.");
+            }
+        }
+        if (header.getInt(MAGIC) != MAGIC_NUMBER) {
+            throw new IOException("The file is not a snapshot, or was written with another byte order.");
+        }
+        if (header.getInt(VERSION) != FORMAT_VERSION) {
+            throw new IOException("Unsupported snapshot version " + header.getInt(VERSION) + ".");
+        }
+        if (header.getInt(VALUE_WIDTH) != value_width) {
+            throw new IOException("The snapshot holds values of " + header.getInt(VALUE_WIDTH)
+                + " bytes, but the codec writes " + value_width + ".");
+        }
+        SlotLayout layout = new SlotLayout(header.getInt(SIZE), header.getInt(BUCKETS),
+            header.getInt(MAX_KEY_LENGTH), value_width);
+        if (layout.bucket_count != header.getInt(BUCKETS)) {
+            throw new IOException("The snapshot has an invalid number of buckets.");
+        }
+        int slabs = layout.slabCount();
+        if (file.size() < layout.slabPosition(slabs - 1) + layout.slabBytes(slabs - 1)) {
+            throw new IOException("The snapshot is truncated.");
+        }
+        elements[0] = header.getInt(ELEMENTS);
+        return layout;
+    }
+
+    /**
+     * Writes all of buffer at the given position of the file
+     */
+    private static void writeFully(FileChannel file, ByteBuffer buffer, long position) throws IOException {
+        buffer.rewind();
+        while (buffer.hasRemaining()) {
+            position += file.write(buffer, position);
+        }
+    }
+
+    /**
+     * Returns the smallest multiple of 8 that is greater than or equal to n
+     */
+    static int align(int n) {
+        return (n + 7) & ~7;
+    }
+
+    private static long align(long n) {
+        return (n + 7) & ~7L;
+    }
+}
@@ -0,0 +1,315 @@
+package vinodKPCBChallenge;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * A FixedSizeTree keyed by Strings.
+ *
+ * Each node keeps its String key next to the cached hash code. Nodes are ordered
+ * by hash code first, and nodes with equal hash codes are ordered by key, so the
+ * String comparison only runs when hash codes collide.
+ */
+abstract class StringKeyedTree extends FixedSizeTree {
+
+    //INSTANCE VARIABLES
+    /**
+     * The key held by each node (null for an unused slot)
+     */
+    String[] keys;
+
+    /**
+     * The hasher giving the hash code of each key (null for String.hashCode)
+     */
+    final KeyHasher hasher;
+
+    //CONSTRUCTORS
+    /**
+     * Creates the storage for a String-keyed fixed-size hash map
+     */
+    StringKeyedTree(int size, int buckets) {
+        this(size, buckets, null);
+    }
+
+    /**
+     * Creates the storage for a String-keyed fixed-size hash map that hashes its
+     * keys with the given hasher (null or KeyHasher.jdk() for String.hashCode)
+     */
+    StringKeyedTree(int size, int buckets, KeyHasher hasher) {
+        super(size, buckets);
+        this.keys = new String[this.hashes.length];
+        this.hasher = (hasher == KeyHasher.jdk()) ? null : hasher;
+    }
+
+    //TREE UTILITIES
+    /**
+     * Grows the node arrays and keys to the given capacity
+     */
+    @Override
+    void growSlots(int capacity) {
+        super.growSlots(capacity);
+        this.keys = Arrays.copyOf(this.keys, capacity);
+    }
+
+    /**
+     * Returns the hash code of a key. String.hashCode is cached by the String, so
+     * the default hasher is called directly.
+     */
+    final int hash(String key) {
+        return (this.hasher == null) ? key.hashCode() : this.hasher.hash(key);
+    }
+
+    /**
+     * Inserts a new node with the given hash and key into the bucket's tree.
+     *
+     * Returns the index of the new node, or the complement (~) of the index of the
+     * node that already holds the key. A slot is only taken once the descent has
+     * found that the key is new, so a duplicate leaves the hash map untouched.
+     * The caller must check that the hash map is not full.
+     */
+    final int insert(int bucket, int hash, String key) {
+        int depth = 0;
+        int cmp = 0;
+        int start_index = this.buckets[bucket];
+        //walk down to the empty link where the key belongs
+        while (start_index != -1) {
+            cmp = this.compare(hash, key, start_index);
+            if (cmp == 0) {
+                this.countProbes(depth + 1);
+                return ~start_index;
+            }
+            this.path[depth++] = start_index;
+            start_index = (cmp < 0) ? this.left[start_index] : this.right[start_index];
+        }
+        this.countProbes(depth);
+        int new_index = this.link(bucket, depth, cmp, hash);
+        this.keys[new_index] = key;
+        return new_index;
+    }
+
+    /**
+     * Returns the index of the node with the given hash and key, or -1 if there is none
+     */
+    final int find(int hash, String key) {
+        int start_index = this.buckets[this.bucket(hash)];
+        int visited = 0;
+        while (start_index != -1) {
+            visited++;
+            int cmp = this.compare(hash, key, start_index);
+            if (cmp == 0) {
+                this.countProbes(visited);
+                return start_index;
+            }
+            start_index = (cmp < 0) ? this.left[start_index] : this.right[start_index];
+        }
+        this.countProbes(visited);
+        return -1;
+    }
+
+    /**
+     * Returns the index of the node whose key has the same chars as the given
+     * CharSequence and whose hash is the given hash, or -1 if there is none
+     */
+    final int find(int hash, CharSequence key) {
+        int start_index = this.buckets[this.bucket(hash)];
+        int visited = 0;
+        while (start_index != -1) {
+            visited++;
+            int cmp = this.compare(hash, key, start_index);
+            if (cmp == 0) {
+                this.countProbes(visited);
+                return start_index;
+            }
+            start_index = (cmp < 0) ? this.left[start_index] : this.right[start_index];
+        }
+        this.countProbes(visited);
+        return -1;
+    }
+
+    /**
+     * Counts a find or insert that visited the given number of nodes when metrics
+     * are enabled. The count is dead code otherwise, so the JIT drops it.
+     */
+    final void countProbes(int visited) {
+        if (MapMetrics.ENABLED && this.metrics != null) {
+            this.metrics.probes(visited);
+        }
+    }
+
+    /**
+     * Returns the index of the node with the given hash and key, or -1 if there is
+     * none, while another thread may be changing the tree. The walk gives up after
+     * MAX_HEIGHT nodes and treats a cleared key as a mismatch, so a torn tree can
+     * make it return a wrong index but never loop or throw. The caller must
+     * validate the result before trusting it.
+     *
+     * The writer may also be growing the arrays, so each one is read once and every
+     * index is checked against all of them, and the bucket is taken from the length
+     * of the table that was read rather than from the mask.
+     */
+    final int findOptimistic(int hash, String key) {
+        int[] table = this.buckets;
+        int[] hashes = this.hashes;
+        int[] left = this.left;
+        int[] right = this.right;
+        String[] keys = this.keys;
+        int limit = Math.min(Math.min(hashes.length, keys.length), Math.min(left.length, right.length));
+        int start_index = table[(hash ^ (hash >>> 16)) & (table.length - 1)];
+        for (int steps = 0; start_index >= 0 && start_index < limit && steps < MAX_HEIGHT; steps++) {
+            int node_hash = hashes[start_index];
+            if (hash == node_hash) {
+                String node_key = keys[start_index];
+                if (node_key == null) {
+                    return -1;
+                }
+                int cmp = key.compareTo(node_key);
+                if (cmp == 0) {
+                    return start_index;
+                }
+                start_index = (cmp < 0) ? left[start_index] : right[start_index];
+            } else {
+                start_index = (hash < node_hash) ? left[start_index] : right[start_index];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Removes the node associated with the given hash and key from the bucket's tree.
+     * Returns the index of the removed node, whose slot is now free but whose
+     * payload the caller still has to clear, or -1 if no node holds the key.
+     */
+    final int remove(int bucket, int hash, String key) {
+        int depth = 0;
+        int start_index = this.buckets[bucket];
+        //walk down to the node to be removed
+        while (start_index != -1) {
+            int cmp = this.compare(hash, key, start_index);
+            if (cmp == 0) {
+                this.unlink(bucket, depth, start_index);
+                this.keys[start_index] = null;
+                return start_index;
+            }
+            this.path[depth++] = start_index;
+            start_index = (cmp < 0) ? this.left[start_index] : this.right[start_index];
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the indices of a batch of keys sorted the way they sit in the hash map:
+     * by bucket, then by hash code, then by key. Keys that are equal stay in batch
+     * order. The hash code of each key is stored in batch_hashes.
+     *
+     * The batch is sorted by bucket (or by hash code in tree mode) with one primitive
+     * sort, and the short runs that share a bucket are then put in order in place.
+     * A parallel sort hashes and sorts the batch on the ForkJoin pool.
+     */
+    final int[] sortBatch(final String[] batch, final int[] batch_hashes, boolean parallel) {
+        int n = batch.length;
+        long[] packed = new long[n];
+        if (parallel) {
+            Arrays.parallelSetAll(batch_hashes, new IntUnaryOperator() {
+                public int applyAsInt(int i) {
+                    return hash(batch[i]);
+                }
+            });
+        } else {
+            for (int i = 0; i < n; i++) batch_hashes[i] = this.hash(batch[i]);
+        }
+        for (int i = 0; i < n; i++) {
+            int hash = batch_hashes[i];
+            packed[i] = ((long)((this.mask == 0) ? hash : this.bucket(hash)) << 32) | i;
+        }
+        if (parallel) {
+            Arrays.parallelSort(packed);
+        } else {
+            Arrays.sort(packed);
+        }
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) order[i] = (int)packed[i];
+        //sort each run of equal buckets by hash code and key
+        int lo = 0;
+        while (lo < n) {
+            int hi = lo + 1;
+            while (hi < n && (packed[hi] >> 32) == (packed[lo] >> 32)) hi++;
+            if (hi - lo > 1) {
+                this.sortRun(batch, batch_hashes, order, lo, hi);
+            }
+            lo = hi;
+        }
+        return order;
+    }
+
+    /**
+     * Sorts order[lo] to order[hi - 1] by hash code, then key, then batch index.
+     * Runs are usually short and sorted with an insertion sort, but a long run of
+     * colliding keys is sorted with a merge sort so it cannot take quadratic time.
+     */
+    private void sortRun(final String[] batch, final int[] batch_hashes, int[] order, int lo, int hi) {
+        if (hi - lo <= 16) {
+            for (int i = lo + 1; i < hi; i++) {
+                for (int j = i; j > lo; j--) {
+                    int a = order[j - 1];
+                    int b = order[j];
+                    int hash_a = batch_hashes[a];
+                    int hash_b = batch_hashes[b];
+                    if (hash_a < hash_b || (hash_a == hash_b && batch[a].compareTo(batch[b]) <= 0)) {
+                        break;
+                    }
+                    order[j - 1] = b;
+                    order[j] = a;
+                }
+            }
+            return;
+        }
+        Integer[] run = new Integer[hi - lo];
+        for (int i = lo; i < hi; i++) run[i - lo] = order[i];
+        //a stable sort keeps equal keys in batch order
+        Arrays.sort(run, new Comparator<Integer>() {
+            public int compare(Integer a, Integer b) {
+                int hash_a = batch_hashes[a];
+                int hash_b = batch_hashes[b];
+                if (hash_a != hash_b) {
+                    return (hash_a < hash_b) ? -1 : 1;
+                }
+                return batch[a].compareTo(batch[b]);
+            }
+        });
+        for (int i = lo; i < hi; i++) order[i] = run[i - lo];
+    }
+
+    /**
+     * Compares a hash and key with the node at index i. The cached hash codes are
+     * compared first, and the keys are only compared when the hash codes are equal.
+     */
+    final int compare(int hash, String key, int i) {
+        if (hash != this.hashes[i]) {
+            return (hash < this.hashes[i]) ? -1 : 1;
+        }
+        String node_key = this.keys[i];
+        return (key == node_key) ? 0 : key.compareTo(node_key);
+    }
+
+    /**
+     * Compares a hash and the chars of a CharSequence with the node at index i, in
+     * the order compare(int, String, int) uses
+     */
+    final int compare(int hash, CharSequence key, int i) {
+        if (hash != this.hashes[i]) {
+            return (hash < this.hashes[i]) ? -1 : 1;
+        }
+        String node_key = this.keys[i];
+        int length = key.length();
+        int node_length = node_key.length();
+        int common = Math.min(length, node_length);
+        for (int k = 0; k < common; k++) {
+            int diff = key.charAt(k) - node_key.charAt(k);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return length - node_length;
+    }
+}
@@ -0,0 +1,62 @@
+package vinodKPCBChallenge;
+
+/**
+ * Decides how often a DurableFixedSizeHashMap forces its write-ahead log to disk.
+ *
+ * Forcing after every operation makes each set and delete durable before it
+ * returns. The other policies commit operations in groups: every n operations,
+ * or every n milliseconds from a background thread. A crash can then lose the
+ * operations of the last group, but never leaves the hash map inconsistent.
+ */
+public final class SyncPolicy {
+
+    //INSTANCE VARIABLES
+    /**
+     * The number of operations between forces (0 for a timed policy)
+     */
+    final int operations;
+
+    /**
+     * The number of milliseconds between forces (0 for a counted policy)
+     */
+    final long millis;
+
+    //CONSTRUCTOR
+    private SyncPolicy(int operations, long millis) {
+        this.operations = operations;
+        this.millis = millis;
+    }
+
+    //FACTORIES
+    /**
+     * Returns a policy that forces the log after every operation
+     */
+    public static SyncPolicy everyOperation() {
+        return new SyncPolicy(1, 0);
+    }
+
+    /**
+     * Returns a policy that forces the log once n operations have been written
+     */
+    public static SyncPolicy everyOperations(int n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("The number of operations must be a positive integer.");
+        }
+        return new SyncPolicy(n, 0);
+    }
+
+    /**
+     * Returns a policy that forces the log every n milliseconds
+     */
+    public static SyncPolicy everyMillis(long n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("The number of milliseconds must be a positive integer.");
+        }
+        return new SyncPolicy(0, n);
+    }
+
+    @Override
+    public String toString() {
+        return (this.operations > 0) ? "every " + this.operations + " operations" : "every " + this.millis + " ms";
+    }
+}
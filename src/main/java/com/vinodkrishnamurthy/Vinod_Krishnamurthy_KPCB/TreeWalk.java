@@ -0,0 +1,155 @@
+package vinodKPCBChallenge;
+
+/**
+ * An in-order walk over the nodes of a range of buckets of a FixedSizeTree that
+ * can be split in two, for cursors and spliterators.
+ *
+ * The walk visits, in order: the units it was handed by a split, then the buckets
+ * from lo to hi - 1. A unit is either the root of a whole subtree, or the
+ * complement (~) of a single node. A split leaves at most a single node followed
+ * by a subtree. The tree being walked is descended with an
+ * explicit stack of the nodes whose left subtree is done, so no recursion or
+ * allocation happens per node. The tree must not change during the walk.
+ */
+final class TreeWalk {
+
+    //INSTANCE VARIABLES
+    /**
+     * The tree being walked
+     */
+    private final FixedSizeTree tree;
+
+    /**
+     * The range of buckets not started yet
+     */
+    private int lo;
+    private final int hi;
+
+    /**
+     * The units to visit before the buckets, from units[first] to units[last - 1]
+     */
+    private final int[] units;
+    private int first;
+    private int last;
+
+    /**
+     * The nodes to visit next, whose left subtrees are done
+     */
+    private final int[] stack;
+    private int depth;
+
+    //CONSTRUCTORS
+    /**
+     * Creates a walk over buckets lo to hi - 1
+     */
+    TreeWalk(FixedSizeTree tree, int lo, int hi) {
+        this.tree = tree;
+        this.lo = lo;
+        this.hi = hi;
+        this.units = new int[3];
+        this.stack = new int[FixedSizeTree.MAX_HEIGHT];
+    }
+
+    //WALK METHODS
+    /**
+     * Returns the index of the next node, or -1 once the walk is done
+     */
+    int next() {
+        while (true) {
+            if (this.depth > 0) {
+                int node = this.stack[--this.depth];
+                this.pushLeft(this.tree.right[node]);
+                return node;
+            }
+            if (this.first < this.last) {
+                int unit = this.units[this.first++];
+                if (unit < 0) {
+                    return ~unit;
+                }
+                this.pushLeft(unit);
+            } else if (this.lo < this.hi) {
+                this.pushLeft(this.tree.buckets[this.lo++]);
+            } else {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Hands the first part of the remaining walk to a new walk and returns it, or
+     * returns null if the walk cannot be split. A range of buckets is split in half.
+     * A single tree is split at the root of its last subtree: the new walk takes the
+     * units before that subtree and its left subtree, and this walk keeps the root
+     * and the right subtree, so each later split halves what is left again.
+     */
+    TreeWalk split() {
+        if (this.depth > 0) {
+            return null;
+        }
+        if (this.first == this.last) {
+            if (this.hi - this.lo > 1) {
+                int mid = (this.lo + this.hi) >>> 1;
+                TreeWalk prefix = new TreeWalk(this.tree, this.lo, mid);
+                this.lo = mid;
+                return prefix;
+            }
+            if (this.hi - this.lo == 1) {
+                int root = this.tree.buckets[this.lo++];
+                if (root == -1) {
+                    return null;
+                }
+                this.first = 0;
+                this.last = 1;
+                this.units[0] = root;
+            } else {
+                return null;
+            }
+        }
+        //only a walk ending in a whole subtree is worth splitting
+        int root = this.units[this.last - 1];
+        if (this.lo < this.hi || root < 0) {
+            return null;
+        }
+        int left_index = this.tree.left[root];
+        if (this.first == this.last - 1 && left_index == -1) {
+            return null;
+        }
+        TreeWalk prefix = new TreeWalk(this.tree, 0, 0);
+        for (int i = this.first; i < this.last - 1; i++) {
+            prefix.units[prefix.last++] = this.units[i];
+        }
+        if (left_index != -1) {
+            prefix.units[prefix.last++] = left_index;
+        }
+        this.first = 0;
+        this.last = 0;
+        this.units[this.last++] = ~root;
+        if (this.tree.right[root] != -1) {
+            this.units[this.last++] = this.tree.right[root];
+        }
+        return prefix;
+    }
+
+    /**
+     * Returns an estimate of the number of nodes left: the average number of nodes
+     * per bucket for each bucket left, plus the most nodes each unit can hold
+     */
+    long estimate() {
+        long nodes = (long)this.tree.elements*(this.hi - this.lo)/this.tree.buckets.length + this.depth;
+        for (int i = this.first; i < this.last; i++) {
+            int unit = this.units[i];
+            nodes += (unit < 0) ? 1 : (1L << (this.tree.height[unit] + 1)) - 1;
+        }
+        return Math.min(nodes, this.tree.elements);
+    }
+
+    /**
+     * Pushes node and its chain of left children onto the stack
+     */
+    private void pushLeft(int node) {
+        while (node != -1) {
+            this.stack[this.depth++] = node;
+            node = this.tree.left[node];
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package vinodKPCBChallenge;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Stores the values of an OffHeapFixedSizeHashMap in its slot records.
+ *
+ * Every value takes the same number of bytes, so each slot can reserve room for
+ * its value up front. A codec writes at an absolute offset of the buffer it is
+ * given and must not change the buffer's position or limit.
+ */
+public interface ValueCodec<T> {
+    /**
+     * Returns the number of bytes each value takes
+     */
+    int width();
+
+    /**
+     * Writes a value at the given offset. Throws an IllegalArgumentException if the
+     * value does not fit in width() bytes.
+     */
+    void write(ByteBuffer buffer, int offset, T value);
+
+    /**
+     * Returns the value stored at the given offset
+     */
+    T read(ByteBuffer buffer, int offset);
+
+    /**
+     * Returns a codec for Integer values
+     */
+    static ValueCodec<Integer> ints() {
+        return new ValueCodec<Integer>() {
+            public int width() {
+                return 4;
+            }
+
+            public void write(ByteBuffer buffer, int offset, Integer value) {
+                buffer.putInt(offset, value);
+            }
+
+            public Integer read(ByteBuffer buffer, int offset) {
+                return buffer.getInt(offset);
+            }
+        };
+    }
+
+    /**
+     * Returns a codec for Long values
+     */
+    static ValueCodec<Long> longs() {
+        return new ValueCodec<Long>() {
+            public int width() {
+                return 8;
+            }
+
+            public void write(ByteBuffer buffer, int offset, Long value) {
+                buffer.putLong(offset, value);
+            }
+
+            public Long read(ByteBuffer buffer, int offset) {
+                return buffer.getLong(offset);
+            }
+        };
+    }
+
+    /**
+     * Returns a codec for String values of at most max_length chars, stored as a
+     * char count followed by the chars
+     */
+    static ValueCodec<String> strings(final int max_length) {
+        if (max_length <= 0 || max_length > Character.MAX_VALUE) {
+            throw new IllegalArgumentException("The maximum length of a value must be between 1 and 65535.");
+        }
+        return new ValueCodec<String>() {
+            public int width() {
+                return 2 + 2*max_length;
+            }
+
+            public void write(ByteBuffer buffer, int offset, String value) {
+                int length = value.length();
+                if (length > max_length) {
+                    throw new IllegalArgumentException("The value is longer than " + max_length + " chars.");
+                }
+                buffer.putChar(offset, (char)length);
+                for (int i = 0; i < length; i++) {
+                    buffer.putChar(offset + 2 + 2*i, value.charAt(i));
+                }
+            }
+
+            public String read(ByteBuffer buffer, int offset) {
+                char[] chars = new char[buffer.getChar(offset)];
+                for (int i = 0; i < chars.length; i++) {
+                    chars[i] = buffer.getChar(offset + 2 + 2*i);
+                }
+                return new String(chars);
+            }
+        };
+    }
+}
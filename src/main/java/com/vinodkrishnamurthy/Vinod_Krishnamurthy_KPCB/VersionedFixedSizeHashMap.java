@@ -0,0 +1,534 @@
+package vinodKPCBChallenge;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A fixed-size hash map whose readers never lock and never see a torn tree, while a
+ * writer changes it.
+ *
+ * The trees are persistent: a set or delete never changes a node that readers can
+ * reach. It copies the nodes on its path (and any node a rotation moves), links the
+ * copies into a new version of the bucket's tree, and publishes the new root with
+ * one atomic write. A reader reads the root once and walks that version, which no
+ * later write changes.
+ *
+ * The nodes a write replaces are retired, and their slots are reclaimed by epochs.
+ * Every write advances a global epoch. A reader announces the epoch it started in
+ * for the length of its lookup, and a node retired in epoch e is only reused once
+ * every reader still inside a lookup started after e. The slot pool holds size
+ * entries plus room for the copies of a few writes; when a write finds the room
+ * taken by retired nodes that readers may still hold, it waits for those readers.
+ * Each reading thread registers once; the writer drops the registrations of
+ * threads that have ended while it scans them, so threads that come and go do not
+ * pile up.
+ *
+ * Any number of threads may call get. Sets and deletes are serialized, so there is
+ * a single writer at a time.
+ */
+
+public class VersionedFixedSizeHashMap<T> {
+
+    //CONSTANTS
+    /**
+     * The link that points to no node
+     */
+    private static final int NONE = -1;
+
+    /**
+     * The most slots one write can take: a copy of each node on its path, plus a
+     * copy of the nodes a rotation moves at each level
+     */
+    private static final int WRITE_SLOTS = 3*FixedSizeTree.MAX_HEIGHT;
+
+    //INSTANCE VARIABLES
+    /**
+     * The hash code, links, height, key, and value of each node. A node is never
+     * changed once a published tree holds it, until its slot is reclaimed.
+     */
+    private final int[] hashes;
+    private final int[] left;
+    private final int[] right;
+    private final byte[] height;
+    private final String[] keys;
+    private final Object[] values;
+
+    /**
+     * The root of each bucket's current tree (NONE for an empty bucket)
+     */
+    private final AtomicIntegerArray roots;
+
+    /**
+     * The mask used to select a bucket from a hash code (number of buckets - 1)
+     */
+    private final int mask;
+
+    /**
+     * The size of the hash map and the number of elements in it
+     */
+    private final int size;
+    private volatile int elements;
+
+    /**
+     * The free slots, used as a stack
+     */
+    private final int[] free;
+    private int free_count;
+
+    /**
+     * Whether each slot was taken by the write in progress, so it can still be changed
+     * in place, and the slots taken by that write
+     */
+    private final boolean[] fresh;
+    private final int[] taken;
+    private int taken_count;
+
+    /**
+     * The retired slots in the order they were retired, with the epoch each was
+     * retired in, as a ring
+     */
+    private final int[] retired;
+    private final long[] retired_epochs;
+    private int retired_head;
+    private int retired_count;
+
+    /**
+     * The global epoch, advanced by every write
+     */
+    private final AtomicLong epoch;
+
+    /**
+     * The registration of each thread that has read from this hash map, and the
+     * current thread's own registration
+     */
+    private final CopyOnWriteArrayList<Reader> readers;
+    private final ThreadLocal<Reader> reader;
+
+    /**
+     * The links and heights of the nodes, as the rotations of AvlTrees change them
+     */
+    private final AvlTrees.Nodes links = new AvlTrees.Nodes() {
+        public int left(int i) {
+            return left[i];
+        }
+
+        public int right(int i) {
+            return right[i];
+        }
+
+        public void setLeft(int i, int child) {
+            left[i] = child;
+        }
+
+        public void setRight(int i, int child) {
+            right[i] = child;
+        }
+
+        public int height(int i) {
+            return height[i];
+        }
+
+        public void setHeight(int i, int height) {
+            VersionedFixedSizeHashMap.this.height[i] = (byte)height;
+        }
+
+        public void setRoot(int bucket, int i) {
+            //a write publishes the root of its new version itself
+            throw new UnsupportedOperationException();
+        }
+    };
+
+    //CONSTRUCTORS
+    /**
+     * Creates an instance of a versioned fixed-size hash map with one bucket per slot
+     * (rounded up to a power of two)
+     */
+    public VersionedFixedSizeHashMap(int size) {
+        this(size, size);
+    }
+
+    /**
+     * Creates an instance of a versioned fixed-size hash map with the given number of
+     * buckets (rounded up to a power of two). A single bucket keeps every node in one
+     * AVL tree.
+     */
+    public VersionedFixedSizeHashMap(int size, int buckets) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("The size of the hash map must be a positive integer.");
+        }
+        if (buckets <= 0) {
+            throw new IllegalArgumentException("The number of buckets must be a positive integer.");
+        }
+        int bucket_count = Integer.highestOneBit(Math.min(buckets, 1 << 30));
+        if (bucket_count < buckets && bucket_count < (1 << 30)) {
+            bucket_count <<= 1;
+        }
+        int slots = size + 2*WRITE_SLOTS;
+        this.hashes = new int[slots];
+        this.left = new int[slots];
+        this.right = new int[slots];
+        this.height = new byte[slots];
+        this.keys = new String[slots];
+        this.values = new Object[slots];
+        this.roots = new AtomicIntegerArray(bucket_count);
+        for (int b = 0; b < bucket_count; b++) this.roots.lazySet(b, NONE);
+        this.mask = bucket_count - 1;
+        this.size = size;
+        this.free = new int[slots];
+        for (int i = 0; i < slots; i++) this.free[i] = slots - 1 - i;
+        this.free_count = slots;
+        this.fresh = new boolean[slots];
+        this.taken = new int[WRITE_SLOTS];
+        this.retired = new int[slots];
+        this.retired_epochs = new long[slots];
+        this.epoch = new AtomicLong(1);
+        this.readers = new CopyOnWriteArrayList<Reader>();
+        this.reader = new ThreadLocal<Reader>() {
+            protected Reader initialValue() {
+                Reader registered = new Reader(Thread.currentThread());
+                readers.add(registered);
+                return registered;
+            }
+        };
+    }
+
+    //USER METHODS
+    /**
+     * Associates given key to a given value in this hash map.
+     * Returns a boolean indicating the success/failure of the operation.
+     */
+    public synchronized boolean set(String key, T value) {
+        if (value == null || this.elements == this.size) {
+            return false;
+        }
+        int hash = key.hashCode();
+        int bucket = this.bucket(hash);
+        int root = this.roots.get(bucket);
+        if (this.find(root, hash, key) != NONE) {
+            return false;
+        }
+        this.beginWrite();
+        int new_root = this.insert(root, hash, key, value);
+        this.publish(bucket, new_root);
+        this.elements++;
+        return true;
+    }
+
+    /**
+     * Returns the value associated with a given key. Never blocks, and sees either
+     * all of a concurrent write or none of it.
+     */
+    public T get(String key) {
+        AtomicLong announced = this.reader.get().announced;
+        announced.set(this.epoch.get());
+        try {
+            int hash = key.hashCode();
+            int node = this.find(this.roots.get(this.bucket(hash)), hash, key);
+            return (node != NONE) ? (T) this.values[node] : null;
+        } finally {
+            announced.lazySet(0);
+        }
+    }
+
+    /**
+     * Deletes the entry with the given key from this hash map
+     *
+     * Also returns the keys associated value
+     */
+    public synchronized T delete(String key) {
+        int hash = key.hashCode();
+        int bucket = this.bucket(hash);
+        int root = this.roots.get(bucket);
+        int node = this.find(root, hash, key);
+        if (node == NONE) {
+            return null;
+        }
+        T value = (T) this.values[node];
+        this.beginWrite();
+        int new_root = this.remove(root, hash, key);
+        this.publish(bucket, new_root);
+        this.elements--;
+        return value;
+    }
+
+    /**
+     * Returns the load of this fixed-size hash map
+     */
+    public float load() {
+        return (float)this.elements/this.size;
+    }
+
+    /**
+     * Returns the size of the hashmap
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Returns the number of buckets in the hashmap
+     */
+    public int getBuckets() {
+        return this.roots.length();
+    }
+
+    //VERSION UTILITIES
+    /**
+     * Makes sure the write about to start has room for all of its copies, reclaiming
+     * retired slots and waiting for readers that may still hold them if needed
+     */
+    private void beginWrite() {
+        this.reclaim();
+        while (this.free_count < WRITE_SLOTS) {
+            Thread.yield();
+            this.reclaim();
+        }
+        this.taken_count = 0;
+    }
+
+    /**
+     * Publishes the new root of a bucket's tree, then advances the epoch so that
+     * the nodes this write retired can be reclaimed once older readers are done
+     */
+    private void publish(int bucket, int new_root) {
+        for (int i = 0; i < this.taken_count; i++) this.fresh[this.taken[i]] = false;
+        this.roots.set(bucket, new_root);
+        this.epoch.incrementAndGet();
+    }
+
+    /**
+     * Frees the retired slots that no reader can hold any more: those retired before
+     * the oldest epoch a reader inside a lookup announced. Drops the registrations
+     * of readers whose threads have ended on the way.
+     */
+    private void reclaim() {
+        long oldest = Long.MAX_VALUE;
+        for (Reader registered : this.readers) {
+            long e = registered.announced.get();
+            if (e != 0 && e < oldest) {
+                oldest = e;
+            }
+            //a thread that has ended is outside any lookup, e is 0
+            Thread thread = registered.get();
+            if (thread == null || !thread.isAlive()) {
+                this.readers.remove(registered);
+            }
+        }
+        while (this.retired_count > 0 && this.retired_epochs[this.retired_head] < oldest) {
+            int slot = this.retired[this.retired_head];
+            this.keys[slot] = null;
+            this.values[slot] = null;
+            this.free[this.free_count++] = slot;
+            this.retired_head = (this.retired_head + 1 == this.retired.length) ? 0 : this.retired_head + 1;
+            this.retired_count--;
+        }
+    }
+
+    /**
+     * Returns the number of threads registered as readers
+     */
+    int readerCount() {
+        return this.readers.size();
+    }
+
+    /**
+     * Takes a free slot for a node of the write in progress
+     */
+    private int takeSlot() {
+        int slot = this.free[--this.free_count];
+        this.fresh[slot] = true;
+        this.taken[this.taken_count++] = slot;
+        return slot;
+    }
+
+    /**
+     * Retires the node at index i, which the write in progress has replaced. A node
+     * the write itself took was never published, so its slot is freed at once.
+     */
+    private void retire(int i) {
+        if (this.fresh[i]) {
+            this.fresh[i] = false;
+            this.keys[i] = null;
+            this.values[i] = null;
+            this.free[this.free_count++] = i;
+            return;
+        }
+        int tail = this.retired_head + this.retired_count;
+        if (tail >= this.retired.length) {
+            tail -= this.retired.length;
+        }
+        this.retired[tail] = i;
+        this.retired_epochs[tail] = this.epoch.get();
+        this.retired_count++;
+    }
+
+    /**
+     * Returns a node the write in progress may change in place: the node at index i
+     * if the write took it, and otherwise a copy of it that replaces it
+     */
+    private int writable(int i) {
+        if (this.fresh[i]) {
+            return i;
+        }
+        int copy = this.takeSlot();
+        this.hashes[copy] = this.hashes[i];
+        this.left[copy] = this.left[i];
+        this.right[copy] = this.right[i];
+        this.height[copy] = this.height[i];
+        this.keys[copy] = this.keys[i];
+        this.values[copy] = this.values[i];
+        this.retire(i);
+        return copy;
+    }
+
+    //TREE UTILITIES
+    /**
+     * Returns the bucket selected by a hash code, folding the high bits into the low
+     * bits like FixedSizeTree.bucket
+     */
+    private int bucket(int hash) {
+        return (hash ^ (hash >>> 16)) & this.mask;
+    }
+
+    /**
+     * Compares a hash and key with the node at index i, by hash code first and then
+     * by key
+     */
+    private int compare(int hash, String key, int i) {
+        if (hash != this.hashes[i]) {
+            return (hash < this.hashes[i]) ? -1 : 1;
+        }
+        return key.compareTo(this.keys[i]);
+    }
+
+    /**
+     * Returns the index of the node with the given hash and key in the tree rooted at
+     * node, or NONE if there is none
+     */
+    private int find(int node, int hash, String key) {
+        while (node != NONE) {
+            int cmp = this.compare(hash, key, node);
+            if (cmp == 0) {
+                return node;
+            }
+            node = (cmp < 0) ? this.left[node] : this.right[node];
+        }
+        return node;
+    }
+
+    /**
+     * Returns the root of a new version of the tree rooted at node that also holds the
+     * given key, which must not be in it yet
+     */
+    private int insert(int node, int hash, String key, Object value) {
+        if (node == NONE) {
+            int new_index = this.takeSlot();
+            this.hashes[new_index] = hash;
+            this.left[new_index] = NONE;
+            this.right[new_index] = NONE;
+            this.height[new_index] = 0;
+            this.keys[new_index] = key;
+            this.values[new_index] = value;
+            return new_index;
+        }
+        int cmp = this.compare(hash, key, node);
+        int copy = this.writable(node);
+        if (cmp < 0) {
+            this.left[copy] = this.insert(this.left[copy], hash, key, value);
+        } else {
+            this.right[copy] = this.insert(this.right[copy], hash, key, value);
+        }
+        return this.rebalance(copy);
+    }
+
+    /**
+     * Returns the root of a new version of the tree rooted at node without the given
+     * key, which must be in it
+     */
+    private int remove(int node, int hash, String key) {
+        int cmp = this.compare(hash, key, node);
+        if (cmp == 0) {
+            int left_index = this.left[node];
+            int right_index = this.right[node];
+            this.retire(node);
+            if (left_index == NONE || right_index == NONE) {
+                return (left_index != NONE) ? left_index : right_index;
+            }
+            //the successor (smallest node in right subtree) takes the node's place
+            int successor = right_index;
+            while (this.left[successor] != NONE) successor = this.left[successor];
+            int new_right = this.removeMin(right_index);
+            successor = this.writable(successor);
+            this.left[successor] = left_index;
+            this.right[successor] = new_right;
+            return this.rebalance(successor);
+        }
+        int copy = this.writable(node);
+        if (cmp < 0) {
+            this.left[copy] = this.remove(this.left[copy], hash, key);
+        } else {
+            this.right[copy] = this.remove(this.right[copy], hash, key);
+        }
+        return this.rebalance(copy);
+    }
+
+    /**
+     * Returns the root of a new version of the tree rooted at node without its
+     * smallest node, which is left for the caller to move or retire
+     */
+    private int removeMin(int node) {
+        if (this.left[node] == NONE) {
+            return this.right[node];
+        }
+        int copy = this.writable(node);
+        this.left[copy] = this.removeMin(this.left[copy]);
+        return this.rebalance(copy);
+    }
+
+    /**
+     * Balances the AVL subtree rooted at the writable node start_index with the
+     * rotations of AvlTrees, after replacing the children a rotation moves with
+     * writable copies
+     */
+    private int rebalance(int start_index) {
+        int rotation = AvlTrees.rotationCase(this.links, start_index);
+        if (rotation == -1) {
+            AvlTrees.updateHeight(this.links, start_index);
+            return start_index;
+        }
+        //left subtree heavy: LL moves the left child, LR also its right child
+        if (rotation == MapMetrics.LL || rotation == MapMetrics.LR) {
+            int left_index = this.writable(this.left[start_index]);
+            this.left[start_index] = left_index;
+            if (rotation == MapMetrics.LR) {
+                this.right[left_index] = this.writable(this.right[left_index]);
+            }
+        }
+        //right subtree heavy: RR moves the right child, RL also its left child
+        else {
+            int right_index = this.writable(this.right[start_index]);
+            this.right[start_index] = right_index;
+            if (rotation == MapMetrics.RL) {
+                this.left[right_index] = this.writable(this.left[right_index]);
+            }
+        }
+        return AvlTrees.rotate(this.links, start_index, rotation);
+    }
+
+    //READERS
+    /**
+     * A reading thread's registration: the epoch it announced for the lookup it is
+     * in (0 outside a lookup). The thread is only weakly held, so a registration
+     * never keeps an ended thread alive.
+     */
+    private static final class Reader extends WeakReference<Thread> {
+        final AtomicLong announced = new AtomicLong();
+
+        Reader(Thread thread) {
+            super(thread);
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package vinodKPCBChallenge;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only log of the sets and deletes of a DurableFixedSizeHashMap.
+ *
+ * Each record is the length of its payload, the CRC32 of the payload, and the
+ * payload itself: the operation, the key's length and chars, and for a set the
+ * value written by the codec. Records are gathered in a buffer and written and
+ * forced together as the SyncPolicy allows. A crash can leave a torn record at the
+ * end of the log, which replay detects by its length or checksum and cuts off.
+ *
+ * The log is fail-stop. Once a write or force throws, the file may end in a torn
+ * record or hold records that were never forced, and the records that failed may
+ * or may not be on disk. The log then refuses every later append and sync, since
+ * a record written after a torn one would be cut off by replay along with it.
+ * Only reopening the log's directory, which replays what did reach the file,
+ * recovers.
+ */
+final class WriteAheadLog<T> {
+
+    //CONSTANTS
+    static final byte SET = 1;
+    static final byte DELETE = 2;
+
+    /**
+     * The bytes before the payload of a record (its length and checksum)
+     */
+    private static final int RECORD_HEADER = 8;
+
+    /**
+     * The bytes before the key chars in a payload (the operation and key length)
+     */
+    private static final int PAYLOAD_HEADER = 3;
+
+    //INSTANCE VARIABLES
+    /**
+     * The log file, opened for appending
+     */
+    private final FileChannel channel;
+
+    /**
+     * The records that have not been written to the channel yet
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * The codec that writes values
+     */
+    private final ValueCodec<T> codec;
+
+    /**
+     * The policy deciding when the log is forced
+     */
+    private final SyncPolicy policy;
+
+    /**
+     * The checksum of the record being appended
+     */
+    private final CRC32 crc;
+
+    /**
+     * The thread forcing the log for a timed policy (null otherwise)
+     */
+    private final ScheduledExecutorService timer;
+
+    /**
+     * The number of records appended since the log was last forced
+     */
+    private int unsynced;
+
+    /**
+     * The write or force that failed, after which the log refuses everything (null
+     * while the log is healthy)
+     */
+    private IOException failure;
+
+    //CONSTRUCTOR
+    /**
+     * Opens the log file for appending, creating it if needed
+     */
+    WriteAheadLog(Path path, ValueCodec<T> codec, SyncPolicy policy) throws IOException {
+        this(FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE), codec, policy);
+    }
+
+    /**
+     * Appends to the end of an open log file
+     */
+    WriteAheadLog(FileChannel channel, ValueCodec<T> codec, SyncPolicy policy) throws IOException {
+        this.channel = channel;
+        this.channel.position(this.channel.size());
+        this.buffer = ByteBuffer.allocate(Math.max(1 << 16, maxRecord(codec)));
+        this.codec = codec;
+        this.policy = policy;
+        this.crc = new CRC32();
+        if (policy.millis > 0) {
+            this.timer = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                public Thread newThread(Runnable task) {
+                    Thread thread = new Thread(task, "write-ahead-log-sync");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            this.timer.scheduleAtFixedRate(new Runnable() {
+                public void run() {
+                    try {
+                        sync();
+                    } catch (IOException e) {
+                        //the log has failed, the next append reports it
+                    }
+                }
+            }, policy.millis, policy.millis, TimeUnit.MILLISECONDS);
+        } else {
+            this.timer = null;
+        }
+    }
+
+    //LOG METHODS
+    /**
+     * Appends a set or delete (with a null value) of the given key, and forces the
+     * log if the policy asks for it. Throws an IOException without writing anything
+     * if the log has failed. If the write or force fails here, the record may or
+     * may not reach the disk, and the log has failed.
+     */
+    synchronized void append(byte operation, String key, T value) throws IOException {
+        this.checkFailure();
+        int length = PAYLOAD_HEADER + 2*key.length() + ((operation == SET) ? this.codec.width() : 0);
+        if (this.buffer.remaining() < RECORD_HEADER + length) {
+            this.flush();
+        }
+        int start = this.buffer.position();
+        int payload = start + RECORD_HEADER;
+        this.buffer.putInt(start, length);
+        this.buffer.put(payload, operation);
+        this.buffer.putChar(payload + 1, (char)key.length());
+        for (int i = 0; i < key.length(); i++) {
+            this.buffer.putChar(payload + PAYLOAD_HEADER + 2*i, key.charAt(i));
+        }
+        if (operation == SET) {
+            this.codec.write(this.buffer, payload + PAYLOAD_HEADER + 2*key.length(), value);
+        }
+        this.crc.reset();
+        this.crc.update(this.buffer.array(), payload, length);
+        this.buffer.putInt(start + 4, (int)this.crc.getValue());
+        this.buffer.position(payload + length);
+        if (this.policy.operations > 0 && ++this.unsynced >= this.policy.operations) {
+            this.sync();
+        }
+    }
+
+    /**
+     * Writes every buffered record and forces the log to disk. A failure leaves the
+     * durability of the buffered records unknown, and the log failed.
+     */
+    synchronized void sync() throws IOException {
+        this.checkFailure();
+        this.flush();
+        try {
+            this.channel.force(false);
+        } catch (IOException e) {
+            this.failure = e;
+            throw e;
+        }
+        this.unsynced = 0;
+    }
+
+    /**
+     * Forces the log and closes it. The file is closed even if the log has failed,
+     * which is then reported.
+     */
+    synchronized void close() throws IOException {
+        if (this.timer != null) {
+            this.timer.shutdownNow();
+        }
+        try {
+            this.sync();
+        } finally {
+            this.channel.close();
+        }
+    }
+
+    /**
+     * Writes the buffered records to the channel without forcing them
+     */
+    private void flush() throws IOException {
+        this.buffer.flip();
+        try {
+            while (this.buffer.hasRemaining()) {
+                this.channel.write(this.buffer);
+            }
+        } catch (IOException e) {
+            //part of the buffer may be in the file, nothing may follow it
+            this.failure = e;
+            throw e;
+        }
+        this.buffer.clear();
+    }
+
+    /**
+     * Throws an IOException if a write or force has failed before
+     */
+    private void checkFailure() throws IOException {
+        if (this.failure != null) {
+            throw new IOException("The log failed earlier, reopen the hash map to recover it.", this.failure);
+        }
+    }
+
+    /**
+     * Returns the largest record a key and value can make
+     */
+    private static int maxRecord(ValueCodec<?> codec) {
+        return RECORD_HEADER + PAYLOAD_HEADER + 2*Character.MAX_VALUE + codec.width();
+    }
+
+    //REPLAY
+    /**
+     * Applies every complete record of the log file to the hash map, and cuts off a
+     * torn record at the end. Returns the number of records applied.
+     */
+    static <T> int replay(Path path, OffHeapFixedSizeHashMap<T> map, ValueCodec<T> codec) throws IOException {
+        int records = 0;
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(Math.max(1 << 20, maxRecord(codec)));
+            buffer.flip();
+            CRC32 crc = new CRC32();
+            long position = 0;
+            while (fill(file, buffer, RECORD_HEADER)) {
+                int start = buffer.position();
+                int length = buffer.getInt(start);
+                if (length < PAYLOAD_HEADER || length > maxRecord(codec) - RECORD_HEADER
+                        || !fill(file, buffer, RECORD_HEADER + length)) {
+                    break;
+                }
+                start = buffer.position();
+                int payload = start + RECORD_HEADER;
+                crc.reset();
+                crc.update(buffer.array(), payload, length);
+                if ((int)crc.getValue() != buffer.getInt(start + 4)) {
+                    break;
+                }
+                byte operation = buffer.get(payload);
+                char[] key = new char[buffer.getChar(payload + 1)];
+                for (int i = 0; i < key.length; i++) {
+                    key[i] = buffer.getChar(payload + PAYLOAD_HEADER + 2*i);
+                }
+                if (operation == SET) {
+                    map.set(new String(key), codec.read(buffer, payload + PAYLOAD_HEADER + 2*key.length));
+                } else {
+                    map.delete(new String(key));
+                }
+                buffer.position(payload + length);
+                position += RECORD_HEADER + length;
+                records++;
+            }
+            //drop whatever follows the last complete record
+            if (file.size() > position) {
+                file.truncate(position);
+                file.force(false);
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Reads from the file until the buffer holds at least n unread bytes. Returns
+     * false if the file ends first.
+     */
+    private static boolean fill(FileChannel file, ByteBuffer buffer, int n) throws IOException {
+        if (buffer.remaining() >= n) {
+            return true;
+        }
+        buffer.compact();
+        while (buffer.position() < n) {
+            if (file.read(buffer) < 0) {
+                buffer.flip();
+                return false;
+            }
+        }
+        buffer.flip();
+        return true;
+    }
+}
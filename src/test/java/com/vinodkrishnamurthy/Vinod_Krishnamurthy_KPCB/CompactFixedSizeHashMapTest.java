@@ -0,0 +1,62 @@
+package vinodKPCBChallenge;
+
+import java.util.HashMap;
+import java.util.Random;
+import static org.junit.Assert.*;
+import org.junit.*;
+
+public class CompactFixedSizeHashMapTest {
+
+    // compare random sets and deletes with a HashMap, in tree mode and hashed layouts,
+    // with keys that share hash codes ("Aa" and "BB" collide)
+    @Test
+    public void testAgainstHashMap() {
+        Random rand = new Random(20);
+        for (int buckets : new int[] {1, 64, 4096}) {
+            CompactFixedSizeHashMap<Integer> map = new CompactFixedSizeHashMap<Integer>(4000, buckets);
+            HashMap<String, Integer> expected = new HashMap<String, Integer>();
+            for (int i = 0; i < 200000; i++) {
+                String key = rand.nextBoolean() ? "key_" + rand.nextInt(6000)
+                    : (rand.nextBoolean() ? "Aa" : "BB") + (rand.nextBoolean() ? "Aa" : "BB") + rand.nextInt(50);
+                if (rand.nextInt(3) > 0) {
+                    boolean stored = !expected.containsKey(key) && expected.size() < 4000;
+                    assertEquals(stored, map.set(key, i));
+                    if (stored) {
+                        expected.put(key, i);
+                    }
+                } else {
+                    assertEquals(expected.remove(key), map.delete(key));
+                }
+                assertEquals(expected.size()/4000f, map.load(), 0.00001);
+            }
+            for (String key : expected.keySet()) {
+                assertEquals(expected.get(key), map.get(key));
+            }
+        }
+    }
+
+    // test a map of the largest size, filled, emptied, and filled again
+    @Test
+    public void testLimits() {
+        CompactFixedSizeHashMap<Integer> map = new CompactFixedSizeHashMap<Integer>(CompactFixedSizeHashMap.MAX_SIZE);
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < CompactFixedSizeHashMap.MAX_SIZE; i++) {
+                assertTrue(map.set("key_" + i, i));
+            }
+            assertFalse(map.set("one_too_many", 0));
+            assertFalse(map.set("key_0", 0));
+            assertEquals(1.0, map.load(), 0.00001);
+            for (int i = 0; i < CompactFixedSizeHashMap.MAX_SIZE; i++) {
+                assertEquals(Integer.valueOf(i), map.delete("key_" + i));
+            }
+            assertNull(map.get("key_0"));
+            assertEquals(0.0, map.load(), 0.00001);
+        }
+        assertEquals(65536, map.getBuckets());
+        try {
+            new CompactFixedSizeHashMap<Integer>(CompactFixedSizeHashMap.MAX_SIZE + 1);
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package vinodKPCBChallenge;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import static org.junit.Assert.*;
+import org.junit.*;
+
+public class ConcurrentFixedSizeHashMapTest {
+    private static final int THREADS = 8;
+    private static final int KEYS_PER_THREAD = 5000;
+
+    // test set, get, and delete from a single thread
+    @Test
+    public void testSetGetDelete() {
+        ConcurrentFixedSizeHashMap<Integer> map = new ConcurrentFixedSizeHashMap<Integer>(100, 4);
+        assertEquals(4, map.getSegments());
+        assertTrue(map.set("Aa", 1));
+        assertTrue(map.set("BB", 2));
+        assertFalse(map.set("Aa", 3));
+        assertEquals(1, (int)map.get("Aa"));
+        assertEquals(2, (int)map.delete("BB"));
+        assertNull(map.get("BB"));
+        assertEquals(0.01, map.load(), 0.00001);
+    }
+
+    // test that the segments never hold more than the size in total
+    @Test
+    public void testCapacity() {
+        ConcurrentFixedSizeHashMap<Integer> map = new ConcurrentFixedSizeHashMap<Integer>(10, 64);
+        int stored = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (map.set("key_" + i, i)) stored++;
+        }
+        assertEquals(10, stored);
+        assertEquals(1.0, map.load(), 0.00001);
+    }
+
+    // test that concurrent writers and readers see every committed entry
+    @Test
+    public void testConcurrentWriters() throws InterruptedException {
+        final ConcurrentFixedSizeHashMap<Integer> map =
+            new ConcurrentFixedSizeHashMap<Integer>(4 * THREADS * KEYS_PER_THREAD, 16);
+        final AtomicBoolean failed = new AtomicBoolean();
+        Thread[] threads = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            final int id = t;
+            threads[t] = new Thread(new Runnable() {
+                public void run() {
+                    for (int i = 0; i < KEYS_PER_THREAD; i++) {
+                        String key = "thread_" + id + "_key_" + i;
+                        if (!map.set(key, i)) failed.set(true);
+                        //an even key this thread has set must always be visible
+                        int j = (i/2) & ~1;
+                        Integer value = map.get("thread_" + id + "_key_" + j);
+                        if (value == null || value != j) failed.set(true);
+                        //delete every other key again
+                        if (i % 2 == 1 && map.delete(key) == null) failed.set(true);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) thread.join();
+        assertFalse(failed.get());
+        assertEquals(0.125, map.load(), 0.00001);
+    }
+}
@@ -0,0 +1,239 @@
+package vinodKPCBChallenge;
+
+import static org.junit.Assert.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.junit.*;
+
+public class DurableFixedSizeHashMapTest {
+    private static final int SIZE = 1000;
+    private Path directory;
+
+    @Before
+    public void createDirectory() throws Exception {
+        directory = Files.createTempDirectory("durable_hash_map");
+    }
+
+    @After
+    public void deleteDirectory() throws Exception {
+        for (File file : directory.toFile().listFiles()) {
+            Files.delete(file.toPath());
+        }
+        Files.delete(directory);
+    }
+
+    // test that sets and deletes are recovered from the log, with and without a snapshot
+    @Test
+    public void testRecovery() throws Exception {
+        DurableFixedSizeHashMap<Integer> map = DurableFixedSizeHashMap.open(directory, SIZE, 16, ValueCodec.ints(),
+            SyncPolicy.everyOperations(10));
+        for (int i = 0; i < SIZE; i++) {
+            assertTrue(map.set("key_" + i, i));
+        }
+        //compact half way, so the rest of the operations land in the next log
+        map.compact().get();
+        for (int i = 0; i < SIZE; i += 2) {
+            assertEquals(Integer.valueOf(i), map.delete("key_" + i));
+        }
+        map.close();
+        map = DurableFixedSizeHashMap.open(directory, SIZE, 16, ValueCodec.ints(), SyncPolicy.everyOperation());
+        assertEquals(0.5, map.load(), 0.00001);
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals((i % 2 == 0) ? null : Integer.valueOf(i), map.get("key_" + i));
+        }
+        map.close();
+    }
+
+    // test that a torn record at the end of the log is cut off
+    @Test
+    public void testTornLog() throws Exception {
+        DurableFixedSizeHashMap<Integer> map = DurableFixedSizeHashMap.open(directory, SIZE, 16, ValueCodec.ints(),
+            SyncPolicy.everyMillis(5));
+        assertTrue(map.set("kept", 1));
+        map.close();
+        for (File file : directory.toFile().listFiles()) {
+            Files.write(file.toPath(), new byte[] {0, 0, 0, 40, 1, 2}, StandardOpenOption.APPEND);
+        }
+        map = DurableFixedSizeHashMap.open(directory, SIZE, 16, ValueCodec.ints(), SyncPolicy.everyOperation());
+        assertEquals(Integer.valueOf(1), map.get("kept"));
+        assertTrue(map.set("after", 2));
+        map.close();
+        map = DurableFixedSizeHashMap.open(directory, SIZE, 16, ValueCodec.ints(), SyncPolicy.everyOperation());
+        assertEquals(Integer.valueOf(2), map.get("after"));
+        map.close();
+    }
+
+    // test that a set or delete whose append fails leaves the hash map as it was
+    @Test
+    public void testFailedAppend() throws Exception {
+        DurableFixedSizeHashMap<Integer> map = DurableFixedSizeHashMap.open(directory, SIZE, 16, ValueCodec.ints(),
+            SyncPolicy.everyOperation());
+        assertTrue(map.set("a", 1));
+        assertTrue(map.set("b", 2));
+        //a closed log refuses every later append
+        map.close();
+        try {
+            map.set("c", 3);
+            fail();
+        } catch (IOException e) {
+        }
+        try {
+            map.delete("a");
+            fail();
+        } catch (IOException e) {
+        }
+        assertNull(map.get("c"));
+        assertEquals(Integer.valueOf(1), map.get("a"));
+        assertEquals(0.002, map.load(), 0.00001);
+        map = DurableFixedSizeHashMap.open(directory, SIZE, 16, ValueCodec.ints(), SyncPolicy.everyOperation());
+        assertEquals(Integer.valueOf(1), map.get("a"));
+        assertNull(map.get("c"));
+        map.close();
+    }
+
+    // test that a log whose write fails part way refuses every later append, even
+    // once the file works again, so nothing lands after the torn record, and that
+    // reopening recovers every record before it
+    @Test
+    public void testFailedWrite() throws Exception {
+        Path path = directory.resolve("log-1");
+        FlakyChannel channel = new FlakyChannel(FileChannel.open(path, StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE));
+        WriteAheadLog<Integer> log = new WriteAheadLog<Integer>(channel, ValueCodec.ints(), SyncPolicy.everyOperation());
+        log.append(WriteAheadLog.SET, "a", 1);
+        channel.failing = true;
+        try {
+            log.append(WriteAheadLog.SET, "b", 2);
+            fail();
+        } catch (IOException e) {
+        }
+        assertFalse(channel.failing);
+        try {
+            log.append(WriteAheadLog.SET, "c", 3);
+            fail();
+        } catch (IOException e) {
+        }
+        try {
+            log.close();
+            fail();
+        } catch (IOException e) {
+        }
+        assertFalse(channel.isOpen());
+        DurableFixedSizeHashMap<Integer> map = DurableFixedSizeHashMap.open(directory, SIZE, 16, ValueCodec.ints(),
+            SyncPolicy.everyOperation());
+        assertEquals(Integer.valueOf(1), map.get("a"));
+        assertNull(map.get("b"));
+        assertNull(map.get("c"));
+        assertTrue(map.set("d", 4));
+        map.close();
+        map = DurableFixedSizeHashMap.open(directory, SIZE, 16, ValueCodec.ints(), SyncPolicy.everyOperation());
+        assertEquals(Integer.valueOf(1), map.get("a"));
+        assertEquals(Integer.valueOf(4), map.get("d"));
+        map.close();
+    }
+
+    /**
+     * A file channel whose next write, once failing is set, only writes a few bytes,
+     * and whose write after that throws. It works again from then on.
+     */
+    private static final class FlakyChannel extends FileChannel {
+        private final FileChannel file;
+        private boolean torn;
+        boolean failing;
+
+        FlakyChannel(FileChannel file) {
+            this.file = file;
+        }
+
+        public int write(ByteBuffer source) throws IOException {
+            if (this.failing && !this.torn) {
+                this.torn = true;
+                ByteBuffer part = source.duplicate();
+                part.limit(part.position() + Math.min(5, part.remaining()));
+                int written = this.file.write(part);
+                source.position(source.position() + written);
+                return written;
+            }
+            if (this.failing) {
+                this.failing = false;
+                throw new IOException("injected write failure");
+            }
+            return this.file.write(source);
+        }
+
+        public int read(ByteBuffer target) throws IOException {
+            return this.file.read(target);
+        }
+
+        public long read(ByteBuffer[] targets, int offset, int length) throws IOException {
+            return this.file.read(targets, offset, length);
+        }
+
+        public long write(ByteBuffer[] sources, int offset, int length) throws IOException {
+            return this.file.write(sources, offset, length);
+        }
+
+        public long position() throws IOException {
+            return this.file.position();
+        }
+
+        public FileChannel position(long position) throws IOException {
+            this.file.position(position);
+            return this;
+        }
+
+        public long size() throws IOException {
+            return this.file.size();
+        }
+
+        public FileChannel truncate(long size) throws IOException {
+            this.file.truncate(size);
+            return this;
+        }
+
+        public void force(boolean metadata) throws IOException {
+            this.file.force(metadata);
+        }
+
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return this.file.transferTo(position, count, target);
+        }
+
+        public long transferFrom(ReadableByteChannel source, long position, long count) throws IOException {
+            return this.file.transferFrom(source, position, count);
+        }
+
+        public int read(ByteBuffer target, long position) throws IOException {
+            return this.file.read(target, position);
+        }
+
+        public int write(ByteBuffer source, long position) throws IOException {
+            return this.file.write(source, position);
+        }
+
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return this.file.map(mode, position, size);
+        }
+
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return this.file.lock(position, size, shared);
+        }
+
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return this.file.tryLock(position, size, shared);
+        }
+
+        protected void implCloseChannel() throws IOException {
+            this.file.close();
+        }
+    }
+}
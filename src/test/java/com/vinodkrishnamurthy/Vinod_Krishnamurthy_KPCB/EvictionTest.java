@@ -0,0 +1,94 @@
+package vinodKPCBChallenge;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import static org.junit.Assert.*;
+import org.junit.*;
+
+public class EvictionTest {
+
+    // test that LRU evicts the entry read least recently
+    @Test
+    public void testLruOrder() {
+        FixedSizeHashMap<Integer> map = new FixedSizeHashMap<Integer>(3, 3, new LruEviction());
+        assertTrue(map.set("a", 1));
+        assertTrue(map.set("b", 2));
+        assertTrue(map.set("c", 3));
+        assertEquals(1, (int)map.get("a"));
+        assertTrue(map.set("d", 4));
+        assertNull(map.get("b"));
+        assertEquals(1, (int)map.get("a"));
+        assertEquals(1, map.getEvictions());
+        assertEquals(2, map.getHits());
+        assertEquals(1, map.getMisses());
+        assertEquals(1.0, map.load(), 0.00001);
+    }
+
+    // test that LRU matches an access-ordered LinkedHashMap
+    @Test
+    public void testLruMatchesLinkedHashMap() {
+        final int capacity = 500;
+        FixedSizeHashMap<Integer> map = new FixedSizeHashMap<Integer>(capacity, 64, new LruEviction());
+        Map<String, Integer> expected = new LinkedHashMap<String, Integer>(16, 0.75f, true) {
+            protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+                return size() > capacity;
+            }
+        };
+        Random rand = new Random(11);
+        for (int i = 0; i < 100000; i++) {
+            String key = "key_" + rand.nextInt(2000);
+            switch (rand.nextInt(3)) {
+                case 0:
+                    boolean is_new = !expected.containsKey(key);
+                    assertEquals(is_new, map.set(key, i));
+                    if (is_new) expected.put(key, i);
+                    break;
+                case 1:
+                    assertEquals(expected.get(key), map.get(key));
+                    break;
+                default:
+                    assertEquals(expected.remove(key), map.delete(key));
+            }
+        }
+    }
+
+    // test that CLOCK spares an entry that was read since the hand passed it
+    @Test
+    public void testClockSecondChance() {
+        FixedSizeHashMap<Integer> map = new FixedSizeHashMap<Integer>(3, 3, new ClockEviction());
+        assertTrue(map.set("a", 1));
+        assertTrue(map.set("b", 2));
+        assertTrue(map.set("c", 3));
+        assertEquals(1, (int)map.get("a"));
+        //the hand spares "a" and evicts "b"
+        assertTrue(map.set("d", 4));
+        assertNull(map.get("b"));
+        assertEquals(1, (int)map.get("a"));
+        assertEquals(3, (int)map.get("c"));
+        assertEquals(4, (int)map.get("d"));
+        assertEquals(1, map.getEvictions());
+    }
+
+    // test that a full cache keeps accepting new keys but still rejects duplicates
+    @Test
+    public void testFullCache() {
+        for (EvictionPolicy policy : new EvictionPolicy[] {new LruEviction(), new ClockEviction()}) {
+            FixedSizeHashMap<Integer> map = new FixedSizeHashMap<Integer>(100, 100, policy);
+            for (int i = 0; i < 1000; i++) {
+                assertTrue(map.set("key_" + i, i));
+                assertFalse(map.set("key_" + i, -i));
+            }
+            assertEquals(900, map.getEvictions());
+            assertEquals(1.0, map.load(), 0.00001);
+        }
+    }
+
+    // test that a policy cannot be shared between hash maps
+    @Test(expected = IllegalStateException.class)
+    public void testSharedPolicy() {
+        EvictionPolicy policy = new LruEviction();
+        new FixedSizeHashMap<Integer>(10, 10, policy);
+        new FixedSizeHashMap<Integer>(10, 10, policy);
+    }
+}
@@ -15,4 +15,18 @@ public class FixedSizeHashMapExceptionsTest {
     public void zeroSizeInstantiation() {
         string_map = new FixedSizeHashMap<String>(0);
     }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zeroBucketInstantiation() {
+        string_map = new FixedSizeHashMap<String>(10, 0);
+    }
+
+    // the build runs every test but MapMetricsTest with the metrics compiled out
+    @Test(expected = IllegalStateException.class)
+    public void metricsCompiledOut() {
+        string_map = new FixedSizeHashMap<String>(10);
+        string_map.set("key", "value");
+        Assert.assertNull(string_map.getMetrics());
+        string_map.enableMetrics();
+    }
 }
@@ -0,0 +1,61 @@
+package vinodKPCBChallenge;
+
+import static org.junit.Assert.*;
+import org.junit.*;
+import org.openjdk.jol.info.GraphLayout;
+
+public class FixedSizeHashMapFootprintTest {
+    private static final int SIZE = 1000000;
+
+    // measure the retained size of a full map without its keys and values, which
+    // is the cost of each slot
+    @Test
+    public void testBytesPerSlot() {
+        FixedSizeHashMap<Integer> integer_map = new FixedSizeHashMap<Integer>(SIZE);
+        String[] keys = new String[SIZE];
+        Integer value = 0;
+        for (int i = 0; i < SIZE; i++) {
+            keys[i] = "key_" + i;
+            integer_map.set(keys[i], value);
+        }
+        //each key is a root of its own, so the strings are measured without the array
+        long bytes = GraphLayout.parseInstance(integer_map).totalSize()
+            - GraphLayout.parseInstance((Object[])keys).totalSize();
+        double per_slot = (double)bytes/SIZE;
+        System.out.printf("FixedSizeHashMap(%d) retains %d bytes (%.2f bytes per slot).%n", SIZE, bytes, per_slot);
+        //a Node object per slot cost 40 bytes plus a 4 byte reference in the Node[]
+        assertTrue(per_slot < 28);
+    }
+
+    // the node storage grows with use, so an empty map only pays for its bitmap
+    @Test
+    public void testEmptyMap() {
+        FixedSizeHashMap<Integer> integer_map = new FixedSizeHashMap<Integer>(SIZE);
+        long bytes = GraphLayout.parseInstance(integer_map).totalSize();
+        System.out.printf("An empty FixedSizeHashMap(%d) retains %d bytes.%n", SIZE, bytes);
+        assertTrue(bytes < SIZE/4);
+    }
+
+    // the compact map packs each node's hash code and links into one long
+    @Test
+    public void testCompactBytesPerSlot() {
+        int size = CompactFixedSizeHashMap.MAX_SIZE;
+        CompactFixedSizeHashMap<Integer> compact_map = new CompactFixedSizeHashMap<Integer>(size);
+        FixedSizeHashMap<Integer> integer_map = new FixedSizeHashMap<Integer>(size);
+        String[] keys = new String[size];
+        Integer value = 0;
+        for (int i = 0; i < size; i++) {
+            keys[i] = "key_" + i;
+            compact_map.set(keys[i], value);
+            integer_map.set(keys[i], value);
+        }
+        long key_bytes = GraphLayout.parseInstance((Object[])keys).totalSize();
+        double compact_per_slot = (double)(GraphLayout.parseInstance(compact_map).totalSize() - key_bytes)/size;
+        double per_slot = (double)(GraphLayout.parseInstance(integer_map).totalSize() - key_bytes)/size;
+        System.out.printf("CompactFixedSizeHashMap(%d) retains %.2f bytes per slot, FixedSizeHashMap %.2f.%n",
+            size, compact_per_slot, per_slot);
+        System.out.println(GraphLayout.parseInstance(compact_map).toFootprint());
+        //8 for the node word, 1 for the height, 4 each for the key and value, 2 for the bucket
+        assertTrue(compact_per_slot < 20);
+    }
+}
@@ -1,6 +1,21 @@
 package vinodKPCBChallenge;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Random;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import static org.junit.Assert.*;
 import org.junit.*;
 
@@ -15,6 +30,7 @@ public class FixedSizeHashMapTest {
     private FixedSizeHashMap<Boolean> boolean_map;
 
     // preliminary setup
+    @BeforeClass
     public static void setup() {
         rand = new Random();
         size = rand.nextInt(MAX_SIZE - MIN_SIZE + 1) + MIN_SIZE;
@@ -22,6 +38,7 @@ public class FixedSizeHashMapTest {
     }
 
     // initialize hash maps of integer, string, and boolean types
+    @Before
     public void initializeHashMaps() {
         integer_map = new FixedSizeHashMap<Integer>(size);
         string_map = new FixedSizeHashMap<String>(size);
@@ -29,6 +46,7 @@ public class FixedSizeHashMapTest {
     }
 
     // test set method
+    @Test
     public void testSet() {
         for (int i = 0; i < size; i++) {
             String k = "test_key_" + Integer.toString(i);
@@ -40,6 +58,7 @@ public class FixedSizeHashMapTest {
     }
 
     // test set method with duplicate key
+    @Test
     public void testSetDuplicateKey() {
         for (int i = 0; i < size; i++) {
             String k = "test_key_" + Integer.toString(i);
@@ -54,6 +73,7 @@ public class FixedSizeHashMapTest {
     }
 
     // test get method
+    @Test
     public void testGet() {
         for (int i = 0; i < size; i++) {
             String k = "test_key_" + Integer.toString(i);
@@ -71,6 +91,7 @@ public class FixedSizeHashMapTest {
     }
 
     // test delete method
+    @Test
     public void testDelete() {
         for (int i = 0; i < size; i++) {
             String k = "test_key_" + Integer.toString(i);
@@ -91,6 +112,7 @@ public class FixedSizeHashMapTest {
     }
 
     // test load method
+    @Test
     public void testLoad() {
         for (int i = 0; i < size; i++) {
             String k = "test_key_" + Integer.toString(i);
@@ -106,4 +128,573 @@ public class FixedSizeHashMapTest {
             }
         }
     }
+
+    // test set, get, and delete in tree mode (a single bucket) and with a few buckets
+    @Test
+    public void testBucketLayouts() {
+        for (int buckets : new int[] {1, 3, 64}) {
+            FixedSizeHashMap<Integer> map = new FixedSizeHashMap<Integer>(1000, buckets);
+            for (int i = 0; i < 1000; i++) {
+                assertTrue(map.set("bucket_key_" + i, i));
+            }
+            assertFalse(map.set("one_too_many", -1));
+            for (int i = 0; i < 1000; i += 2) {
+                assertEquals(i, (int)map.delete("bucket_key_" + i));
+            }
+            for (int i = 0; i < 1000; i++) {
+                Integer expected = (i % 2 == 0) ? null : i;
+                assertEquals(expected, map.get("bucket_key_" + i));
+            }
+            assertEquals(0.5, map.load(), 0.00001);
+        }
+    }
+
+    // test that the number of buckets is rounded up to a power of two
+    @Test
+    public void testBucketCount() {
+        assertEquals(1, new FixedSizeHashMap<Integer>(10, 1).getBuckets());
+        assertEquals(4, new FixedSizeHashMap<Integer>(10, 3).getBuckets());
+        assertEquals(1024, new FixedSizeHashMap<Integer>(1000).getBuckets());
+    }
+
+    // test that distinct keys with equal hash codes are kept apart
+    @Test
+    public void testHashCollisions() {
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        for (int buckets : new int[] {1, 1024}) {
+            FixedSizeHashMap<String> map = new FixedSizeHashMap<String>(1024, buckets);
+            //every key made of ten "Aa" or "BB" blocks has the same hash code
+            for (int i = 0; i < 1024; i++) {
+                assertTrue(map.set(collidingKey(i), Integer.toString(i)));
+            }
+            for (int i = 0; i < 1024; i++) {
+                assertFalse(map.set(collidingKey(i), "duplicate"));
+                assertEquals(Integer.toString(i), map.get(collidingKey(i)));
+            }
+            for (int i = 0; i < 1024; i += 2) {
+                assertEquals(Integer.toString(i), map.delete(collidingKey(i)));
+            }
+            for (int i = 0; i < 1024; i++) {
+                String expected = (i % 2 == 0) ? null : Integer.toString(i);
+                assertEquals(expected, map.get(collidingKey(i)));
+            }
+        }
+    }
+
+    // returns the ith key made of ten "Aa" or "BB" blocks
+    private static String collidingKey(int i) {
+        StringBuilder key = new StringBuilder();
+        for (int bit = 0; bit < 10; bit++) {
+            key.append(((i >> bit) & 1) == 0 ? "Aa" : "BB");
+        }
+        return key.toString();
+    }
+
+    // test that every slot can be used again after deletes, including sizes that
+    // end exactly on and just past a 64 bit word of the bitmap
+    @Test
+    public void testFillAfterDeletes() {
+        for (int capacity : new int[] {1, 63, 64, 65, 4096, 4097, 262145}) {
+            FixedSizeHashMap<Integer> map = new FixedSizeHashMap<Integer>(capacity);
+            for (int i = 0; i < capacity; i++) {
+                assertTrue(map.set("fill_key_" + i, i));
+            }
+            assertFalse(map.set("one_too_many", -1));
+            for (int i = 0; i < capacity; i += 3) {
+                assertEquals(i, (int)map.delete("fill_key_" + i));
+            }
+            for (int i = 0; i < capacity; i += 3) {
+                assertTrue(map.set("refill_key_" + i, i));
+            }
+            assertFalse(map.set("one_too_many", -1));
+            assertEquals(1.0, map.load(), 0.00001);
+        }
+    }
+
+    // test bulk loading an empty map, including duplicate and colliding keys
+    @Test
+    public void testSetAllEmpty() {
+        for (int buckets : new int[] {1, 16, 4096}) {
+            FixedSizeHashMap<Integer> map = new FixedSizeHashMap<Integer>(3000, buckets);
+            String[] keys = new String[3000];
+            Integer[] values = new Integer[3000];
+            for (int i = 0; i < 3000; i++) {
+                //the last 1000 keys repeat earlier ones, some of them collide
+                keys[i] = (i < 1024) ? collidingKey(i) : (i < 2000) ? "bulk_key_" + i : keys[i - 1000];
+                values[i] = i;
+            }
+            BitSet result = map.setAll(keys, values);
+            assertEquals(2000, result.cardinality());
+            assertEquals(2000, result.nextClearBit(0));
+            for (int i = 0; i < 2000; i++) {
+                assertEquals(i, (int)map.get(keys[i]));
+            }
+            //the map must keep working after a bulk load
+            for (int i = 0; i < 2000; i += 2) {
+                assertEquals(i, (int)map.delete(keys[i]));
+            }
+            for (int i = 0; i < 2000; i++) {
+                assertTrue(map.set("after_bulk_" + i, i));
+            }
+            assertEquals(1.0, map.load(), 0.00001);
+        }
+    }
+
+    // test that bulk operations on a non-empty map match single operations
+    @Test
+    public void testBulkOperations() {
+        FixedSizeHashMap<Integer> map = new FixedSizeHashMap<Integer>(100);
+        assertTrue(map.set("key_0", -1));
+        String[] keys = new String[200];
+        Integer[] values = new Integer[200];
+        for (int i = 0; i < 200; i++) {
+            keys[i] = "key_" + i;
+            values[i] = i;
+        }
+        //key_0 is already used and only 99 slots are free, which go to the first keys
+        BitSet stored = map.setAll(keys, values);
+        assertEquals(99, stored.cardinality());
+        assertFalse(stored.get(0));
+        assertEquals(100, stored.nextClearBit(1));
+        Integer[] out = new Integer[200];
+        BitSet found = map.getAll(keys, out);
+        assertEquals(100, found.cardinality());
+        assertEquals(-1, (int)out[0]);
+        BitSet deleted = map.deleteAll(keys);
+        assertEquals(found, deleted);
+        assertEquals(0.0, map.load(), 0.00001);
+    }
+
+    // test lookups with keys given as UTF-8 bytes, buffers, and other CharSequences
+    @Test
+    public void testByteKeys() {
+        String[] prefixes = {"key_", "cl\u00e9_", "\u952e_", "\ud83d\udd11_", "AaAa", "BBBB"};
+        for (String prefix : prefixes) {
+            for (int i = 0; i < 10; i++) {
+                assertTrue(string_map.set(prefix + i, "value_" + prefix + i));
+            }
+        }
+        ByteBuffer direct = ByteBuffer.allocateDirect(64);
+        for (String prefix : prefixes) {
+            for (int i = 0; i < 11; i++) {
+                String expected = (i < 10) ? "value_" + prefix + i : null;
+                byte[] bytes = ("##" + prefix + i).getBytes(StandardCharsets.UTF_8);
+                assertEquals(expected, string_map.get(bytes, 2, bytes.length - 2));
+                ByteBuffer heap = ByteBuffer.wrap(bytes, 2, bytes.length - 2).slice();
+                assertEquals(expected, string_map.get(heap));
+                direct.clear();
+                direct.put(bytes, 2, bytes.length - 2).flip();
+                assertEquals(expected, string_map.get(direct));
+                assertEquals(0, direct.position());
+                assertEquals(expected, string_map.get(new StringBuilder(prefix).append(i)));
+            }
+        }
+        //a key that is a prefix of a stored key is not found
+        assertNull(string_map.get(new StringBuilder("key_")));
+    }
+
+    // test that splitting the spliterator again and again keeps halving the work,
+    // in tree mode as well as in the hashed layout
+    @Test
+    public void testRecursiveSplit() {
+        for (int buckets : new int[] {1, 1 << 16}) {
+            FixedSizeHashMap<Integer> map = new FixedSizeHashMap<Integer>(1 << 16, buckets);
+            for (int i = 0; i < (1 << 16); i++) {
+                map.set("key_" + i, i);
+            }
+            //eight rounds, as a parallel stream splits for a few hundred tasks
+            List<Spliterator<Map.Entry<String, Integer>>> pieces = new ArrayList<Spliterator<Map.Entry<String, Integer>>>();
+            pieces.add(map.spliterator());
+            for (int round = 0; round < 8; round++) {
+                List<Spliterator<Map.Entry<String, Integer>>> next = new ArrayList<Spliterator<Map.Entry<String, Integer>>>();
+                for (Spliterator<Map.Entry<String, Integer>> piece : pieces) {
+                    Spliterator<Map.Entry<String, Integer>> prefix = piece.trySplit();
+                    if (prefix != null) {
+                        next.add(prefix);
+                    }
+                    next.add(piece);
+                }
+                pieces = next;
+            }
+            final HashSet<String> seen = new HashSet<String>();
+            int largest = 0;
+            for (Spliterator<Map.Entry<String, Integer>> piece : pieces) {
+                final int[] count = new int[1];
+                piece.forEachRemaining(new Consumer<Map.Entry<String, Integer>>() {
+                    public void accept(Map.Entry<String, Integer> entry) {
+                        assertTrue(seen.add(entry.getKey()));
+                        count[0]++;
+                    }
+                });
+                largest = Math.max(largest, count[0]);
+            }
+            assertEquals(1 << 16, seen.size());
+            assertTrue("largest piece " + largest, largest <= (1 << 16)/32);
+        }
+    }
+
+    // test that malformed UTF-8 keys decode to the same chars as new String, so a
+    // lookup by bytes finds exactly the key that String would give
+    @Test
+    public void testMalformedByteKeys() {
+        int[][] malformed = {
+            {0xC0, 0x80}, {0xC1, 0xBF}, {0xE0, 0x80, 0x80}, {0xF0, 0x80, 0x80, 0x80},
+            {0xED, 0xA0, 0x80}, {0xED, 0xBF, 0xBF, 0x41}, {0xF4, 0x90, 0x80, 0x80},
+            {0xF5, 0x80, 0x80, 0x80}, {0xFF}, {0x80, 0x41}, {0xE1, 0x80}, {0xE1, 0x80, 0x41},
+            {0xF1, 0x80, 0x80, 0x41}, {0xF0, 0x90, 0x80, 0xC0}, {0xED, 0xA0, 0x41}
+        };
+        String[] expected = {
+            "\uFFFD\uFFFD", "\uFFFD\uFFFD", "\uFFFD\uFFFD\uFFFD", "\uFFFD\uFFFD\uFFFD\uFFFD",
+            "\uFFFD", "\uFFFDA", "\uFFFD\uFFFD\uFFFD\uFFFD",
+            "\uFFFD\uFFFD\uFFFD\uFFFD", "\uFFFD", "\uFFFDA", "\uFFFD", "\uFFFDA",
+            "\uFFFDA", "\uFFFD\uFFFD", "\uFFFDA"
+        };
+        CharView view = new CharView();
+        for (int t = 0; t < malformed.length; t++) {
+            byte[] bytes = new byte[malformed[t].length];
+            for (int i = 0; i < bytes.length; i++) bytes[i] = (byte)malformed[t][i];
+            assertEquals(expected[t], view.decode(bytes, 0, bytes.length).toString());
+            assertEquals(expected[t], new String(bytes, StandardCharsets.UTF_8));
+        }
+        //the largest and smallest values of each length are well formed
+        byte[] edges = {(byte)0xC2, (byte)0x80, (byte)0xED, (byte)0x9F, (byte)0xBF,
+            (byte)0xEE, (byte)0x80, (byte)0x80, (byte)0xF4, (byte)0x8F, (byte)0xBF, (byte)0xBF};
+        assertEquals("\u0080\uD7FF\uE000\uDBFF\uDFFF", view.decode(edges, 0, edges.length).toString());
+        //random bytes, mostly malformed, decode like new String and find its key
+        Random rand = new Random(15);
+        FixedSizeHashMap<Integer> map = new FixedSizeHashMap<Integer>(1000);
+        for (int t = 0; t < 1000; t++) {
+            byte[] bytes = new byte[rand.nextInt(12)];
+            for (int i = 0; i < bytes.length; i++) {
+                int r = rand.nextInt(4);
+                bytes[i] = (byte)((r == 0) ? 0xC0 + rand.nextInt(0x40) : (r == 1) ? 0x80 + rand.nextInt(0x40) : rand.nextInt(256));
+            }
+            String key = new String(bytes, StandardCharsets.UTF_8);
+            assertEquals(key, view.decode(bytes, 0, bytes.length).toString());
+            map.set(key, t);
+            assertEquals(map.get(key), map.get(bytes, 0, bytes.length));
+        }
+    }
+
+    // test every built-in key hasher with single, bulk, and byte key operations
+    @Test
+    public void testKeyHashers() {
+        KeyHasher[] hashers = {KeyHasher.jdk(), KeyHasher.sipHash(), KeyHasher.fast(42)};
+        String[] keys = new String[1024];
+        Integer[] values = new Integer[1024];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = collidingKey(i);
+            values[i] = i;
+        }
+        for (KeyHasher hasher : hashers) {
+            FixedSizeHashMap<Integer> map = new FixedSizeHashMap<Integer>(2048, hasher);
+            assertEquals(keys.length, map.setAll(keys, values).cardinality());
+            for (int i = 0; i < 1000; i++) {
+                assertTrue(map.set("key_" + i, i));
+            }
+            for (int i = 0; i < keys.length; i++) {
+                byte[] bytes = keys[i].getBytes(StandardCharsets.UTF_8);
+                assertEquals(Integer.valueOf(i), map.get(bytes, 0, bytes.length));
+                assertEquals(Integer.valueOf(i), map.delete(keys[i]));
+            }
+            for (int i = 0; i < 1000; i++) {
+                assertEquals(Integer.valueOf(i), map.get(new StringBuilder("key_").append(i)));
+            }
+        }
+        //the colliding keys share one JDK hash code, but not a SipHash code
+        HashSet<Integer> codes = new HashSet<Integer>();
+        KeyHasher sip = KeyHasher.sipHash(1, 2);
+        for (String key : keys) {
+            assertEquals(keys[0].hashCode(), KeyHasher.jdk().hash(key));
+            codes.add(sip.hash(key));
+        }
+        assertTrue(codes.size() > 1000);
+        assertEquals(sip.hash("key"), KeyHasher.sipHash(1, 2).hash(new StringBuilder("key")));
+    }
+
+    @Test
+    public void testIteration() {
+        //tree mode and hashed layout, with some deleted entries
+        for (int buckets : new int[] {1, size}) {
+            FixedSizeHashMap<Integer> map = new FixedSizeHashMap<Integer>(size, buckets);
+            final HashMap<String, Integer> expected = new HashMap<String, Integer>();
+            for (int i = 0; i < size; i++) {
+                map.set("key_" + i, i);
+                expected.put("key_" + i, i);
+            }
+            for (int i = 0; i < size; i += 3) {
+                map.delete("key_" + i);
+                expected.remove("key_" + i);
+            }
+            final HashMap<String, Integer> seen = new HashMap<String, Integer>();
+            EntryCursor<Integer> cursor = map.cursor();
+            int previous_hash = Integer.MIN_VALUE;
+            while (cursor.next()) {
+                assertNull(seen.put(cursor.key(), cursor.value()));
+                //a single tree is walked in hash order
+                if (buckets == 1) {
+                    assertTrue(cursor.key().hashCode() >= previous_hash);
+                    previous_hash = cursor.key().hashCode();
+                }
+            }
+            assertEquals(expected, seen);
+            seen.clear();
+            map.forEach(new BiConsumer<String, Integer>() {
+                public void accept(String key, Integer value) {
+                    assertNull(seen.put(key, value));
+                }
+            });
+            assertEquals(expected, seen);
+            Map<String, Integer> streamed = map.stream().parallel()
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+            assertEquals(expected, streamed);
+            //the spliterator splits a single tree too
+            Spliterator<Map.Entry<String, Integer>> rest = map.spliterator();
+            Spliterator<Map.Entry<String, Integer>> prefix = rest.trySplit();
+            assertNotNull(prefix);
+            assertTrue(prefix.estimateSize() > 0 && prefix.estimateSize() <= expected.size());
+        }
+        FixedSizeHashMap<Integer> empty = new FixedSizeHashMap<Integer>(size);
+        assertFalse(empty.cursor().next());
+        assertEquals(0, empty.stream().count());
+    }
+
+    @Test
+    public void testBuild() {
+        //large enough to be split into several tasks, with some duplicate keys
+        int n = 50000;
+        String[] keys = new String[n];
+        Integer[] values = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = "key_" + rand.nextInt(n);
+            values[i] = i;
+        }
+        for (int buckets : new int[] {1, 64, n}) {
+            FixedSizeHashMap<Integer> built = FixedSizeHashMap.build(n, buckets, keys, values);
+            FixedSizeHashMap<Integer> expected = new FixedSizeHashMap<Integer>(n, buckets);
+            for (int i = 0; i < n; i++) {
+                expected.set(keys[i], values[i]);
+            }
+            assertEquals(expected.load(), built.load(), 0);
+            for (int i = 0; i < n; i++) {
+                assertEquals(expected.get("key_" + i), built.get("key_" + i));
+            }
+            //a balanced tree of n nodes in tree mode
+            if (buckets == 1) {
+                assertTrue(built.height[built.buckets[0]] < 32 - Integer.numberOfLeadingZeros(n));
+            }
+            //the built map keeps working with set and delete
+            for (int i = 0; i < n; i++) {
+                assertEquals(expected.delete("key_" + i), built.delete("key_" + i));
+            }
+            assertEquals(0, built.load(), 0);
+            for (int i = 0; i < n; i++) {
+                assertTrue(built.set("new_" + i, i));
+            }
+            assertFalse(built.set("one_more", 0));
+        }
+        try {
+            FixedSizeHashMap.build(10, 10, new String[] {"a", "b"}, new Integer[] {1, null});
+            fail("a null value must be refused");
+        } catch (IllegalArgumentException e) {
+        }
+        try {
+            FixedSizeHashMap.build(1, 1, new String[] {"a", "b"}, new Integer[] {1, 2});
+            fail("more distinct keys than the size must be refused");
+        } catch (IllegalArgumentException e) {
+        }
+        assertEquals(0, FixedSizeHashMap.build(new String[0], new Integer[0]).load(), 0);
+    }
+
+    @Test
+    public void testFreeze() throws InterruptedException {
+        for (int buckets : new int[] {1, 64, size}) {
+            //colliding JDK hash codes, and a custom hasher the frozen map must keep using
+            KeyHasher hasher = (buckets == 64) ? KeyHasher.fast(7) : null;
+            FixedSizeHashMap<Integer> map = new FixedSizeHashMap<Integer>(size, buckets, null, hasher);
+            for (int i = 0; i < size; i++) {
+                map.set(collidingKey(i % 512) + i/512, i);
+            }
+            for (int i = 0; i < size; i += 2) {
+                map.delete(collidingKey(i % 512) + i/512);
+            }
+            final FrozenFixedSizeHashMap<Integer> frozen = map.freeze();
+            assertEquals(size/2, frozen.getCount());
+            map.set("after_freeze", 0);
+            assertNull(frozen.get("after_freeze"));
+            //the frozen map is read by several threads at once
+            Thread[] readers = new Thread[4];
+            final boolean[] failed = new boolean[1];
+            for (int t = 0; t < readers.length; t++) {
+                readers[t] = new Thread(new Runnable() {
+                    public void run() {
+                        for (int i = 0; i < size; i++) {
+                            Integer expected = (i % 2 == 1) ? Integer.valueOf(i) : null;
+                            if (!Objects.equals(expected, frozen.get(collidingKey(i % 512) + i/512))) {
+                                failed[0] = true;
+                            }
+                        }
+                    }
+                });
+                readers[t].start();
+            }
+            for (Thread reader : readers) {
+                reader.join();
+            }
+            assertFalse(failed[0]);
+        }
+        assertNull(new FixedSizeHashMap<Integer>(10).freeze().get("missing"));
+    }
+
+    // compare put, putIfAbsent, replace, compute, and merge with a HashMap, in tree
+    // mode and hashed layouts, with keys that share hash codes
+    @Test
+    public void testUpdates() {
+        Random rand = new Random(25);
+        BiFunction<Integer, Integer, Integer> sum_or_remove = new BiFunction<Integer, Integer, Integer>() {
+            public Integer apply(Integer a, Integer b) {
+                return (a + b) % 7 == 0 ? null : a + b;
+            }
+        };
+        for (int buckets : new int[] {1, 64, 4096}) {
+            FixedSizeHashMap<Integer> map = new FixedSizeHashMap<Integer>(2000, buckets);
+            HashMap<String, Integer> expected = new HashMap<String, Integer>();
+            for (int i = 0; i < 100000; i++) {
+                final String key = rand.nextBoolean() ? "key_" + rand.nextInt(4000) : collidingKey(rand.nextInt(50));
+                final int value = rand.nextInt(1000);
+                if (!expected.containsKey(key) && expected.size() == 2000) {
+                    //a new key does not fit
+                    try {
+                        map.merge(key, value, sum_or_remove);
+                        fail();
+                    } catch (IllegalStateException e) {
+                    }
+                    continue;
+                }
+                switch (rand.nextInt(6)) {
+                    case 0:
+                        assertEquals(expected.put(key, value), map.put(key, value));
+                        break;
+                    case 1:
+                        assertEquals(expected.putIfAbsent(key, value), map.putIfAbsent(key, value));
+                        break;
+                    case 2:
+                        assertEquals(expected.replace(key, value), map.replace(key, value));
+                        break;
+                    case 3:
+                        BiFunction<String, Integer, Integer> function = new BiFunction<String, Integer, Integer>() {
+                            public Integer apply(String k, Integer old) {
+                                return (old == null) ? ((value % 2 == 0) ? null : value) : ((old > value) ? null : old + 1);
+                            }
+                        };
+                        assertEquals(expected.compute(key, function), map.compute(key, function));
+                        break;
+                    case 4:
+                        assertEquals(expected.merge(key, value, sum_or_remove), map.merge(key, value, sum_or_remove));
+                        break;
+                    default:
+                        assertEquals(expected.remove(key), map.delete(key));
+                }
+                assertEquals(expected.size()/2000f, map.load(), 0.00001);
+            }
+            for (String key : expected.keySet()) {
+                assertEquals(expected.get(key), map.get(key));
+            }
+            assertEquals(expected.size(), map.stream().count());
+        }
+        //a function that throws leaves no entry behind
+        FixedSizeHashMap<Integer> map = new FixedSizeHashMap<Integer>(10);
+        try {
+            map.compute("key", new BiFunction<String, Integer, Integer>() {
+                public Integer apply(String k, Integer old) {
+                    throw new UnsupportedOperationException();
+                }
+            });
+            fail();
+        } catch (UnsupportedOperationException e) {
+        }
+        assertNull(map.get("key"));
+        assertEquals(0.0, map.load(), 0.00001);
+    }
+
+    // run the update methods on LRU and CLOCK maps. The LRU map must evict exactly as
+    // an access-ordered LinkedHashMap does; for CLOCK, each eviction must remove exactly
+    // one entry and leave the rest intact.
+    @Test
+    public void testEvictingUpdates() {
+        final int capacity = 8;
+        Random rand = new Random(26);
+        final BiFunction<Integer, Integer, Integer> sum_or_remove = new BiFunction<Integer, Integer, Integer>() {
+            public Integer apply(Integer a, Integer b) {
+                return (a + b) % 7 == 0 ? null : a + b;
+            }
+        };
+        for (EvictionPolicy policy : new EvictionPolicy[] {new LruEviction(), new ClockEviction()}) {
+            boolean lru = policy instanceof LruEviction;
+            FixedSizeHashMap<Integer> map = new FixedSizeHashMap<Integer>(capacity, 4, policy);
+            Map<String, Integer> expected = !lru ? new HashMap<String, Integer>()
+                : new LinkedHashMap<String, Integer>(16, 0.75f, true) {
+                    protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+                        return size() > capacity;
+                    }
+                };
+            long evictions = 0;
+            for (int i = 0; i < 20000; i++) {
+                String key = "k" + rand.nextInt(2*capacity);
+                final int value = rand.nextInt(1000);
+                BiFunction<String, Integer, Integer> function = new BiFunction<String, Integer, Integer>() {
+                    public Integer apply(String k, Integer old) {
+                        return (old == null) ? ((value % 2 == 0) ? null : value) : ((old > value) ? null : old + 1);
+                    }
+                };
+                Object result;
+                switch (rand.nextInt(7)) {
+                    case 0:
+                        result = map.put(key, value);
+                        assertEquals(lru ? expected.put(key, value) : expected.get(key), result);
+                        break;
+                    case 1:
+                        result = map.putIfAbsent(key, value);
+                        assertEquals(lru ? expected.putIfAbsent(key, value) : expected.get(key), result);
+                        break;
+                    case 2:
+                        result = map.replace(key, value);
+                        assertEquals(lru ? expected.replace(key, value) : expected.get(key), result);
+                        break;
+                    case 3:
+                        result = map.compute(key, function);
+                        Integer before = expected.get(key);
+                        assertEquals(lru ? expected.compute(key, function) : function.apply(key, before), result);
+                        break;
+                    case 4:
+                        result = map.merge(key, value, sum_or_remove);
+                        if (lru) {
+                            assertEquals(expected.merge(key, value, sum_or_remove), result);
+                        }
+                        break;
+                    case 5:
+                        assertEquals(expected.get(key), map.get(key));
+                        break;
+                    default:
+                        assertEquals(expected.remove(key), map.delete(key));
+                }
+                Map<String, Integer> actual = map.stream()
+                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+                if (lru) {
+                    assertEquals(new HashMap<String, Integer>(expected), actual);
+                } else {
+                    //bring the reference in line with the operation, then drop the evicted key
+                    Integer current = actual.get(key);
+                    if (current != null) expected.put(key, current); else expected.remove(key);
+                    if (map.getEvictions() > evictions) {
+                        evictions = map.getEvictions();
+                        assertEquals(expected.size() - 1, actual.size());
+                        expected.keySet().retainAll(actual.keySet());
+                    }
+                    assertEquals(new HashMap<String, Integer>(expected), actual);
+                }
+            }
+            assertTrue(map.getEvictions() > 0);
+        }
+    }
 }
@@ -0,0 +1,59 @@
+package vinodKPCBChallenge;
+
+import static org.junit.Assert.*;
+import org.junit.*;
+
+public class IntFixedSizeHashMapTest {
+    private static final int SIZE = 5000;
+    private IntFixedSizeHashMap int_map;
+    private LongFixedSizeHashMap long_map;
+
+    @Before
+    public void initializeHashMaps() {
+        int_map = new IntFixedSizeHashMap(SIZE);
+        long_map = new LongFixedSizeHashMap(SIZE, 64, -1L);
+    }
+
+    // test set, get, and delete of primitive values
+    @Test
+    public void testSetGetDelete() {
+        for (int i = 0; i < SIZE; i++) {
+            assertTrue(int_map.setInt("key_" + i, i));
+            assertTrue(long_map.setLong("key_" + i, (long)i << 32));
+        }
+        assertFalse(int_map.setInt("one_too_many", 1));
+        assertFalse(long_map.setLong("one_too_many", 1L));
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(i, int_map.getInt("key_" + i));
+            assertEquals((long)i << 32, long_map.getLong("key_" + i));
+        }
+        for (int i = 0; i < SIZE; i += 2) {
+            assertEquals(i, int_map.deleteInt("key_" + i));
+            assertEquals((long)i << 32, long_map.deleteLong("key_" + i));
+        }
+        assertEquals(0.5, int_map.load(), 0.00001);
+        assertEquals(0.5, long_map.load(), 0.00001);
+    }
+
+    // test that the sentinel is returned for absent keys and cannot be stored
+    @Test
+    public void testNoValue() {
+        assertEquals(IntFixedSizeHashMap.NO_VALUE, int_map.getInt("missing"));
+        assertEquals(IntFixedSizeHashMap.NO_VALUE, int_map.deleteInt("missing"));
+        assertFalse(int_map.setInt("key", IntFixedSizeHashMap.NO_VALUE));
+        assertEquals(-1L, long_map.getLong("missing"));
+        assertFalse(long_map.setLong("key", -1L));
+        assertTrue(long_map.setLong("key", Long.MIN_VALUE));
+        assertEquals(Long.MIN_VALUE, long_map.getLong("key"));
+    }
+
+    // test that duplicate keys are rejected and keep their value
+    @Test
+    public void testDuplicateKey() {
+        assertTrue(int_map.setInt("Aa", 1));
+        assertTrue(int_map.setInt("BB", 2));
+        assertFalse(int_map.setInt("Aa", 3));
+        assertEquals(1, int_map.getInt("Aa"));
+        assertEquals(2, int_map.getInt("BB"));
+    }
+}
@@ -0,0 +1,53 @@
+package vinodKPCBChallenge;
+
+import static org.junit.Assert.*;
+import org.junit.*;
+
+public class IntKeyFixedSizeHashMapTest {
+    private static final int SIZE = 5000;
+    private IntKeyFixedSizeHashMap<String> int_key_map;
+    private LongKeyFixedSizeHashMap<String> long_key_map;
+
+    @Before
+    public void initializeHashMaps() {
+        int_key_map = new IntKeyFixedSizeHashMap<String>(SIZE, 16);
+        long_key_map = new LongKeyFixedSizeHashMap<String>(SIZE, 16);
+    }
+
+    // test set, get, and delete with zero, negative, and positive keys
+    @Test
+    public void testSetGetDelete() {
+        for (int i = 0; i < SIZE; i++) {
+            //multiplying by an odd constant gives distinct keys of both signs
+            int key = i * 0x9E3779B1;
+            assertTrue(int_key_map.set(key, "value_" + i));
+            assertTrue(long_key_map.set((long)key << 20, "value_" + i));
+        }
+        assertFalse(int_key_map.set(0, "duplicate"));
+        assertFalse(int_key_map.set(-1, "one_too_many"));
+        for (int i = 0; i < SIZE; i++) {
+            int key = i * 0x9E3779B1;
+            assertEquals("value_" + i, int_key_map.get(key));
+            assertEquals("value_" + i, long_key_map.get((long)key << 20));
+            assertEquals("value_" + i, int_key_map.delete(key));
+            assertEquals("value_" + i, long_key_map.delete((long)key << 20));
+            assertNull(int_key_map.get(key));
+        }
+        assertEquals(0.0, int_key_map.load(), 0.00001);
+        assertEquals(0.0, long_key_map.load(), 0.00001);
+    }
+
+    // test that long keys with equal hash codes are kept apart
+    @Test
+    public void testLongHashCollisions() {
+        //a key with equal halves folds to a hash code of 0
+        for (long i = 0; i < 1000; i++) {
+            assertEquals(0, Long.hashCode((i << 32) | i));
+            assertTrue(long_key_map.set((i << 32) | i, Long.toString(i)));
+        }
+        assertFalse(long_key_map.set((5L << 32) | 5L, "duplicate"));
+        for (long i = 0; i < 1000; i++) {
+            assertEquals(Long.toString(i), long_key_map.get((i << 32) | i));
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package vinodKPCBChallenge;
+
+import static org.junit.Assert.*;
+import org.junit.*;
+
+public class LongFixedSizeHashMapTest {
+    private static final int SIZE = 5000;
+    private LongFixedSizeHashMap long_map;
+
+    @Before
+    public void initializeHashMap() {
+        long_map = new LongFixedSizeHashMap(SIZE, 64, -1L);
+    }
+
+    // test counters updated in place, and the sentinel cases
+    @Test
+    public void testAddAndGet() {
+        for (int n = 0; n < 3; n++) {
+            for (int i = 0; i < SIZE; i++) {
+                assertEquals((n + 1)*(long)i, long_map.addAndGet("key_" + i, i));
+            }
+        }
+        assertEquals(1.0, long_map.load(), 0.00001);
+        assertEquals(-1L, long_map.addAndGet("one_too_many", 1));
+        assertEquals(9L, long_map.addAndGet("key_3", 0));
+        //a sum equal to the sentinel is refused
+        assertEquals(-1L, long_map.addAndGet("key_3", -10));
+        assertEquals(9L, long_map.getLong("key_3"));
+        long_map.deleteLong("key_0");
+        assertEquals(-1L, long_map.addAndGet("key_0", -1));
+        assertEquals(-1L, long_map.getLong("key_0"));
+        assertEquals((SIZE - 1)/(float)SIZE, long_map.load(), 0.00001);
+    }
+}
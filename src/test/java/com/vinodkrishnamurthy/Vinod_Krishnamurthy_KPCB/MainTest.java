@@ -0,0 +1,30 @@
+package vinodKPCBChallenge;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import static org.junit.Assert.*;
+import org.junit.*;
+
+public class MainTest {
+
+    // test that a script is applied in order, one response per command
+    @Test
+    public void testBatch() throws IOException {
+        FixedSizeHashMap<String> map = new FixedSizeHashMap<String>(2);
+        String script = "# a comment\nSET a 1\nSET b two words\n\nSET c 3\nGET b\nDEL a\nGET a\nLOAD\nBAD\n";
+        StringWriter out = new StringWriter();
+        long[] latencies = Main.runCommands(map, new BufferedReader(new StringReader(script)), out);
+        assertEquals("STORED\nSTORED\nNOT_STORED\nVALUE two words\nDELETED 1\nNOT_FOUND\nLOAD 0.500\n"
+            + "ERROR unknown command 'BAD'\n", out.toString());
+        long count = 0;
+        for (long bucket : latencies) count += bucket;
+        assertEquals(8, count);
+        ByteArrayOutputStream summary = new ByteArrayOutputStream();
+        Main.printSummary(new PrintStream(summary), latencies, 1000000000L);
+        assertTrue(summary.toString().startsWith("8 commands in 1.000 s (8 commands/s)"));
+    }
+}
@@ -0,0 +1,108 @@
+package vinodKPCBChallenge;
+
+import static org.junit.Assert.*;
+import java.lang.management.ManagementFactory;
+import java.util.function.BiFunction;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.junit.*;
+
+// the build runs this class alone with -Dfixedsizehashmap.metrics=true (metricsTest)
+public class MapMetricsTest {
+    private FixedSizeHashMap<Integer> tree_map;
+    private MapMetrics metrics;
+
+    @Before
+    public void initializeHashMap() {
+        tree_map = new FixedSizeHashMap<Integer>(100, 1);
+        metrics = tree_map.enableMetrics();
+    }
+
+    // test the operation counters and rejections
+    @Test
+    public void testCounters() {
+        for (int i = 0; i < 100; i++) {
+            assertTrue(tree_map.set("key_" + i, i));
+        }
+        assertFalse(tree_map.set("key_0", 0));
+        assertFalse(tree_map.set("one_too_many", 0));
+        assertEquals(Integer.valueOf(5), tree_map.get("key_5"));
+        assertNull(tree_map.get("missing"));
+        assertEquals(Integer.valueOf(5), tree_map.delete("key_5"));
+        assertFalse(tree_map.set("key_0", 0));
+        MetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(103, snapshot.getSets());
+        assertEquals(2, snapshot.getGets());
+        assertEquals(1, snapshot.getHits());
+        assertEquals(1, snapshot.getMisses());
+        assertEquals(1, snapshot.getDeletes());
+        //a full hash map refuses a used key as full before looking it up
+        assertEquals(1, snapshot.getDuplicateRejections());
+        assertEquals(2, snapshot.getFullRejections());
+        assertTrue(snapshot.getLatencyPercentile(MapMetrics.SET, 0.99) > 0);
+        assertSame(metrics, tree_map.enableMetrics());
+    }
+
+    // test that the update methods count as sets, with their rejections
+    @Test
+    public void testUpdateCounters() {
+        for (int i = 0; i < 99; i++) {
+            assertNull(tree_map.put("key_" + i, i));
+        }
+        assertEquals(Integer.valueOf(0), tree_map.putIfAbsent("key_0", 1));
+        assertEquals(Integer.valueOf(0), tree_map.replace("key_0", 2));
+        BiFunction<Integer, Integer, Integer> sum = new BiFunction<Integer, Integer, Integer>() {
+            public Integer apply(Integer a, Integer b) {
+                return a + b;
+            }
+        };
+        assertEquals(Integer.valueOf(3), tree_map.merge("key_0", 1, sum));
+        assertEquals(Integer.valueOf(1), tree_map.compute("key_99", new BiFunction<String, Integer, Integer>() {
+            public Integer apply(String key, Integer value) {
+                return 1;
+            }
+        }));
+        try {
+            tree_map.put("one_too_many", 0);
+            fail();
+        } catch (IllegalStateException e) {
+        }
+        MetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(104, snapshot.getSets());
+        assertEquals(1, snapshot.getDuplicateRejections());
+        assertEquals(1, snapshot.getFullRejections());
+    }
+
+    // test that ascending hash codes in one tree need only RR rotations, and that
+    // every probe stays within the height of a tree of 100 nodes
+    @Test
+    public void testRotationsAndProbes() {
+        for (int i = 0; i < 100; i++) {
+            assertTrue(tree_map.set(Character.toString((char)('0' + i)), i));
+        }
+        MetricsSnapshot snapshot = metrics.snapshot();
+        assertTrue(snapshot.getRotations(MapMetrics.RR) > 0);
+        assertEquals(0, snapshot.getRotations(MapMetrics.LL));
+        assertEquals(0, snapshot.getRotations(MapMetrics.LR) + snapshot.getRotations(MapMetrics.RL));
+        long probes = 0;
+        for (int nodes = 0; nodes <= 9; nodes++) {
+            probes += snapshot.getProbes(nodes);
+        }
+        assertEquals(100, probes);
+        assertTrue(snapshot.getMeanProbes() > 1);
+    }
+
+    // test that the metrics can be read through JMX
+    @Test
+    public void testMBean() throws Exception {
+        tree_map.set("key", 1);
+        ObjectName name = metrics.register("test");
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            assertEquals(1L, server.getAttribute(name, "Sets"));
+            assertEquals(0L, server.getAttribute(name, "FullRejections"));
+        } finally {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package vinodKPCBChallenge;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import static org.junit.Assert.*;
+import org.junit.*;
+
+public class MapServerTest {
+    private static final int PRODUCERS = 8;
+    private static final int ITEMS_PER_PRODUCER = 20000;
+
+    // test each command of the protocol and its errors
+    @Test
+    public void testCommands() {
+        FixedSizeHashMap<String> map = new FixedSizeHashMap<String>(2);
+        assertEquals("STORED", Command.parse("SET a hello world").apply(map));
+        assertEquals("NOT_STORED", Command.parse("set a again").apply(map));
+        assertEquals("VALUE hello world", Command.parse("GET a").apply(map));
+        assertEquals("NOT_FOUND", Command.parse("GET b").apply(map));
+        assertEquals("LOAD 0.500", Command.parse("LOAD").apply(map));
+        assertEquals("DELETED hello world", Command.parse("  DEL   a").apply(map));
+        assertEquals("NOT_FOUND", Command.parse("DEL a").apply(map));
+        assertEquals(Command.INVALID, Command.parse("SET a").op);
+        assertEquals(Command.INVALID, Command.parse("GET a b").op);
+        assertEquals(Command.INVALID, Command.parse("LOAD a").op);
+        assertEquals(Command.INVALID, Command.parse("").op);
+        assertEquals("ERROR unknown command 'PUT'", Command.parse("PUT a b").apply(map));
+        //the load is written the same way in a locale with a decimal comma, and
+        //command names are read the same way where "i" upper-cases to a dotted I
+        Locale locale = Locale.getDefault();
+        Locale.setDefault(Locale.GERMANY);
+        try {
+            assertEquals("LOAD 0.000", Command.parse("LOAD").apply(map));
+            Locale.setDefault(new Locale("tr", "TR"));
+            assertEquals("ERROR unknown command 'PING'", Command.parse("ping").apply(map));
+        } finally {
+            Locale.setDefault(locale);
+        }
+    }
+
+    // test that items from many producers all arrive, each producer's in order
+    @Test
+    public void testRing() throws InterruptedException {
+        final RequestRing<int[]> ring = new RequestRing<int[]>(64);
+        Thread[] producers = new Thread[PRODUCERS];
+        for (int t = 0; t < PRODUCERS; t++) {
+            final int id = t;
+            producers[t] = new Thread(new Runnable() {
+                public void run() {
+                    for (int i = 0; i < ITEMS_PER_PRODUCER; i++) {
+                        int[] item = {id, i};
+                        while (!ring.offer(item)) Thread.yield();
+                    }
+                }
+            });
+            producers[t].start();
+        }
+        int[] next = new int[PRODUCERS];
+        int[][] batch = new int[16][];
+        int received = 0;
+        while (received < PRODUCERS*ITEMS_PER_PRODUCER) {
+            int n = ring.drain(batch);
+            if (n == 0) Thread.yield();
+            for (int i = 0; i < n; i++) {
+                assertEquals(next[batch[i][0]]++, batch[i][1]);
+            }
+            received += n;
+        }
+        for (Thread producer : producers) producer.join();
+        assertTrue(ring.isEmpty());
+    }
+
+    // test pipelined and locked servers with clients that pipeline over sockets
+    @Test
+    public void testServer() throws Exception {
+        for (boolean pipelined : new boolean[] {true, false}) {
+            final MapServer server = new MapServer(PRODUCERS*1000, 0, pipelined);
+            final AtomicBoolean failed = new AtomicBoolean();
+            Thread[] clients = new Thread[PRODUCERS];
+            for (int t = 0; t < PRODUCERS; t++) {
+                final int id = t;
+                clients[t] = new Thread(new Runnable() {
+                    public void run() {
+                        try (Socket socket = new Socket("localhost", server.getPort())) {
+                            Writer writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+                            BufferedReader reader = new BufferedReader(
+                                new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                            //send every command before reading any response
+                            for (int i = 0; i < 1000; i++) {
+                                writer.write("SET client_" + id + "_" + i + " value " + i + "\nGET client_" + id + "_" + i + "\n");
+                            }
+                            writer.flush();
+                            for (int i = 0; i < 1000; i++) {
+                                if (!reader.readLine().equals("STORED")) failed.set(true);
+                                if (!reader.readLine().equals("VALUE value " + i)) failed.set(true);
+                            }
+                        } catch (IOException e) {
+                            failed.set(true);
+                        }
+                    }
+                });
+                clients[t].start();
+            }
+            for (Thread client : clients) client.join();
+            assertFalse(failed.get());
+            assertEquals("LOAD 1.000", server.submit("LOAD").get());
+            assertEquals("NOT_STORED", server.submit("SET one_too_many 0").get());
+            server.close();
+        }
+    }
+
+    // test that a command that throws fails only its own request, and that a closed
+    // server refuses new requests instead of leaving them waiting
+    @Test
+    public void testFailures() throws Exception {
+        for (boolean pipelined : new boolean[] {true, false}) {
+            FixedSizeHashMap<String> map = new FixedSizeHashMap<String>(10) {
+                public String get(String key) {
+                    if (key.equals("boom")) throw new UnsupportedOperationException("boom");
+                    return super.get(key);
+                }
+            };
+            MapServer server = new MapServer(map, 0, pipelined);
+            try {
+                server.submit("GET boom").get();
+                fail();
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof UnsupportedOperationException);
+            }
+            assertEquals("STORED", server.submit("SET a 1").get());
+            try (Socket socket = new Socket("localhost", server.getPort())) {
+                Writer writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+                BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                writer.write("GET boom\nGET a\n");
+                writer.flush();
+                assertEquals("ERROR java.lang.UnsupportedOperationException: boom", reader.readLine());
+                assertEquals("VALUE 1", reader.readLine());
+            }
+            server.close();
+            CompletableFuture<String> late = server.submit("GET a");
+            assertTrue(late.isCompletedExceptionally());
+            try {
+                late.get();
+                fail();
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof IllegalStateException);
+            }
+        }
+    }
+}
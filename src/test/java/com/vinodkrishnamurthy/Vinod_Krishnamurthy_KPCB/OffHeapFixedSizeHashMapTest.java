@@ -0,0 +1,110 @@
+package vinodKPCBChallenge;
+
+import static org.junit.Assert.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.*;
+
+public class OffHeapFixedSizeHashMapTest {
+    private static final int SIZE = 4097;
+    private OffHeapFixedSizeHashMap<String> string_map;
+    private OffHeapFixedSizeHashMap<Integer> tree_map;
+
+    @Before
+    public void initializeHashMaps() {
+        string_map = new OffHeapFixedSizeHashMap<String>(SIZE, 20, ValueCodec.strings(16));
+        tree_map = new OffHeapFixedSizeHashMap<Integer>(SIZE, 1, 20, ValueCodec.ints());
+    }
+
+    // test set, get, and delete until the hash maps are full and empty again
+    @Test
+    public void testSetGetDelete() {
+        for (int i = 0; i < SIZE; i++) {
+            assertTrue(string_map.set("key_" + i, "value_" + i));
+            assertTrue(tree_map.set("key_" + i, i));
+        }
+        assertFalse(string_map.set("key_0", "duplicate"));
+        assertFalse(string_map.set("one_too_many", "value"));
+        assertFalse(tree_map.set("one_too_many", -1));
+        assertEquals(1.0, string_map.load(), 0.00001);
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals("value_" + i, string_map.get("key_" + i));
+            assertEquals(Integer.valueOf(i), tree_map.get("key_" + i));
+            assertEquals("value_" + i, string_map.delete("key_" + i));
+            assertEquals(Integer.valueOf(i), tree_map.delete("key_" + i));
+            assertNull(string_map.get("key_" + i));
+        }
+        assertEquals(0.0, string_map.load(), 0.00001);
+        assertEquals(0.0, tree_map.load(), 0.00001);
+    }
+
+    // test that keys with equal hash codes are kept apart
+    @Test
+    public void testHashCollisions() {
+        assertEquals("AaAa".hashCode(), "BBBB".hashCode());
+        assertTrue(string_map.set("AaAa", "first"));
+        assertTrue(string_map.set("BBBB", "second"));
+        assertTrue(string_map.set("AaBB", "third"));
+        assertEquals("first", string_map.get("AaAa"));
+        assertEquals("second", string_map.delete("BBBB"));
+        assertNull(string_map.get("BBBB"));
+        assertEquals("third", string_map.get("AaBB"));
+    }
+
+    // test that oversized keys and values are refused without changing the hash map
+    @Test
+    public void testLimits() {
+        assertNull(string_map.get("a_key_longer_than_twenty_chars"));
+        try {
+            string_map.set("a_key_longer_than_twenty_chars", "value");
+            fail();
+        } catch (IllegalArgumentException e) {}
+        try {
+            string_map.set("key", "a_value_longer_than_sixteen_chars");
+            fail();
+        } catch (IllegalArgumentException e) {}
+        assertNull(string_map.get("key"));
+        assertEquals(0.0, string_map.load(), 0.00001);
+        assertTrue(string_map.set("", "empty key"));
+        assertEquals("empty key", string_map.get(""));
+    }
+
+    // test that a snapshot of either kind of hash map opens with the same entries
+    @Test
+    public void testSnapshot() throws Exception {
+        Path path = Files.createTempFile("fixed_size_hash_map", ".snapshot");
+        try {
+            FixedSizeHashMap<String> heap_map = new FixedSizeHashMap<String>(SIZE);
+            for (int i = 0; i < SIZE; i++) {
+                heap_map.set("key_" + i, "value_" + i);
+            }
+            for (int i = 0; i < SIZE; i += 2) {
+                heap_map.delete("key_" + i);
+            }
+            try {
+                heap_map.snapshot(path, 5, ValueCodec.strings(16));
+                fail();
+            } catch (IllegalArgumentException e) {
+                //key_10 and up do not fit
+            }
+            heap_map.snapshot(path, 16, ValueCodec.strings(16));
+            OffHeapFixedSizeHashMap<String> opened = OffHeapFixedSizeHashMap.open(path, ValueCodec.strings(16));
+            assertEquals(heap_map.load(), opened.load(), 0.00001);
+            for (int i = 0; i < SIZE; i++) {
+                assertEquals((i % 2 == 0) ? null : "value_" + i, opened.get("key_" + i));
+            }
+            //keys up to the given bound fit, however long the stored ones are
+            assertTrue(opened.set("sixteen_chars_ky", "value"));
+            assertEquals("value", opened.delete("sixteen_chars_ky"));
+            //changes to an opened hash map stay out of the file until the next snapshot
+            assertTrue(opened.set("key_0", "changed"));
+            opened.snapshot(path);
+            OffHeapFixedSizeHashMap<String> reopened = OffHeapFixedSizeHashMap.open(path, ValueCodec.strings(16));
+            assertEquals("changed", reopened.get("key_0"));
+            assertEquals("value_1", reopened.delete("key_1"));
+            assertEquals("value_1", opened.get("key_1"));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+}
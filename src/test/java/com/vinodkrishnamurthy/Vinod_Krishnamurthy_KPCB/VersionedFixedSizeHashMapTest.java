@@ -0,0 +1,109 @@
+package vinodKPCBChallenge;
+
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import static org.junit.Assert.*;
+import org.junit.*;
+
+public class VersionedFixedSizeHashMapTest {
+    private static final int READERS = 8;
+
+    // compare random sets and deletes with a HashMap, in tree mode and hashed layouts,
+    // with keys that share hash codes ("Aa" and "BB" collide)
+    @Test
+    public void testAgainstHashMap() {
+        Random rand = new Random(22);
+        for (int buckets : new int[] {1, 64, 4096}) {
+            VersionedFixedSizeHashMap<Integer> map = new VersionedFixedSizeHashMap<Integer>(4000, buckets);
+            HashMap<String, Integer> expected = new HashMap<String, Integer>();
+            for (int i = 0; i < 200000; i++) {
+                String key = rand.nextBoolean() ? "key_" + rand.nextInt(6000)
+                    : (rand.nextBoolean() ? "Aa" : "BB") + (rand.nextBoolean() ? "Aa" : "BB") + rand.nextInt(50);
+                if (rand.nextInt(3) > 0) {
+                    boolean stored = !expected.containsKey(key) && expected.size() < 4000;
+                    assertEquals(stored, map.set(key, i));
+                    if (stored) {
+                        expected.put(key, i);
+                    }
+                } else {
+                    assertEquals(expected.remove(key), map.delete(key));
+                }
+                assertEquals(expected.size()/4000f, map.load(), 0.00001);
+            }
+            for (String key : expected.keySet()) {
+                assertEquals(expected.get(key), map.get(key));
+            }
+        }
+    }
+
+    // test that readers never miss a settled entry or see a wrong value while one
+    // writer keeps changing the same tree, and that a full map keeps reclaiming the
+    // slots of old versions
+    @Test
+    public void testConcurrentReaders() throws InterruptedException {
+        final int size = 1000;
+        final VersionedFixedSizeHashMap<Integer> map = new VersionedFixedSizeHashMap<Integer>(size, 1);
+        //even keys stay in the map, odd keys are set and deleted by the writer
+        for (int i = 0; i < size; i += 2) {
+            assertTrue(map.set("key_" + i, i));
+        }
+        final AtomicBoolean done = new AtomicBoolean();
+        final AtomicBoolean failed = new AtomicBoolean();
+        Thread[] readers = new Thread[READERS];
+        for (int t = 0; t < READERS; t++) {
+            final Random rand = new Random(t);
+            readers[t] = new Thread(new Runnable() {
+                public void run() {
+                    while (!done.get()) {
+                        int i = rand.nextInt(size);
+                        Integer value = map.get("key_" + i);
+                        if ((i % 2 == 0 && value == null) || (value != null && value != i)) failed.set(true);
+                    }
+                }
+            });
+            readers[t].start();
+        }
+        Random rand = new Random(READERS);
+        for (int n = 0; n < 200000; n++) {
+            int i = rand.nextInt(size) | 1;
+            String key = "key_" + i;
+            if (map.get(key) == null) {
+                if (!map.set(key, i)) failed.set(true);
+            } else if (map.delete(key) != i) {
+                failed.set(true);
+            }
+        }
+        done.set(true);
+        for (Thread reader : readers) reader.join();
+        assertFalse(failed.get());
+        //the map can still be filled to its size
+        for (int i = 1; i < size; i += 2) {
+            map.set("key_" + i, i);
+        }
+        assertEquals(1.0, map.load(), 0.00001);
+        assertFalse(map.set("one_too_many", 0));
+    }
+
+    // test that the registrations of reader threads that have ended are dropped by
+    // the next write
+    @Test
+    public void testEndedReaders() throws InterruptedException {
+        final VersionedFixedSizeHashMap<Integer> map = new VersionedFixedSizeHashMap<Integer>(100);
+        assertTrue(map.set("key", 1));
+        for (int t = 0; t < 50; t++) {
+            Thread reader = new Thread(new Runnable() {
+                public void run() {
+                    map.get("key");
+                }
+            });
+            reader.start();
+            reader.join();
+        }
+        assertEquals(50, map.readerCount());
+        assertTrue(map.set("other_key", 2));
+        assertEquals(0, map.readerCount());
+        assertEquals(Integer.valueOf(1), map.get("key"));
+        assertEquals(1, map.readerCount());
+    }
+}